@@ -11,7 +11,8 @@ CREATE TABLE user
     cpf        VARCHAR(11)                   NOT NULL UNIQUE,
     birth_date DATE                          NOT NULL,
     phone      VARCHAR(15),
-    password   VARCHAR(50)                   NOT NULL,
+    -- hash pbkdf2$<iterações>$<salt>$<hash>; senhas antigas em texto puro viram hash no login
+    password   VARCHAR(255)                  NOT NULL,
     user_type  ENUM ('CUSTOMER', 'EMPLOYEE') NOT NULL
 );
 
@@ -55,6 +56,13 @@ CREATE TABLE account
     FOREIGN KEY (id_customer) REFERENCES customer (id_customer) ON DELETE CASCADE
 );
 
+-- Sequência dos números de conta: a aplicação reserva blocos (next_value avança de N em N)
+CREATE TABLE account_number_sequence
+(
+    id         TINYINT PRIMARY KEY,
+    next_value INT NOT NULL
+);
+
 CREATE TABLE savings_account
 (
     id_savings_account INT AUTO_INCREMENT PRIMARY KEY,
@@ -82,6 +90,23 @@ CREATE TABLE transaction
     FOREIGN KEY (id_account) REFERENCES account (id_account) ON DELETE CASCADE
 ) ENGINE = InnoDB;
 
+-- Índices das consultas da aplicação. Podem ser aplicados sozinhos num banco já existente; o
+-- MySQL descarta o índice implícito da FK quando um destes passa a cobri-la.
+
+-- login do cliente (id_customer + branch) e conta por cliente, sem ler a linha da conta
+CREATE INDEX idx_account_customer_branch ON account (id_customer, branch, account_number);
+
+-- cada conta tem no máximo uma linha de detalhe por tipo
+CREATE UNIQUE INDEX uq_checking_account_account ON checking_account (id_account);
+CREATE UNIQUE INDEX uq_savings_account_account ON savings_account (id_account);
+
+-- extrato: filtra pela conta e já sai na ordem de data, cobrindo as colunas exibidas
+CREATE INDEX idx_transaction_account_date
+    ON transaction (id_account, transaction_date, id_transaction, transaction_type, amount);
+
+-- relatório de movimentações em ordem de data
+CREATE INDEX idx_transaction_date ON transaction (transaction_date, id_transaction);
+
 CREATE TABLE report
 (
     id_report       INT AUTO_INCREMENT PRIMARY KEY,
@@ -125,6 +150,11 @@ INSERT INTO account (account_number, id_customer, branch, account_type, balance)
 VALUES (10003, 1, 'DF', 'SAVINGS', 1000.00),
        (10004, 2, 'SP', 'SAVINGS', 2000.00);
 
+-- A sequência começa depois do maior número já usado
+INSERT INTO account_number_sequence (id, next_value)
+SELECT 1, COALESCE(MAX(account_number), 9999) + 1
+FROM account;
+
 INSERT INTO transaction (transaction_type, amount, transaction_date, id_account)
 VALUES ('DEPOSIT', 200.00, '2024-11-01', 1),
        ('WITHDRAWAL', 100.00, '2024-11-05', 1),
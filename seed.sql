@@ -0,0 +1,110 @@
+-- Massa de dados para conferir planos de execução e medir consultas com volume de produção.
+-- Roda depois do schema.sql: 100 mil clientes com endereço e conta, 200 funcionários e 200 mil
+-- movimentações espalhadas por dez anos, mais uma conta antiga com lançamentos de dez anos
+-- seguidos. Com poucas linhas o otimizador varre as tabelas mesmo tendo índice; com esta massa,
+-- uma varredura completa no plano é um problema de verdade.
+
+USE banco_malvader;
+
+-- números de 0 a 99999, montados de uma tabela de dígitos
+CREATE TABLE seed_digit
+(
+    d INT PRIMARY KEY
+);
+
+INSERT INTO seed_digit (d)
+VALUES (0), (1), (2), (3), (4), (5), (6), (7), (8), (9);
+
+CREATE TABLE seed_number
+(
+    n INT PRIMARY KEY
+);
+
+INSERT INTO seed_number (n)
+SELECT d1.d + 10 * d2.d + 100 * d3.d + 1000 * d4.d + 10000 * d5.d
+FROM seed_digit d1
+         CROSS JOIN seed_digit d2
+         CROSS JOIN seed_digit d3
+         CROSS JOIN seed_digit d4
+         CROSS JOIN seed_digit d5;
+
+-- clientes: CPF 9 seguido do número, conta 1000000 + número
+INSERT INTO user (name, cpf, birth_date, phone, password, user_type)
+SELECT CONCAT('Cliente ', n),
+       CONCAT('9', LPAD(n, 10, '0')),
+       DATE_ADD('1950-01-01', INTERVAL n MOD 18000 DAY),
+       IF(n MOD 4 = 0, NULL, CONCAT('61', LPAD(n, 8, '0'))),
+       'seed',
+       'CUSTOMER'
+FROM seed_number;
+
+INSERT INTO customer (id_user)
+SELECT id_user
+FROM user
+WHERE cpf LIKE '9%';
+
+INSERT INTO address (zip_code, street, house_number, neighborhood, city, state, id_user)
+SELECT '70000-000', 'Rua da Massa', id_user MOD 1000, 'Centro', 'Brasília', 'DF', id_user
+FROM user
+WHERE cpf LIKE '9%';
+
+INSERT INTO account (account_number, id_customer, branch, account_type, balance)
+SELECT 1000000 + CAST(SUBSTRING(u.cpf, 2) AS UNSIGNED),
+       c.id_customer,
+       ELT(1 + c.id_customer MOD 3, 'DF', 'SP', 'RJ'),
+       IF(c.id_customer MOD 2 = 0, 'CHECKING', 'SAVINGS'),
+       1000.00
+FROM customer c
+         INNER JOIN user u ON c.id_user = u.id_user
+WHERE u.cpf LIKE '9%';
+
+INSERT INTO checking_account (id_account, credit_limit, due_date)
+SELECT id_account, 500.00, '2030-01-01'
+FROM account
+WHERE account_number >= 1000000
+  AND account_type = 'CHECKING';
+
+INSERT INTO savings_account (id_account, interest_rate)
+SELECT id_account, 0.50
+FROM account
+WHERE account_number >= 1000000
+  AND account_type = 'SAVINGS';
+
+-- funcionários: CPF 8 seguido do número, código S + número
+INSERT INTO user (name, cpf, birth_date, phone, password, user_type)
+SELECT CONCAT('Funcionário ', n), CONCAT('8', LPAD(n, 10, '0')), '1980-01-01', NULL, 'seed', 'EMPLOYEE'
+FROM seed_number
+WHERE n < 200;
+
+INSERT INTO employee (employee_code, role, id_user)
+SELECT CONCAT('S', SUBSTRING(cpf, 2)), 'Analyst', id_user
+FROM user
+WHERE cpf LIKE '8%';
+
+-- 200 mil movimentações, duas por conta, em minutos espalhados por dez anos a partir de 2015
+INSERT INTO transaction (transaction_type, amount, transaction_date, id_account)
+SELECT ELT(1 + (s.n + d.d) MOD 3, 'DEPOSIT', 'WITHDRAWAL', 'TRANSFER'),
+       1.00 + (s.n MOD 500),
+       DATE_ADD('2015-01-01', INTERVAL (s.n * 7919 + d.d * 2628000) MOD 5256000 MINUTE),
+       a.id_account
+FROM seed_number s
+         CROSS JOIN seed_digit d
+         INNER JOIN account a ON a.account_number = 1000000 + s.n
+WHERE d.d < 2;
+
+-- a conta 1000000 movimenta desde 2015: três lançamentos por dia durante dez anos
+INSERT INTO transaction (transaction_type, amount, transaction_date, id_account)
+SELECT 'DEPOSIT', 10.00, DATE_ADD('2015-01-01', INTERVAL s.n * 8 HOUR), a.id_account
+FROM seed_number s
+         INNER JOIN account a ON a.account_number = 1000000
+WHERE s.n < 10950;
+
+UPDATE account_number_sequence
+SET next_value = (SELECT MAX(account_number) + 1 FROM account)
+WHERE id = 1;
+
+DROP TABLE seed_number;
+
+DROP TABLE seed_digit;
+
+ANALYZE TABLE user, employee, customer, address, account, checking_account, savings_account, transaction;
@@ -6,7 +6,14 @@ import io.qt.widgets.QMainWindow;
 import java.util.logging.ConsoleHandler;
 import java.util.logging.Level;
 import java.util.logging.Logger;
+import org.bancomaldaver.dao.AccountMetadataCache;
+import org.bancomaldaver.dao.CpfRegistry;
+import org.bancomaldaver.dao.ProfileCache;
 import org.bancomaldaver.utils.NavigationManager;
+import org.bancomaldaver.utils.PoolMetrics;
+import org.bancomaldaver.utils.QueryPlanVerifier;
+import org.bancomaldaver.utils.QueryRegistry;
+import org.bancomaldaver.utils.StatementCacheStats;
 import org.bancomaldaver.views.MainMenuPage;
 
 public class Main {
@@ -21,6 +28,13 @@ public class Main {
     try {
       logger.info("Iniciando a aplicação...");
 
+      QueryRegistry.initialize();
+      if (QueryPlanVerifier.isEnabled()) {
+        QueryPlanVerifier.verify();
+      }
+      StatementCacheStats.markStart();
+      CpfRegistry.loadInBackground();
+
       QApplication.initialize(args);
 
       QApplication.setAttribute(Qt.ApplicationAttribute.AA_UseDesktopOpenGL);
@@ -36,6 +50,12 @@ public class Main {
       mainWindow.resize(1366, 768);
 
       QApplication.exec();
+
+      PoolMetrics.snapshotAll().forEach(metrics -> logger.info(metrics.toString()));
+      StatementCacheStats.log();
+      AccountMetadataCache.stats().forEach(stats -> logger.info(stats.toString()));
+      ProfileCache.stats().forEach(stats -> logger.info(stats.toString()));
+      logger.info(CpfRegistry.describe());
     } catch (Exception e) {
       logger.log(Level.SEVERE, "Erro ao iniciar a aplicação: " + e.getMessage());
       e.printStackTrace();
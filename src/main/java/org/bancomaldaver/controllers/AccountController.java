@@ -1,47 +1,163 @@
 package org.bancomaldaver.controllers;
 
-import java.util.Map;
+import java.util.concurrent.CompletableFuture;
 import org.bancomaldaver.dao.AccountDAO;
+import org.bancomaldaver.dao.AccountMetadataCache;
+import org.bancomaldaver.dao.AccountNumberAllocator;
+import org.bancomaldaver.dao.CustomerDAO;
 import org.bancomaldaver.models.AccountClosureData;
+import org.bancomaldaver.models.AccountDetails;
+import org.bancomaldaver.models.AccountSnapshot;
 import org.bancomaldaver.models.CheckingAccount;
+import org.bancomaldaver.models.Customer;
 import org.bancomaldaver.models.SavingsAccount;
+import org.bancomaldaver.utils.UnitOfWork;
 
 public final class AccountController {
   private final AccountDAO accountDAO;
+  private final UserController userController = new UserController();
 
   public AccountController() {
     this.accountDAO = new AccountDAO();
   }
 
+  /**
+   * Busca, numa consulta, todas as contas do cliente para o encerramento. O resultado é o que a
+   * confirmação usa: {@link #closeAccount} não consulta de novo, só confere a versão.
+   */
   public AccountClosureData getAccountClosureData(String cpf) throws Exception {
-    var userId = accountDAO.getUserIdByCpf(cpf);
-    var customerId = accountDAO.getCustomerIdByUserId(userId);
-    var accountNumber = accountDAO.getAccountNumberByCustomerId(customerId);
+    var stamp = AccountMetadataCache.stamp();
+    var accounts = accountDAO.findAccountsForClosure(cpf);
+    if (accounts.isEmpty()) {
+      throw new IllegalArgumentException("Nenhuma conta encontrada para o CPF informado.");
+    }
 
-    return new AccountClosureData(cpf, userId, customerId, accountNumber);
+    accounts.forEach(snapshot -> AccountMetadataCache.prime(snapshot.metadata(), stamp));
+    return new AccountClosureData(cpf, accounts.get(0).metadata().customerName(), accounts);
   }
 
   public void createCheckingAccount(int userId, CheckingAccount account) throws Exception {
-    var customerId = accountDAO.createCustomer(userId);
+    // reservado antes da unidade: uma reserva de bloco lá dentro tomaria uma segunda conexão
+    var accountNumber = AccountNumberAllocator.nextAccountNumber();
+    var accountId = UnitOfWork.call(() -> insertCheckingAccount(userId, accountNumber, account));
+    AccountMetadataCache.invalidate(accountId);
+  }
 
-    var accountId = accountDAO.createAccount(customerId, account.getBranch(), "CHECKING");
+  public void createSavingsAccount(int userId, SavingsAccount account) throws Exception {
+    var accountNumber = AccountNumberAllocator.nextAccountNumber();
+    var accountId = UnitOfWork.call(() -> insertSavingsAccount(userId, accountNumber, account));
+    AccountMetadataCache.invalidate(accountId);
+  }
 
-    accountDAO.createCheckingAccount(accountId, account);
+  /**
+   * Cadastra o cliente e abre a conta corrente numa única transação: se a conta falhar, o usuário
+   * também não fica gravado. O hash da senha e a reserva do número rodam antes da unidade.
+   */
+  public void createCustomerWithCheckingAccount(Customer customer, CheckingAccount account)
+      throws Exception {
+    var passwordHash = userController.prepareUser(customer);
+    var accountNumber = AccountNumberAllocator.nextAccountNumber();
+    var accountId =
+        UnitOfWork.call(
+            () -> {
+              var userId = userController.insertUserWithAddress(customer, passwordHash);
+              return insertCheckingAccount(userId, accountNumber, account);
+            });
+    userController.userCreated(customer);
+    AccountMetadataCache.invalidate(accountId);
   }
 
-  public void createSavingsAccount(int userId, SavingsAccount account) throws Exception {
+  /** Igual a {@link #createCustomerWithCheckingAccount}, para a conta poupança. */
+  public void createCustomerWithSavingsAccount(Customer customer, SavingsAccount account)
+      throws Exception {
+    var passwordHash = userController.prepareUser(customer);
+    var accountNumber = AccountNumberAllocator.nextAccountNumber();
+    var accountId =
+        UnitOfWork.call(
+            () -> {
+              var userId = userController.insertUserWithAddress(customer, passwordHash);
+              return insertSavingsAccount(userId, accountNumber, account);
+            });
+    userController.userCreated(customer);
+    AccountMetadataCache.invalidate(accountId);
+  }
+
+  private int insertCheckingAccount(int userId, int accountNumber, CheckingAccount account)
+      throws Exception {
     var customerId = accountDAO.createCustomer(userId);
+    var id = accountDAO.createAccount(customerId, accountNumber, account.getBranch(), "CHECKING");
+    accountDAO.createCheckingAccount(id, account);
+    return id;
+  }
+
+  private int insertSavingsAccount(int userId, int accountNumber, SavingsAccount account)
+      throws Exception {
+    var customerId = accountDAO.createCustomer(userId);
+    var id = accountDAO.createAccount(customerId, accountNumber, account.getBranch(), "SAVINGS");
+    accountDAO.createSavingsAccount(id, account);
+    return id;
+  }
 
-    var accountId = accountDAO.createAccount(customerId, account.getBranch(), "SAVINGS");
+  /** Dados cadastrais do cache e saldo lido na hora. */
+  public AccountDetails getAccountDetails(String accountNumber) throws Exception {
+    var metadata = AccountMetadataCache.getByNumber(accountNumber);
+    return new AccountDetails(metadata, CustomerDAO.getBalance(metadata.accountId()));
+  }
+
+  /**
+   * Encerra a conta consultada em {@link #getAccountClosureData}.
+   *
+   * @return false se a conta foi movimentada ou encerrada depois da consulta; nada é apagado.
+   */
+  public boolean closeAccount(AccountSnapshot snapshot) throws Exception {
+    var deleted = accountDAO.deleteAccountIfUnchanged(snapshot);
+    AccountMetadataCache.invalidate(snapshot.metadata().accountId());
+    return deleted;
+  }
+
+  public CompletableFuture<Void> createCheckingAccountAsync(int userId, CheckingAccount account) {
+    return ControllerExecutor.supply(
+        () -> {
+          createCheckingAccount(userId, account);
+          return null;
+        });
+  }
+
+  public CompletableFuture<Void> createSavingsAccountAsync(int userId, SavingsAccount account) {
+    return ControllerExecutor.supply(
+        () -> {
+          createSavingsAccount(userId, account);
+          return null;
+        });
+  }
+
+  public CompletableFuture<Void> createCustomerWithCheckingAccountAsync(
+      Customer customer, CheckingAccount account) {
+    return ControllerExecutor.supply(
+        () -> {
+          createCustomerWithCheckingAccount(customer, account);
+          return null;
+        });
+  }
+
+  public CompletableFuture<Void> createCustomerWithSavingsAccountAsync(
+      Customer customer, SavingsAccount account) {
+    return ControllerExecutor.supply(
+        () -> {
+          createCustomerWithSavingsAccount(customer, account);
+          return null;
+        });
+  }
 
-    accountDAO.createSavingsAccount(accountId, account);
+  public CompletableFuture<AccountClosureData> getAccountClosureDataAsync(String cpf) {
+    return ControllerExecutor.supply(() -> getAccountClosureData(cpf));
   }
 
-  public Map<String, Object> getAccountDetails(String accountNumber) throws Exception {
-    return accountDAO.getAccountDetailsByNumber(accountNumber);
+  public CompletableFuture<AccountDetails> getAccountDetailsAsync(String accountNumber) {
+    return ControllerExecutor.supply(() -> getAccountDetails(accountNumber));
   }
 
-  public boolean closeAccount(String accountNumber) throws Exception {
-    return accountDAO.deleteAccount(accountNumber);
+  public CompletableFuture<Boolean> closeAccountAsync(AccountSnapshot snapshot) {
+    return ControllerExecutor.supply(() -> closeAccount(snapshot));
   }
 }
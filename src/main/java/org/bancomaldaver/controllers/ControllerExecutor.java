@@ -0,0 +1,34 @@
+package org.bancomaldaver.controllers;
+
+import java.util.concurrent.Callable;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+/**
+ * Executor das variantes assíncronas dos controllers. Cada chamada roda numa virtual thread
+ * própria, então o JDBC bloqueante não segura a thread da GUI nem precisa de um pool dimensionado à
+ * mão; quem limita a concorrência no banco continua sendo o pool de conexões.
+ */
+final class ControllerExecutor {
+  private static final ExecutorService executor = Executors.newVirtualThreadPerTaskExecutor();
+
+  private ControllerExecutor() {
+    throw new UnsupportedOperationException("Essa classe não pode ser instanciada diretamente.");
+  }
+
+  static <T> CompletableFuture<T> supply(Callable<T> task) {
+    return CompletableFuture.supplyAsync(
+        () -> {
+          try {
+            return task.call();
+          } catch (RuntimeException e) {
+            throw e;
+          } catch (Exception e) {
+            throw new CompletionException(e);
+          }
+        },
+        executor);
+  }
+}
@@ -0,0 +1,158 @@
+package org.bancomaldaver.controllers;
+
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.security.GeneralSecurityException;
+import java.security.SecureRandom;
+import java.util.Base64;
+import java.util.Map;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+import javax.crypto.Mac;
+import javax.crypto.spec.SecretKeySpec;
+import org.bancomaldaver.dao.CredentialDAO;
+import org.bancomaldaver.models.Credential;
+import org.bancomaldaver.utils.PasswordHasher;
+
+/**
+ * Conferência de senhas. O hash roda num pool de threads limitado ao número de processadores, com
+ * fila curta: uma rajada de logins espera a vez (ou é recusada) em vez de disputar a CPU com o
+ * resto da aplicação.
+ *
+ * <p>Verificações bem-sucedidas ficam num cache por alguns minutos, então confirmar a senha de novo
+ * na mesma sessão custa um HMAC em vez de um PBKDF2. A chave do cache é um HMAC com chave aleatória
+ * do processo sobre usuário, hash gravado e senha: nada reversível fica em memória, e trocar a
+ * senha muda o hash gravado e invalida a entrada.
+ */
+final class Credentials {
+  private static final Logger logger = Logger.getLogger(Credentials.class.getName());
+  private static final int QUEUE_CAPACITY = 64;
+  private static final long CACHE_TTL_NANOS = TimeUnit.MINUTES.toNanos(5);
+  private static final int CACHE_MAX_ENTRIES = 1024;
+  private static final String CACHE_MAC_ALGORITHM = "HmacSHA256";
+
+  private static final ExecutorService hashExecutor = createHashExecutor();
+  private static final SecretKeySpec cacheKey = createCacheKey();
+  private static final Map<String, Long> verified = new ConcurrentHashMap<>();
+
+  private Credentials() {
+    throw new UnsupportedOperationException("Essa classe não pode ser instanciada diretamente.");
+  }
+
+  /**
+   * Confere a senha com a credencial gravada. Senhas ainda em texto puro, ou com hash mais fraco
+   * que o atual, são regravadas com o hash novo.
+   */
+  static boolean check(Credential credential, String password) {
+    if (credential == null || password == null) {
+      return false;
+    }
+
+    var cacheEntry = cacheKey(credential, password);
+    var deadline = verified.get(cacheEntry);
+    if (deadline != null && System.nanoTime() - deadline < 0) {
+      return true;
+    }
+
+    if (!runOnHashExecutor(() -> PasswordHasher.verify(password, credential.passwordHash()))) {
+      return false;
+    }
+
+    if (PasswordHasher.needsRehash(credential.passwordHash())) {
+      upgrade(credential, password);
+    } else {
+      remember(cacheEntry);
+    }
+    return true;
+  }
+
+  /** Confere a senha do titular da conta. */
+  static boolean checkAccount(int accountId, String password) {
+    return check(CredentialDAO.findByAccountId(accountId), password);
+  }
+
+  /** Calcula o hash de uma senha nova, no mesmo pool da verificação. */
+  static String hash(String password) {
+    return runOnHashExecutor(() -> PasswordHasher.hash(password));
+  }
+
+  private static void upgrade(Credential credential, String password) {
+    var passwordHash = hash(password);
+    CredentialDAO.updatePasswordHash(credential.userId(), passwordHash);
+    logger.log(Level.INFO, "Senha do usuário {0} convertida para hash.", credential.userId());
+
+    // o hash gravado mudou; a entrada do cache tem que ser a do valor novo
+    remember(
+        cacheKey(
+            new Credential(credential.userId(), passwordHash, credential.accountId()), password));
+  }
+
+  private static void remember(String cacheEntry) {
+    var now = System.nanoTime();
+    if (verified.size() >= CACHE_MAX_ENTRIES) {
+      verified.values().removeIf(deadline -> now - deadline >= 0);
+      if (verified.size() >= CACHE_MAX_ENTRIES) {
+        verified.clear();
+      }
+    }
+    verified.put(cacheEntry, now + CACHE_TTL_NANOS);
+  }
+
+  private static String cacheKey(Credential credential, String password) {
+    try {
+      var mac = Mac.getInstance(CACHE_MAC_ALGORITHM);
+      mac.init(cacheKey);
+      mac.update(ByteBuffer.allocate(Integer.BYTES).putInt(credential.userId()).array());
+      mac.update(credential.passwordHash().getBytes(StandardCharsets.UTF_8));
+      mac.update((byte) 0);
+      return Base64.getEncoder()
+          .encodeToString(mac.doFinal(password.getBytes(StandardCharsets.UTF_8)));
+    } catch (GeneralSecurityException e) {
+      throw new IllegalStateException("Erro ao calcular a chave do cache de senhas.", e);
+    }
+  }
+
+  private static <T> T runOnHashExecutor(Callable<T> task) {
+    try {
+      return hashExecutor.submit(task).get();
+    } catch (RejectedExecutionException e) {
+      throw new IllegalStateException("Muitas autenticações simultâneas. Tente novamente.", e);
+    } catch (InterruptedException e) {
+      Thread.currentThread().interrupt();
+      throw new IllegalStateException("Autenticação interrompida.", e);
+    } catch (ExecutionException e) {
+      throw new IllegalStateException("Erro ao conferir a senha.", e.getCause());
+    }
+  }
+
+  private static ExecutorService createHashExecutor() {
+    var threads = Runtime.getRuntime().availableProcessors();
+    var counter = new AtomicInteger();
+    return new ThreadPoolExecutor(
+        threads,
+        threads,
+        30,
+        TimeUnit.SECONDS,
+        new ArrayBlockingQueue<>(QUEUE_CAPACITY),
+        runnable -> {
+          var thread = new Thread(runnable, "hash-senha-" + counter.incrementAndGet());
+          thread.setDaemon(true);
+          return thread;
+        });
+  }
+
+  private static SecretKeySpec createCacheKey() {
+    var key = new byte[32];
+    new SecureRandom().nextBytes(key);
+    return new SecretKeySpec(key, CACHE_MAC_ALGORITHM);
+  }
+}
@@ -1,59 +1,144 @@
 package org.bancomaldaver.controllers;
 
-import static org.bancomaldaver.dao.CustomerDAO.authenticate;
-
-import java.util.List;
-import java.util.Map;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.concurrent.CompletableFuture;
+import org.bancomaldaver.dao.AccountMetadataCache;
 import org.bancomaldaver.dao.CustomerDAO;
-import org.bancomaldaver.utils.DatabaseWrapper;
+import org.bancomaldaver.models.CustomerSession;
+import org.bancomaldaver.models.StatementEntry;
+import org.bancomaldaver.models.TransactionCursor;
+import org.bancomaldaver.models.TransactionPage;
+import org.bancomaldaver.utils.UnitOfWork;
 
 public final class CustomerController {
+  private static final int STATEMENT_PAGE_SIZE = 50;
+  // limite superior da coluna TIMESTAMP do MySQL
+  private static final LocalDateTime END_OF_TIME = LocalDateTime.of(2038, 1, 20, 0, 0);
 
-  public double getBalance(int accountId, String password) throws Exception {
-    if (!authenticate(accountId, password)) {
-      throw new IllegalArgumentException("Senha incorreta.");
-    }
-    return CustomerDAO.getBalance(accountId);
+  public long getBalance(CustomerSession session) throws Exception {
+    return CustomerDAO.getBalance(SessionRegistry.requireCustomer(session));
   }
 
-  public void deposit(int accountId, double amount) throws Exception {
-    if (amount <= 0) {
+  public void deposit(CustomerSession session, long amountCents) throws Exception {
+    var accountId = SessionRegistry.requireCustomer(session);
+    if (amountCents <= 0) {
       throw new IllegalArgumentException("Valor do depósito deve ser maior que zero.");
     }
-    CustomerDAO.updateBalance(accountId, amount);
-    CustomerDAO.insertTransaction(accountId, "DEPOSIT", amount);
+    UnitOfWork.run(
+        () -> {
+          CustomerDAO.updateBalance(accountId, amountCents);
+          CustomerDAO.insertTransaction(accountId, "DEPOSIT", amountCents);
+        });
   }
 
-  public void withdraw(int accountId, double amount, String password) throws Exception {
-    if (!authenticate(accountId, password)) {
+  /** Saque pede a senha de novo mesmo com a sessão válida. */
+  public void withdraw(CustomerSession session, long amountCents, String password)
+      throws Exception {
+    var accountId = SessionRegistry.requireCustomer(session);
+    if (amountCents <= 0) {
+      throw new IllegalArgumentException("Valor do saque deve ser maior que zero.");
+    }
+    // o hash da senha roda antes de abrir a transação, para não segurar a conexão
+    if (!Credentials.checkAccount(accountId, password)) {
       throw new IllegalArgumentException("Senha incorreta.");
     }
 
-    var balance = CustomerDAO.getBalance(accountId);
+    UnitOfWork.run(
+        () -> {
+          // o banco confere o saldo e debita de uma vez; dois saques simultâneos não passam
+          // juntos pela verificação
+          if (!CustomerDAO.debitIfSufficient(accountId, amountCents)) {
+            throw new IllegalArgumentException("Saldo insuficiente.");
+          }
+          CustomerDAO.insertTransaction(accountId, "WITHDRAWAL", -amountCents);
+        });
+  }
 
-    if (amount > balance) {
-      throw new IllegalArgumentException("Saldo insuficiente.");
+  public long getCreditLimit(CustomerSession session) throws Exception {
+    var metadata = AccountMetadataCache.getById(SessionRegistry.requireCustomer(session));
+    if (!metadata.isChecking()) {
+      throw new IllegalArgumentException("A conta não é conta corrente.");
     }
-    CustomerDAO.updateBalance(accountId, -amount);
-    CustomerDAO.insertTransaction(accountId, "WITHDRAWAL", -amount);
+    return metadata.creditLimitCents();
   }
 
-  public double getCreditLimit(int accountId, String password) throws Exception {
-    if (!authenticate(accountId, password)) {
-      throw new IllegalArgumentException("Senha incorreta.");
+  /**
+   * Busca uma página do extrato no período informado.
+   *
+   * @param from Primeiro dia do período (inclusive), ou null para desde o início.
+   * @param to Último dia do período (inclusive), ou null para até hoje.
+   * @param after Cursor devolvido pela página anterior, ou null para a primeira página.
+   */
+  public TransactionPage<StatementEntry> getStatementPage(
+      CustomerSession session, LocalDate from, LocalDate to, TransactionCursor after)
+      throws Exception {
+    var accountId = SessionRegistry.requireCustomer(session);
+
+    var start = after;
+    if (start == null) {
+      start =
+          from != null
+              ? TransactionCursor.startingAt(from.atStartOfDay())
+              : TransactionCursor.beginning();
     }
-    return CustomerDAO.getCreditLimit(accountId);
+    var end = to != null ? to.plusDays(1).atStartOfDay() : END_OF_TIME;
+
+    // uma linha a mais só para saber se existe próxima página
+    var entries = CustomerDAO.getTransactionsAfter(accountId, start, end, STATEMENT_PAGE_SIZE + 1);
+    return TransactionPage.of(entries, STATEMENT_PAGE_SIZE, StatementEntry::cursor);
   }
 
-  public String getAccountType(int accountId) throws Exception {
-    final String query = "SELECT account_type FROM account WHERE id_account = ?";
-    return DatabaseWrapper.executeQueryForSingleString(query, accountId);
+  /**
+   * Busca a página do extrato anterior ao cursor, para voltar ao começo de um extrato que já saiu
+   * da tela.
+   *
+   * @param from Primeiro dia do período (inclusive), ou null para desde o início.
+   * @param before Cursor da primeira linha já exibida.
+   */
+  public TransactionPage<StatementEntry> getStatementPageBefore(
+      CustomerSession session, LocalDate from, TransactionCursor before) throws Exception {
+    var accountId = SessionRegistry.requireCustomer(session);
+    var start =
+        from != null ? from.atStartOfDay() : TransactionCursor.beginning().transactionDate();
+
+    var entries =
+        CustomerDAO.getTransactionsBefore(accountId, before, start, STATEMENT_PAGE_SIZE + 1);
+    return TransactionPage.ofDescending(entries, STATEMENT_PAGE_SIZE, StatementEntry::cursor);
   }
 
-  public List<Map<String, String>> getStatement(int accountId, String password) throws Exception {
-    if (!authenticate(accountId, password)) {
-      throw new IllegalArgumentException("Senha incorreta.");
-    }
-    return CustomerDAO.getTransactions(accountId);
+  public CompletableFuture<Long> getBalanceAsync(CustomerSession session) {
+    return ControllerExecutor.supply(() -> getBalance(session));
+  }
+
+  public CompletableFuture<Void> depositAsync(CustomerSession session, long amountCents) {
+    return ControllerExecutor.supply(
+        () -> {
+          deposit(session, amountCents);
+          return null;
+        });
+  }
+
+  public CompletableFuture<Void> withdrawAsync(
+      CustomerSession session, long amountCents, String password) {
+    return ControllerExecutor.supply(
+        () -> {
+          withdraw(session, amountCents, password);
+          return null;
+        });
+  }
+
+  public CompletableFuture<Long> getCreditLimitAsync(CustomerSession session) {
+    return ControllerExecutor.supply(() -> getCreditLimit(session));
+  }
+
+  public CompletableFuture<TransactionPage<StatementEntry>> getStatementPageAsync(
+      CustomerSession session, LocalDate from, LocalDate to, TransactionCursor after) {
+    return ControllerExecutor.supply(() -> getStatementPage(session, from, to, after));
+  }
+
+  public CompletableFuture<TransactionPage<StatementEntry>> getStatementPageBeforeAsync(
+      CustomerSession session, LocalDate from, TransactionCursor before) {
+    return ControllerExecutor.supply(() -> getStatementPageBefore(session, from, before));
   }
 }
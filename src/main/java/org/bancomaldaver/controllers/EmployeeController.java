@@ -1,17 +1,26 @@
 package org.bancomaldaver.controllers;
 
-import java.util.List;
-import java.util.Map;
+import java.util.concurrent.CompletableFuture;
 import java.util.logging.Level;
 import java.util.logging.Logger;
+import org.bancomaldaver.dao.CpfRegistry;
+import org.bancomaldaver.dao.CredentialDAO;
 import org.bancomaldaver.dao.EmployeeDAO;
+import org.bancomaldaver.dao.ProfileCache;
 import org.bancomaldaver.models.Address;
 import org.bancomaldaver.models.Employee;
+import org.bancomaldaver.models.EmployeeProfile;
+import org.bancomaldaver.models.EmployeeSession;
+import org.bancomaldaver.models.LedgerEntry;
+import org.bancomaldaver.models.TransactionCursor;
+import org.bancomaldaver.models.TransactionPage;
 import org.bancomaldaver.utils.DatabaseWrapper;
 import org.bancomaldaver.utils.SQLQueries;
+import org.bancomaldaver.utils.UnitOfWork;
 
 public class EmployeeController {
   private static final Logger logger = Logger.getLogger(EmployeeController.class.getName());
+  private static final int LEDGER_PAGE_SIZE = 200;
 
   public void createEmployee(Employee employee) throws Exception {
     if (doesCpfExist(employee.getCpf())) {
@@ -20,53 +29,117 @@ public class EmployeeController {
 
     validateEmployee(employee);
 
-    var userId = insertUser(employee);
+    // hash antes da unidade, para não segurar a conexão; as três inserções vão juntas
+    var passwordHash = Credentials.hash(employee.getPassword());
+    UnitOfWork.run(
+        () -> {
+          var userId = insertUser(employee, passwordHash);
 
-    insertAddress(userId, employee.getAddress());
+          insertAddress(userId, employee.getAddress());
 
-    insertEmployee(userId, employee);
+          insertEmployee(userId, employee);
+        });
+    CpfRegistry.add(employee.getCpf());
+    ProfileCache.invalidateEmployee(employee.getEmployeeCode());
   }
 
   public String getEmployeeNameByCode(String code) throws Exception {
-    // Não era pra ter uma query aqui... mas por questões de tempo, não tenho tempo de refatorar e
-    // testar
-    final String query =
-        "SELECT name FROM user u "
-            + "INNER JOIN employee e ON u.id_user = e.id_user "
-            + "WHERE e.employee_code = ?";
-    return DatabaseWrapper.executeQueryForSingleString(query, code);
+    return DatabaseWrapper.executeQueryForSingleString(
+        SQLQueries.SELECT_EMPLOYEE_NAME_BY_CODE, code);
   }
 
   public boolean validateEmployeeLogin(String code, String password) throws Exception {
-    // Não era pra ter uma query aqui... mas por questões de tempo, não tenho tempo de refatorar e
-    // testar
-    final String query =
-        "SELECT COUNT(*) FROM user u "
-            + "INNER JOIN employee e ON u.id_user = e.id_user "
-            + "WHERE e.employee_code = ? AND u.password = ?";
-    var count = DatabaseWrapper.executeQueryForSingleInt(query, code, password);
-    return count > 0;
+    return Credentials.check(CredentialDAO.findEmployeeByCode(code), password);
   }
 
-  public boolean authenticate(String password) throws Exception {
-    // Não era pra ter uma query aqui... mas por questões de tempo, não tenho tempo de refatorar e
-    // testar
-    final String query = "SELECT COUNT(*) FROM user WHERE password = ? AND user_type = 'EMPLOYEE'";
-    int count = DatabaseWrapper.executeQueryForSingleInt(query, password);
-    return count > 0;
+  /**
+   * Autentica o funcionário e abre a sessão usada pelas operações seguintes.
+   *
+   * @return A sessão, ou null se código ou senha estiverem incorretos.
+   */
+  public EmployeeSession login(String code, String password) throws Exception {
+    if (!validateEmployeeLogin(code, password)) {
+      return null;
+    }
+    return new EmployeeSession(SessionRegistry.EMPLOYEES.open(), code);
+  }
+
+  public void logout(EmployeeSession session) {
+    if (session != null) {
+      SessionRegistry.EMPLOYEES.close(session.token());
+    }
+  }
+
+  /**
+   * Confirma a senha do funcionário da sessão antes de uma operação sensível. É uma busca pelo
+   * código, que é único; repetida na mesma sessão, cai no cache de verificações.
+   */
+  public boolean authenticate(EmployeeSession session, String password) throws Exception {
+    var employeeCode = SessionRegistry.requireEmployee(session);
+    return validateEmployeeLogin(employeeCode, password);
+  }
+
+  public EmployeeProfile getEmployeeDetails(String employeeCode) throws Exception {
+    return ProfileCache.getEmployee(employeeCode);
+  }
+
+  public CompletableFuture<EmployeeSession> loginAsync(String code, String password) {
+    return ControllerExecutor.supply(() -> login(code, password));
+  }
+
+  public CompletableFuture<String> getEmployeeNameByCodeAsync(String code) {
+    return ControllerExecutor.supply(() -> getEmployeeNameByCode(code));
   }
 
-  public Map<String, String> getEmployeeDetails(String employeeCode) throws Exception {
-    return EmployeeDAO.getEmployeeDetailsByCode(employeeCode);
+  public CompletableFuture<Void> createEmployeeAsync(Employee employee) {
+    return ControllerExecutor.supply(
+        () -> {
+          createEmployee(employee);
+          return null;
+        });
   }
 
-  public List<Map<String, String>> getAllFinancialTransactions() throws Exception {
-    return EmployeeDAO.getFinancialTransactions();
+  public CompletableFuture<Boolean> authenticateAsync(EmployeeSession session, String password) {
+    return ControllerExecutor.supply(() -> authenticate(session, password));
+  }
+
+  public CompletableFuture<EmployeeProfile> getEmployeeDetailsAsync(String employeeCode) {
+    return ControllerExecutor.supply(() -> getEmployeeDetails(employeeCode));
+  }
+
+  /**
+   * Busca uma página do razão de todas as contas, em ordem de data.
+   *
+   * @param after Cursor devolvido pela página anterior, ou null para a primeira página.
+   */
+  public TransactionPage<LedgerEntry> getLedgerPage(TransactionCursor after) {
+    var start = after != null ? after : TransactionCursor.beginning();
+    var entries = EmployeeDAO.getLedgerEntriesAfter(start, LEDGER_PAGE_SIZE + 1);
+    return TransactionPage.of(entries, LEDGER_PAGE_SIZE, LedgerEntry::cursor);
+  }
+
+  public CompletableFuture<TransactionPage<LedgerEntry>> getLedgerPageAsync(
+      TransactionCursor after) {
+    return ControllerExecutor.supply(() -> getLedgerPage(after));
+  }
+
+  /**
+   * Busca a página do razão anterior ao cursor.
+   *
+   * @param before Cursor da primeira linha já exibida.
+   */
+  public TransactionPage<LedgerEntry> getLedgerPageBefore(TransactionCursor before) {
+    var entries = EmployeeDAO.getLedgerEntriesBefore(before, LEDGER_PAGE_SIZE + 1);
+    return TransactionPage.ofDescending(entries, LEDGER_PAGE_SIZE, LedgerEntry::cursor);
+  }
+
+  public CompletableFuture<TransactionPage<LedgerEntry>> getLedgerPageBeforeAsync(
+      TransactionCursor before) {
+    return ControllerExecutor.supply(() -> getLedgerPageBefore(before));
   }
 
   private boolean doesCpfExist(String cpf) throws Exception {
-    var count = DatabaseWrapper.executeQueryForSingleInt(SQLQueries.CHECK_CPF_EXISTS, cpf);
-    return count > 0;
+    return CpfRegistry.exists(cpf);
   }
 
   private void validateEmployee(Employee employee) {
@@ -86,16 +159,24 @@ public class EmployeeController {
     }
   }
 
-  private int insertUser(Employee employee) throws Exception {
-    var userId =
-        DatabaseWrapper.executeQuery(
-            SQLQueries.INSERT_USER,
-            employee.getName(),
-            employee.getCpf(),
-            employee.getBirthDate().toString(),
-            employee.getPhone(),
-            employee.getPassword(),
-            "EMPLOYEE");
+  private int insertUser(Employee employee, String passwordHash) throws Exception {
+    int userId;
+    try {
+      userId =
+          DatabaseWrapper.executeQuery(
+              SQLQueries.INSERT_USER,
+              employee.getName(),
+              employee.getCpf(),
+              employee.getBirthDate().toString(),
+              employee.getPhone(),
+              passwordHash,
+              "EMPLOYEE");
+    } catch (RuntimeException e) {
+      if (DatabaseWrapper.isDuplicateKey(e)) {
+        throw CpfRegistry.rejectDuplicate(employee.getCpf(), e);
+      }
+      throw e;
+    }
 
     if (userId == 0) {
       throw new IllegalArgumentException("Erro ao inserir usuário.");
@@ -0,0 +1,122 @@
+package org.bancomaldaver.controllers;
+
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.text.DecimalFormatSymbols;
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+import org.bancomaldaver.dao.EmployeeDAO;
+import org.bancomaldaver.utils.ChannelCsvWriter;
+import org.bancomaldaver.utils.UnitOfWork;
+
+public final class ReportController {
+  private static final Logger logger = Logger.getLogger(ReportController.class.getName());
+  private static final int PROGRESS_INTERVAL = 5000;
+  private static final ExecutorService exportExecutor =
+      Executors.newSingleThreadExecutor(
+          runnable -> {
+            var thread = new Thread(runnable, "exportacao-relatorio");
+            thread.setDaemon(true);
+            return thread;
+          });
+
+  @FunctionalInterface
+  public interface ProgressListener {
+    /** Chamado na thread da exportação, nunca na thread da GUI. */
+    void onProgress(long rowsWritten, long totalRows);
+  }
+
+  /**
+   * Exporta todas as movimentações para um CSV em segundo plano. As linhas vêm do banco em
+   * streaming e vão direto para o arquivo, então a memória usada não depende do tamanho do
+   * histórico.
+   *
+   * @param target O arquivo de destino.
+   * @param listener Recebe o progresso periodicamente.
+   * @param cancelled Quando marcado, a exportação para e o arquivo parcial é apagado.
+   * @return A quantidade de linhas exportadas.
+   */
+  public CompletableFuture<Long> exportFinancialReport(
+      Path target, ProgressListener listener, AtomicBoolean cancelled) {
+    return CompletableFuture.supplyAsync(
+        () -> {
+          try {
+            // contagem e varredura no mesmo snapshot: o total do progresso bate com as linhas
+            return UnitOfWork.callReadOnlySnapshot(
+                () -> writeFinancialReport(target, listener, cancelled));
+          } catch (RuntimeException e) {
+            throw e;
+          } catch (Exception e) {
+            throw new CompletionException(e);
+          }
+        },
+        exportExecutor);
+  }
+
+  private long writeFinancialReport(Path target, ProgressListener listener, AtomicBoolean cancelled)
+      throws Exception {
+    var totalRows = EmployeeDAO.countFinancialTransactions();
+    listener.onProgress(0, totalRows);
+
+    var decimalSeparator = DecimalFormatSymbols.getInstance().getDecimalSeparator();
+
+    try (var writer = new ChannelCsvWriter(target, ';', decimalSeparator)) {
+      writer.writeBom();
+      writeHeader(writer);
+
+      var rowsWritten = new long[1];
+      EmployeeDAO.forEachFinancialTransaction(
+          transaction -> {
+            if (cancelled.get()) {
+              throw new CancellationException("Geração do relatório cancelada.");
+            }
+
+            writer.writeField(transaction.transactionId());
+            writer.writeField(transaction.accountNumber());
+            writer.writeField(transaction.accountType());
+            writer.writeField(transaction.transactionType());
+            writer.writeDecimalField(transaction.amountCents(), 2);
+            writer.writeField(transaction.transactionDate());
+            writer.writeField(transaction.customerName());
+            writer.writeField(transaction.cpf());
+            writer.endRow();
+
+            if (++rowsWritten[0] % PROGRESS_INTERVAL == 0) {
+              listener.onProgress(rowsWritten[0], totalRows);
+            }
+          });
+
+      listener.onProgress(rowsWritten[0], totalRows);
+      return rowsWritten[0];
+    } catch (Exception e) {
+      deletePartialFile(target);
+      throw e;
+    }
+  }
+
+  private void writeHeader(ChannelCsvWriter writer) throws Exception {
+    writer.writeField("Transaction ID");
+    writer.writeField("Account Number");
+    writer.writeField("Account Type");
+    writer.writeField("Transaction Type");
+    writer.writeField("Amount");
+    writer.writeField("Date");
+    writer.writeField("Customer Name");
+    writer.writeField("CPF");
+    writer.endRow();
+  }
+
+  private void deletePartialFile(Path target) {
+    try {
+      Files.deleteIfExists(target);
+    } catch (Exception e) {
+      logger.log(Level.WARNING, "Não foi possível apagar o relatório parcial: " + e.getMessage());
+    }
+  }
+}
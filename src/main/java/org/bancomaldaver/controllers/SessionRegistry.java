@@ -0,0 +1,91 @@
+package org.bancomaldaver.controllers;
+
+import java.security.SecureRandom;
+import java.time.Duration;
+import java.util.Base64;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import org.bancomaldaver.models.CustomerSession;
+import org.bancomaldaver.models.EmployeeSession;
+
+/**
+ * Tokens de sessão válidos e o prazo de cada um. A validação é só uma consulta ao mapa, sem ir ao
+ * banco; o prazo é renovado a cada uso e a sessão parada por mais que o tempo limite expira.
+ */
+final class SessionRegistry {
+  static final SessionRegistry CUSTOMERS = new SessionRegistry(Duration.ofMinutes(10));
+  static final SessionRegistry EMPLOYEES = new SessionRegistry(Duration.ofMinutes(30));
+
+  private static final int TOKEN_BYTES = 32;
+  private static final SecureRandom random = new SecureRandom();
+
+  private final long idleTimeoutNanos;
+  private final Map<String, Long> deadlines = new ConcurrentHashMap<>();
+
+  SessionRegistry(Duration idleTimeout) {
+    this.idleTimeoutNanos = idleTimeout.toNanos();
+  }
+
+  /** Abre uma sessão e devolve o token. */
+  String open() {
+    var now = System.nanoTime();
+    // as sessões abandonadas sem logout saem aqui, já que o mapa só cresce no login
+    deadlines.values().removeIf(deadline -> now - deadline > 0);
+
+    var bytes = new byte[TOKEN_BYTES];
+    random.nextBytes(bytes);
+    var token = Base64.getUrlEncoder().withoutPadding().encodeToString(bytes);
+    deadlines.put(token, now + idleTimeoutNanos);
+    return token;
+  }
+
+  /**
+   * Confere o token e renova o prazo.
+   *
+   * @throws IllegalStateException Se a sessão não existir ou tiver expirado.
+   */
+  void require(String token) {
+    var now = System.nanoTime();
+    var renewed =
+        token == null
+            ? null
+            : deadlines.computeIfPresent(
+                token, (key, deadline) -> now - deadline > 0 ? null : now + idleTimeoutNanos);
+
+    if (renewed == null) {
+      throw new IllegalStateException("Sessão expirada. Faça login novamente.");
+    }
+  }
+
+  /**
+   * Confere a sessão do cliente e devolve a conta dela.
+   *
+   * @throws IllegalStateException Se a sessão não existir ou tiver expirado.
+   */
+  static int requireCustomer(CustomerSession session) {
+    if (session == null) {
+      throw new IllegalStateException("Sessão expirada. Faça login novamente.");
+    }
+    CUSTOMERS.require(session.token());
+    return session.accountId();
+  }
+
+  /**
+   * Confere a sessão do funcionário e devolve o código dele.
+   *
+   * @throws IllegalStateException Se a sessão não existir ou tiver expirado.
+   */
+  static String requireEmployee(EmployeeSession session) {
+    if (session == null) {
+      throw new IllegalStateException("Sessão expirada. Faça login novamente.");
+    }
+    EMPLOYEES.require(session.token());
+    return session.employeeCode();
+  }
+
+  void close(String token) {
+    if (token != null) {
+      deadlines.remove(token);
+    }
+  }
+}
@@ -0,0 +1,67 @@
+package org.bancomaldaver.controllers;
+
+import java.util.concurrent.CompletableFuture;
+import org.bancomaldaver.dao.CustomerDAO;
+import org.bancomaldaver.dao.TransferDAO;
+import org.bancomaldaver.models.CustomerSession;
+import org.bancomaldaver.utils.UnitOfWork;
+
+public final class TransferController {
+
+  /**
+   * Transfere entre duas contas numa única transação: trava as contas em ordem fixa, debita a
+   * origem só se houver saldo, credita o destino e grava os dois lançamentos. Deadlocks e timeouts
+   * de lock refazem a transação inteira. Não confere sessão nem senha: fica visível só no pacote,
+   * para o teste de concorrência; o resto do app passa pela sobrecarga com sessão.
+   */
+  void transfer(int sourceAccountId, int targetAccountId, long amountCents) throws Exception {
+    if (amountCents <= 0) {
+      throw new IllegalArgumentException("Valor da transferência deve ser maior que zero.");
+    }
+    if (sourceAccountId == targetAccountId) {
+      throw new IllegalArgumentException("A conta de destino deve ser diferente da de origem.");
+    }
+
+    UnitOfWork.callWithRetry(
+        () -> {
+          if (TransferDAO.lockAccounts(sourceAccountId, targetAccountId) < 2) {
+            throw new IllegalArgumentException("Conta não encontrada.");
+          }
+          if (!CustomerDAO.debitIfSufficient(sourceAccountId, amountCents)) {
+            throw new IllegalArgumentException("Saldo insuficiente.");
+          }
+          CustomerDAO.updateBalance(targetAccountId, amountCents);
+          TransferDAO.insertLegs(sourceAccountId, targetAccountId, amountCents);
+          return null;
+        });
+  }
+
+  /**
+   * Transferência iniciada pelo cliente: confere a senha de novo, mesmo com a sessão válida, e
+   * resolve a conta de destino pelo número.
+   */
+  public void transfer(
+      CustomerSession session, String targetAccountNumber, long amountCents, String password)
+      throws Exception {
+    var sourceAccountId = SessionRegistry.requireCustomer(session);
+    if (!Credentials.checkAccount(sourceAccountId, password)) {
+      throw new IllegalArgumentException("Senha incorreta.");
+    }
+
+    var targetAccountId = TransferDAO.getAccountIdByNumber(targetAccountNumber);
+    if (targetAccountId == 0) {
+      throw new IllegalArgumentException("Conta de destino não encontrada.");
+    }
+
+    transfer(sourceAccountId, targetAccountId, amountCents);
+  }
+
+  public CompletableFuture<Void> transferAsync(
+      CustomerSession session, String targetAccountNumber, long amountCents, String password) {
+    return ControllerExecutor.supply(
+        () -> {
+          transfer(session, targetAccountNumber, amountCents, password);
+          return null;
+        });
+  }
+}
@@ -1,29 +1,59 @@
 package org.bancomaldaver.controllers;
 
-import java.util.Map;
+import java.util.concurrent.CompletableFuture;
 import java.util.logging.Level;
 import java.util.logging.Logger;
-import org.bancomaldaver.dao.CustomerDAO;
+import org.bancomaldaver.dao.AccountMetadataCache;
+import org.bancomaldaver.dao.CpfRegistry;
+import org.bancomaldaver.dao.CredentialDAO;
+import org.bancomaldaver.dao.ProfileCache;
 import org.bancomaldaver.models.Customer;
+import org.bancomaldaver.models.CustomerProfile;
+import org.bancomaldaver.models.CustomerSession;
 import org.bancomaldaver.utils.DatabaseWrapper;
 import org.bancomaldaver.utils.SQLQueries;
+import org.bancomaldaver.utils.UnitOfWork;
 
 public final class UserController {
   private static final Logger logger = Logger.getLogger(UserController.class.getName());
 
   public int createUserWithAddress(Customer customer) throws Exception {
+    var passwordHash = prepareUser(customer);
+    var userId = UnitOfWork.call(() -> insertUserWithAddress(customer, passwordHash));
+    userCreated(customer);
+    return userId;
+  }
+
+  /**
+   * Confere o CPF e calcula o hash da senha. Roda antes de abrir a unidade, para o hash não segurar
+   * a conexão da transação.
+   *
+   * @return O hash a gravar.
+   */
+  String prepareUser(Customer customer) throws Exception {
     if (doesCpfExist(customer.getCpf())) {
       throw new IllegalArgumentException("CPF já cadastrado.");
     }
+    return Credentials.hash(customer.getPassword());
+  }
 
-    DatabaseWrapper.executeQuery(
-        SQLQueries.INSERT_USER,
-        customer.getName(),
-        customer.getCpf(),
-        customer.getBirthDate().toString(),
-        customer.getPhone(),
-        customer.getPassword(),
-        "CUSTOMER");
+  /** Grava o usuário e o endereço na unidade aberta por quem chama. */
+  int insertUserWithAddress(Customer customer, String passwordHash) throws Exception {
+    try {
+      DatabaseWrapper.executeQuery(
+          SQLQueries.INSERT_USER,
+          customer.getName(),
+          customer.getCpf(),
+          customer.getBirthDate().toString(),
+          customer.getPhone(),
+          passwordHash,
+          "CUSTOMER");
+    } catch (RuntimeException e) {
+      if (DatabaseWrapper.isDuplicateKey(e)) {
+        throw CpfRegistry.rejectDuplicate(customer.getCpf(), e);
+      }
+      throw e;
+    }
 
     var userId =
         DatabaseWrapper.executeQueryForSingleInt(
@@ -33,8 +63,6 @@ public final class UserController {
       throw new IllegalArgumentException("Erro ao inserir usuário.");
     }
 
-    logger.log(Level.INFO, "Usuário inserido com sucesso: ID " + userId);
-
     var address = customer.getAddress();
     DatabaseWrapper.executeQuery(
         SQLQueries.INSERT_ADDRESS,
@@ -46,27 +74,60 @@ public final class UserController {
         address.getCity(),
         address.getState());
 
+    logger.log(Level.INFO, "Usuário inserido com sucesso: ID " + userId);
     return userId;
   }
 
-  public Map<String, String> getCustomerDetails(String cpf) throws Exception {
-    return CustomerDAO.getCustomerDetailsByCpf(cpf);
+  /**
+   * Depois do commit: o CPF entra no filtro e o perfil sai do cache. Antes do commit, uma leitura
+   * no meio poderia guardar o cliente sem endereço, ou um rollback deixaria no filtro um CPF que
+   * não existe.
+   */
+  void userCreated(Customer customer) {
+    CpfRegistry.add(customer.getCpf());
+    ProfileCache.invalidateCustomer(customer.getCpf());
+  }
+
+  public CompletableFuture<Integer> createUserWithAddressAsync(Customer customer) {
+    return ControllerExecutor.supply(() -> createUserWithAddress(customer));
   }
 
-  public int validateCustomerLogin(String cpf, String password, String branch) throws Exception {
-    // Não era pra ter uma query aqui... mas por questões de tempo, não tenho tempo de refatorar e
-    // testar tudo de novo.
-    final String query =
-        "SELECT a.id_account FROM user u "
-            + "INNER JOIN customer c ON u.id_user = c.id_user "
-            + "INNER JOIN account a ON c.id_customer = a.id_customer "
-            + "WHERE u.cpf = ? AND u.password = ? AND a.branch = ?";
+  public CustomerProfile getCustomerDetails(String cpf) throws Exception {
+    return ProfileCache.getCustomer(cpf);
+  }
+
+  public CompletableFuture<CustomerProfile> getCustomerDetailsAsync(String cpf) {
+    return ControllerExecutor.supply(() -> getCustomerDetails(cpf));
+  }
+
+  /**
+   * Autentica o cliente e abre a sessão usada pelas operações seguintes. A mesma consulta que traz
+   * a senha traz a conta inteira, que fica na sessão para a tela principal abrir sem ir ao banco.
+   *
+   * @return A sessão, ou null se CPF, senha ou agência estiverem incorretos.
+   */
+  public CustomerSession login(String cpf, String password, String branch) throws Exception {
+    var stamp = AccountMetadataCache.stamp();
+    var login = CredentialDAO.findCustomerLogin(cpf, branch);
+    if (login == null || !Credentials.check(login.credential(), password)) {
+      return null;
+    }
+
+    AccountMetadataCache.prime(login.account().metadata(), stamp);
+    return new CustomerSession(SessionRegistry.CUSTOMERS.open(), login.account());
+  }
+
+  public void logout(CustomerSession session) {
+    if (session != null) {
+      SessionRegistry.CUSTOMERS.close(session.token());
+    }
+  }
 
-    return DatabaseWrapper.executeQueryForSingleInt(query, cpf, password, branch);
+  public CompletableFuture<CustomerSession> loginAsync(String cpf, String password, String branch) {
+    return ControllerExecutor.supply(() -> login(cpf, password, branch));
   }
 
   private boolean doesCpfExist(String cpf) throws Exception {
-    var count = DatabaseWrapper.executeQueryForSingleInt(SQLQueries.CHECK_CPF_EXISTS, cpf);
-    return count > 0;
+    return CpfRegistry.exists(cpf);
   }
 }
@@ -1,94 +1,79 @@
 package org.bancomaldaver.dao;
 
-import java.util.Map;
+import java.util.List;
+import org.bancomaldaver.models.AccountDetails;
+import org.bancomaldaver.models.AccountSnapshot;
 import org.bancomaldaver.models.CheckingAccount;
 import org.bancomaldaver.models.SavingsAccount;
 import org.bancomaldaver.utils.DatabaseWrapper;
+import org.bancomaldaver.utils.Money;
+import org.bancomaldaver.utils.RowMapper;
 import org.bancomaldaver.utils.SQLQueries;
 
 public final class AccountDAO {
+  private static final RowMapper.Factory<AccountSnapshot> SNAPSHOT_MAPPER =
+      resultSet -> {
+        var metadata = AccountMetadataCache.METADATA_MAPPER.bind(resultSet);
+        var balance = resultSet.findColumn("balance");
+        var lastTransaction = resultSet.findColumn("last_transaction");
+
+        return row ->
+            new AccountSnapshot(
+                new AccountDetails(metadata.mapRow(row), Money.read(row, balance)),
+                row.getLong(lastTransaction));
+      };
 
   public int createCustomer(int userId) throws Exception {
-    final String query = "INSERT INTO customer (id_user) VALUES (?)";
-    DatabaseWrapper.executeQuery(query, userId);
+    DatabaseWrapper.executeQuery(SQLQueries.INSERT_CUSTOMER, userId);
 
     return DatabaseWrapper.executeQueryForSingleInt(SQLQueries.SELECT_CUSTOMER_BY_USER_ID, userId);
   }
 
-  public int createAccount(int customerId, String branch, String accountType) throws Exception {
-    var accountNumber = generateAccountNumber();
-
-    final String query =
-        "INSERT INTO account (account_number, id_customer, branch, account_type, balance) "
-            + "VALUES (?, ?, ?, ?, 0.0)";
-
-    return DatabaseWrapper.executeQuery(query, accountNumber, customerId, branch, accountType);
+  /**
+   * Cria a conta com um número já reservado.
+   *
+   * @param accountNumber Número reservado com {@link AccountNumberAllocator}, antes da unidade de
+   *     trabalho.
+   */
+  public int createAccount(int customerId, int accountNumber, String branch, String accountType)
+      throws Exception {
+    return DatabaseWrapper.executeQuery(
+        SQLQueries.INSERT_ACCOUNT, accountNumber, customerId, branch, accountType);
   }
 
   public void createCheckingAccount(int accountId, CheckingAccount account) throws Exception {
-    final String query =
-        "INSERT INTO checking_account (id_account, credit_limit, due_date) VALUES (?, ?, ?)";
-
-    DatabaseWrapper.executeQuery(query, accountId, account.getLimit(), account.getDueDate());
+    DatabaseWrapper.executeQuery(
+        SQLQueries.INSERT_CHECKING_ACCOUNT,
+        accountId,
+        Money.toBigDecimal(account.getLimitCents()),
+        account.getDueDate());
   }
 
   public void createSavingsAccount(int accountId, SavingsAccount account) throws Exception {
-    final String query = "INSERT INTO savings_account (id_account, interest_rate) VALUES (?, ?)";
-
-    DatabaseWrapper.executeQuery(query, accountId, account.getInterestRate());
+    DatabaseWrapper.executeQuery(
+        SQLQueries.INSERT_SAVINGS_ACCOUNT, accountId, account.getInterestRate());
   }
 
-  public int getUserIdByCpf(String cpf) throws Exception {
-    final String query = "SELECT id_user FROM user WHERE cpf = ?";
-
-    return DatabaseWrapper.executeQueryForSingleInt(query, cpf);
-  }
-
-  public int getCustomerIdByUserId(int userId) throws Exception {
-    final String query = "SELECT id_customer FROM customer WHERE id_user = ?";
-
-    return DatabaseWrapper.executeQueryForSingleInt(query, userId);
-  }
-
-  public String getAccountNumberByCustomerId(int customerId) throws Exception {
-    final String query = "SELECT account_number FROM account WHERE id_customer = ?";
-
-    return DatabaseWrapper.executeQueryForSingleString(query, customerId);
+  /** Todas as contas do CPF, em ordem de número; lista vazia se não houver nenhuma. */
+  public List<AccountSnapshot> findAccountsForClosure(String cpf) {
+    return DatabaseWrapper.executeQueryForList(
+        SQLQueries.SELECT_CLOSURE_ACCOUNTS_BY_CPF, SNAPSHOT_MAPPER, cpf);
   }
 
-  public boolean deleteAccount(String accountNumber) throws Exception {
-    final String query = "DELETE FROM account WHERE account_number = ?";
-
-    var rowsAffected = DatabaseWrapper.executeDelete(query, accountNumber);
+  /**
+   * Apaga a conta se ela ainda estiver como na consulta.
+   *
+   * @return false se a conta foi movimentada ou encerrada desde então.
+   */
+  public boolean deleteAccountIfUnchanged(AccountSnapshot snapshot) {
+    var accountId = snapshot.metadata().accountId();
+    var rowsAffected =
+        DatabaseWrapper.executeDelete(
+            SQLQueries.DELETE_ACCOUNT_IF_UNCHANGED,
+            accountId,
+            Money.toBigDecimal(snapshot.account().balanceCents()),
+            accountId,
+            snapshot.lastTransactionId());
     return rowsAffected > 0;
   }
-
-  public Map<String, Object> getAccountDetailsByNumber(String accountNumber) throws Exception {
-    final String query =
-        "SELECT a.account_type, u.name, u.cpf, a.balance, "
-            + "       c.credit_limit, c.due_date, s.interest_rate "
-            + "FROM account a "
-            + "LEFT JOIN checking_account c ON a.id_account = c.id_account "
-            + "LEFT JOIN savings_account s ON a.id_account = s.id_account "
-            + "INNER JOIN customer cust ON a.id_customer = cust.id_customer "
-            + "INNER JOIN user u ON cust.id_user = u.id_user "
-            + "WHERE a.account_number = ?";
-
-    Map<String, Object> accountDetails =
-        DatabaseWrapper.executeQueryForSingleResult(query, accountNumber);
-
-    if (accountDetails.isEmpty()) {
-      throw new Exception("Account not found.");
-    }
-
-    return accountDetails;
-  }
-
-  private int generateAccountNumber() throws Exception {
-    final String query = "SELECT MAX(account_number) FROM account";
-
-    var maxAccountNumber = DatabaseWrapper.executeQueryForSingleInt(query);
-
-    return (maxAccountNumber == 0) ? 10000 : maxAccountNumber + 1;
-  }
 }
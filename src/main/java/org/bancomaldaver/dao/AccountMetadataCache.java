@@ -0,0 +1,111 @@
+package org.bancomaldaver.dao;
+
+import java.time.LocalDate;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import org.bancomaldaver.models.AccountMetadata;
+import org.bancomaldaver.utils.BoundedCache;
+import org.bancomaldaver.utils.CacheStats;
+import org.bancomaldaver.utils.DatabaseWrapper;
+import org.bancomaldaver.utils.Money;
+import org.bancomaldaver.utils.RowMapper;
+import org.bancomaldaver.utils.SQLQueries;
+import org.bancomaldaver.utils.SqlStatement;
+
+/**
+ * Cache dos dados cadastrais das contas, por id e por número. Tipo, titular, limite e vencimento
+ * mudam raramente, então a tela do cliente e as consultas do funcionário não precisam ir ao banco a
+ * cada clique. Quem altera esses dados (criação, encerramento, mudança de limite) chama {@link
+ * #invalidate}; o TTL cobre alterações feitas por fora da aplicação.
+ */
+public final class AccountMetadataCache {
+  private static final int MAX_ENTRIES = 1000;
+  private static final long TTL_NANOS = TimeUnit.MINUTES.toNanos(10);
+
+  private static final BoundedCache<Integer, AccountMetadata> byId =
+      new BoundedCache<>("contas-por-id", MAX_ENTRIES, TTL_NANOS);
+  private static final BoundedCache<String, AccountMetadata> byNumber =
+      new BoundedCache<>("contas-por-numero", MAX_ENTRIES, TTL_NANOS);
+
+  // também usado pelo login e pelo encerramento, que trazem as mesmas colunas
+  static final RowMapper.Factory<AccountMetadata> METADATA_MAPPER =
+      resultSet -> {
+        var id = resultSet.findColumn("id_account");
+        var number = resultSet.findColumn("account_number");
+        var type = resultSet.findColumn("account_type");
+        var branch = resultSet.findColumn("branch");
+        var name = resultSet.findColumn("name");
+        var cpf = resultSet.findColumn("cpf");
+        var creditLimit = resultSet.findColumn("credit_limit");
+        var dueDate = resultSet.findColumn("due_date");
+        var interestRate = resultSet.findColumn("interest_rate");
+
+        return row ->
+            new AccountMetadata(
+                row.getInt(id),
+                row.getString(number),
+                row.getString(type),
+                row.getString(branch),
+                row.getString(name),
+                row.getString(cpf),
+                Money.read(row, creditLimit),
+                row.getObject(dueDate, LocalDate.class),
+                row.getBigDecimal(interestRate));
+      };
+
+  private AccountMetadataCache() {
+    throw new UnsupportedOperationException("Essa classe não pode ser instanciada diretamente.");
+  }
+
+  public static AccountMetadata getById(int accountId) throws Exception {
+    return byId.get(accountId, id -> load(SQLQueries.SELECT_ACCOUNT_METADATA_BY_ID, id));
+  }
+
+  public static AccountMetadata getByNumber(String accountNumber) throws Exception {
+    return byNumber.get(
+        accountNumber.strip(),
+        number -> load(SQLQueries.SELECT_ACCOUNT_METADATA_BY_NUMBER, number));
+  }
+
+  /** Gerações dos dois índices, lidas antes de uma consulta cujo resultado vai para o cache. */
+  public record Stamp(long byIdGeneration, long byNumberGeneration) {}
+
+  /** Marca a tirar antes da consulta que trará os metadados passados a {@link #prime}. */
+  public static Stamp stamp() {
+    return new Stamp(byId.generation(), byNumber.generation());
+  }
+
+  /**
+   * Guarda metadados que já vieram de outra consulta, como a do login. Se alguma conta foi
+   * invalidada depois da marca, a consulta pode ser anterior à alteração e nada é guardado.
+   */
+  public static void prime(AccountMetadata metadata, Stamp stamp) {
+    byId.put(metadata.accountId(), metadata, stamp.byIdGeneration());
+    byNumber.put(metadata.accountNumber(), metadata, stamp.byNumberGeneration());
+  }
+
+  /** Descarta a conta dos dois índices. */
+  public static void invalidate(int accountId) {
+    byId.invalidate(accountId);
+    byNumber.invalidateIf(metadata -> metadata.accountId() == accountId);
+  }
+
+  /** Descarta a conta dos dois índices, a partir do número. */
+  public static void invalidate(String accountNumber) {
+    var number = accountNumber.strip();
+    byNumber.invalidate(number);
+    byId.invalidateIf(metadata -> metadata.accountNumber().equals(number));
+  }
+
+  public static List<CacheStats> stats() {
+    return List.of(byId.stats(), byNumber.stats());
+  }
+
+  private static AccountMetadata load(SqlStatement query, Object key) {
+    var rows = DatabaseWrapper.executeQueryForList(query, METADATA_MAPPER, key);
+    if (rows.isEmpty()) {
+      throw new IllegalArgumentException("Conta não encontrada.");
+    }
+    return rows.get(0);
+  }
+}
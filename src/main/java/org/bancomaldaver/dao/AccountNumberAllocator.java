@@ -0,0 +1,81 @@
+package org.bancomaldaver.dao;
+
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+import org.bancomaldaver.utils.DatabaseWrapper;
+import org.bancomaldaver.utils.SQLQueries;
+import org.bancomaldaver.utils.UnitOfWork;
+
+/**
+ * Distribui números de conta a partir de blocos reservados na tabela {@code
+ * account_number_sequence} (estilo hi/lo). Reservar um bloco é um único UPDATE atômico, então cada
+ * instância da aplicação recebe faixas disjuntas e os números saem da memória até o bloco acabar.
+ * Os números que sobram de um bloco quando a aplicação fecha são descartados; a sequência pode ter
+ * buracos, mas nunca repete.
+ *
+ * <p>O número deve ser pedido antes de abrir a unidade de trabalho da criação da conta. A reserva
+ * de um bloco usa uma conexão própria; dentro da unidade seriam duas conexões por thread, e com o
+ * pool saturado as threads ficariam esperando umas pelas outras até o timeout.
+ */
+public final class AccountNumberAllocator {
+  private static final Logger logger = Logger.getLogger(AccountNumberAllocator.class.getName());
+  private static final int BLOCK_SIZE = 50;
+  // ReentrantLock em vez de synchronized: a reserva faz JDBC e não deve prender a thread
+  // portadora quando a chamada vem de uma virtual thread
+  private static final ReentrantLock lock = new ReentrantLock();
+  private static int next;
+  private static int end;
+
+  private AccountNumberAllocator() {
+    throw new UnsupportedOperationException("Essa classe não pode ser instanciada diretamente.");
+  }
+
+  /**
+   * Próximo número livre, reservando um bloco novo quando o atual acaba.
+   *
+   * @throws IllegalStateException Se chamado com uma unidade de trabalho aberta na thread.
+   */
+  public static int nextAccountNumber() throws Exception {
+    if (UnitOfWork.isActive()) {
+      throw new IllegalStateException(
+          "O número da conta deve ser reservado antes de abrir a unidade de trabalho.");
+    }
+
+    lock.lock();
+    try {
+      if (next >= end) {
+        reserveBlock();
+      }
+      return next++;
+    } finally {
+      lock.unlock();
+    }
+  }
+
+  /**
+   * Reserva o próximo bloco numa transação própria, separada da criação da conta: assim o lock da
+   * linha da sequência dura só o UPDATE, e não a criação inteira da conta.
+   */
+  private static void reserveBlock() throws Exception {
+    var blockEnd =
+        UnitOfWork.call(
+            () -> {
+              var updated =
+                  DatabaseWrapper.executeUpdate(
+                      SQLQueries.RESERVE_ACCOUNT_NUMBER_BLOCK, BLOCK_SIZE);
+              if (updated == 0) {
+                throw new IllegalStateException("Sequência de números de conta não inicializada.");
+              }
+              // LAST_INSERT_ID(expr) guarda o valor na sessão; lido na mesma conexão, sem corrida
+              return DatabaseWrapper.executeQueryForSingleInt(SQLQueries.SELECT_LAST_INSERT_ID);
+            });
+
+    next = blockEnd - BLOCK_SIZE;
+    end = blockEnd;
+    logger.log(
+        Level.INFO,
+        "Bloco de números de conta reservado: {0} a {1}.",
+        new Object[] {next, end - 1});
+  }
+}
@@ -0,0 +1,115 @@
+package org.bancomaldaver.dao;
+
+import java.util.logging.Level;
+import java.util.logging.Logger;
+import org.bancomaldaver.utils.BloomFilter;
+import org.bancomaldaver.utils.DatabaseConfig;
+import org.bancomaldaver.utils.DatabaseWrapper;
+import org.bancomaldaver.utils.RowMapper;
+import org.bancomaldaver.utils.SQLQueries;
+
+/**
+ * Verificação de CPF já cadastrado com um filtro de Bloom na frente do banco. Num cadastro em lote
+ * quase todo CPF é novo, e o filtro responde "não existe" sem consulta; o banco só é consultado
+ * quando o filtro diz "talvez".
+ *
+ * <p>O filtro é montado em segundo plano na inicialização, varrendo a tabela de usuários. Até
+ * terminar, toda verificação vai ao banco. A taxa de falso positivo e a quantidade esperada de CPFs
+ * vêm das chaves {@code cpfFilter.falsePositiveRate} e {@code cpfFilter.expectedCpfs} do {@link
+ * DatabaseConfig}, com perfil, variável de ambiente e {@code -Dbancomalvader.<chave>} como no pool.
+ *
+ * <p>O filtro só conhece os CPFs da carga e os cadastrados por este processo. Um "não existe" vale
+ * para este processo: outra instância da aplicação pode ter cadastrado o CPF depois da carga. Quem
+ * garante a unicidade é a chave única da coluna; a inserção que esbarra nela passa por {@link
+ * #rejectDuplicate}, que registra o CPF no filtro e devolve o mesmo erro da verificação.
+ */
+public final class CpfRegistry {
+  private static final Logger logger = Logger.getLogger(CpfRegistry.class.getName());
+  private static final RowMapper.Factory<String> CPF_MAPPER =
+      resultSet -> {
+        var cpf = resultSet.findColumn("cpf");
+        return row -> row.getString(cpf);
+      };
+
+  // CPFs inseridos durante a carga também entram aqui, então nada se perde entre a varredura e o
+  // fim dela
+  private static final BloomFilter filter =
+      new BloomFilter(
+          DatabaseConfig.current().getLong("cpfFilter.expectedCpfs", 1_000_000),
+          DatabaseConfig.current().getDouble("cpfFilter.falsePositiveRate", 0.01));
+  private static volatile boolean ready;
+
+  private CpfRegistry() {
+    throw new UnsupportedOperationException("Essa classe não pode ser instanciada diretamente.");
+  }
+
+  /** Monta o filtro numa thread separada, sem atrasar a abertura da tela. */
+  public static void loadInBackground() {
+    var thread = new Thread(CpfRegistry::load, "carga-filtro-cpf");
+    thread.setDaemon(true);
+    thread.start();
+  }
+
+  /** Varre os CPFs cadastrados e libera o filtro para as verificações. */
+  public static void load() {
+    try {
+      var start = System.nanoTime();
+      var loaded =
+          DatabaseWrapper.executeQueryForEach(SQLQueries.SELECT_ALL_CPFS, CPF_MAPPER, filter::put);
+      ready = true;
+
+      logger.log(
+          Level.INFO,
+          String.format(
+              "Filtro de CPFs carregado em %d ms: %d CPFs, %d KiB, %d hashes, falso positivo estimado"
+                  + " de %.3f%%.",
+              (System.nanoTime() - start) / 1_000_000,
+              loaded,
+              filter.memoryBytes() / 1024,
+              filter.hashFunctions(),
+              filter.estimatedFalsePositiveRate() * 100));
+    } catch (Exception e) {
+      logger.log(
+          Level.WARNING, "Erro ao carregar o filtro de CPFs; usando só o banco: " + e.getMessage());
+    }
+  }
+
+  /**
+   * Confere se o CPF já está cadastrado, indo ao banco só quando o filtro não descarta. Um {@code
+   * false} pode estar desatualizado se outro processo cadastrou o CPF depois da carga.
+   */
+  public static boolean exists(String cpf) throws Exception {
+    if (ready && !filter.mightContain(cpf)) {
+      return false;
+    }
+    return DatabaseWrapper.executeQueryForSingleInt(SQLQueries.CHECK_CPF_EXISTS, cpf) > 0;
+  }
+
+  /** Registra um CPF recém-inserido. */
+  public static void add(String cpf) {
+    filter.put(cpf);
+  }
+
+  /**
+   * Trata a inserção de usuário recusada pela chave única do CPF: o filtro disse "não existe", mas
+   * outro processo cadastrou o CPF depois da carga. O CPF passa a constar no filtro.
+   *
+   * @return O erro a lançar no lugar da violação de chave.
+   */
+  public static IllegalArgumentException rejectDuplicate(String cpf, Exception cause) {
+    filter.put(cpf);
+    logger.log(Level.INFO, "CPF cadastrado por outro processo; incluído no filtro.");
+    return new IllegalArgumentException("CPF já cadastrado.", cause);
+  }
+
+  /** Resumo do filtro para log: tamanho, uso e taxa de falso positivo atual. */
+  public static String describe() {
+    return String.format(
+        "Filtro de CPFs: %s, %d CPFs, %d KiB, %d hashes, falso positivo estimado de %.3f%%",
+        ready ? "ativo" : "carregando",
+        filter.insertions(),
+        filter.memoryBytes() / 1024,
+        filter.hashFunctions(),
+        filter.estimatedFalsePositiveRate() * 100);
+  }
+}
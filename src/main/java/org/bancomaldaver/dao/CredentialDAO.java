@@ -0,0 +1,71 @@
+package org.bancomaldaver.dao;
+
+import java.util.List;
+import org.bancomaldaver.models.AccountDetails;
+import org.bancomaldaver.models.Credential;
+import org.bancomaldaver.models.CustomerLogin;
+import org.bancomaldaver.utils.DatabaseWrapper;
+import org.bancomaldaver.utils.Money;
+import org.bancomaldaver.utils.RowMapper;
+import org.bancomaldaver.utils.SQLQueries;
+
+/**
+ * Busca as senhas gravadas para conferência na aplicação. O banco só localiza o usuário; a
+ * comparação com o hash nunca acontece no SQL.
+ */
+public final class CredentialDAO {
+  private static final RowMapper.Factory<Credential> CREDENTIAL_MAPPER =
+      resultSet -> {
+        var userId = resultSet.findColumn("id_user");
+        var password = resultSet.findColumn("password");
+        var accountId = resultSet.findColumn("id_account");
+        return row ->
+            new Credential(row.getInt(userId), row.getString(password), row.getInt(accountId));
+      };
+
+  private static final RowMapper.Factory<CustomerLogin> CUSTOMER_LOGIN_MAPPER =
+      resultSet -> {
+        var credential = CREDENTIAL_MAPPER.bind(resultSet);
+        var metadata = AccountMetadataCache.METADATA_MAPPER.bind(resultSet);
+        var balance = resultSet.findColumn("balance");
+
+        return row ->
+            new CustomerLogin(
+                credential.mapRow(row),
+                new AccountDetails(metadata.mapRow(row), Money.read(row, balance)));
+      };
+
+  private CredentialDAO() {
+    throw new UnsupportedOperationException("Essa classe não pode ser instanciada diretamente.");
+  }
+
+  /** Credencial e conta do cliente na agência, ou null se não houver. */
+  public static CustomerLogin findCustomerLogin(String cpf, String branch) {
+    var logins =
+        DatabaseWrapper.executeQueryForList(
+            SQLQueries.SELECT_CUSTOMER_LOGIN, CUSTOMER_LOGIN_MAPPER, cpf, branch);
+    return logins.isEmpty() ? null : logins.get(0);
+  }
+
+  /** Credencial do titular da conta, ou null se a conta não existir. */
+  public static Credential findByAccountId(int accountId) {
+    return first(
+        DatabaseWrapper.executeQueryForList(
+            SQLQueries.SELECT_ACCOUNT_CREDENTIAL, CREDENTIAL_MAPPER, accountId));
+  }
+
+  /** Credencial do funcionário, ou null se o código não existir. */
+  public static Credential findEmployeeByCode(String employeeCode) {
+    return first(
+        DatabaseWrapper.executeQueryForList(
+            SQLQueries.SELECT_EMPLOYEE_CREDENTIAL, CREDENTIAL_MAPPER, employeeCode));
+  }
+
+  public static void updatePasswordHash(int userId, String passwordHash) {
+    DatabaseWrapper.executeUpdate(SQLQueries.UPDATE_USER_PASSWORD, passwordHash, userId);
+  }
+
+  private static Credential first(List<Credential> credentials) {
+    return credentials.isEmpty() ? null : credentials.get(0);
+  }
+}
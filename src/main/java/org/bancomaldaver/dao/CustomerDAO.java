@@ -1,90 +1,98 @@
 package org.bancomaldaver.dao;
 
-import java.util.HashMap;
+import java.time.LocalDateTime;
 import java.util.List;
-import java.util.Map;
+import org.bancomaldaver.models.StatementEntry;
+import org.bancomaldaver.models.TransactionCursor;
 import org.bancomaldaver.utils.DatabaseWrapper;
+import org.bancomaldaver.utils.Money;
+import org.bancomaldaver.utils.RowMapper;
+import org.bancomaldaver.utils.SQLQueries;
 
 public final class CustomerDAO {
-  public static Map<String, String> getCustomerDetailsByCpf(String cpf) throws Exception {
-    final String query =
-        "SELECT u.name, u.cpf, u.birth_date, u.phone, "
-            + "a.zip_code, a.street, a.house_number, a.neighborhood, a.city, a.state "
-            + "FROM customer c "
-            + "INNER JOIN user u ON c.id_user = u.id_user "
-            + "LEFT JOIN address a ON u.id_user = a.id_user "
-            + "WHERE u.cpf = ?";
-
-    Map<String, Object> rawData = DatabaseWrapper.executeQueryForSingleResult(query, cpf);
-
-    if (rawData.isEmpty()) {
-      throw new Exception("Cliente não encontrado.");
-    }
-
-    Map<String, String> formattedData = new HashMap<>();
-
-    for (Map.Entry<String, Object> entry : rawData.entrySet()) {
-      formattedData.put(
-          entry.getKey(), entry.getValue() != null ? entry.getValue().toString() : "");
-    }
-
-    var address =
-        String.format(
-            "%s, %s, %s, %s, %s, %s",
-            rawData.get("street"),
-            rawData.get("house_number"),
-            rawData.get("neighborhood"),
-            rawData.get("city"),
-            rawData.get("state"),
-            rawData.get("zip_code"));
-
-    formattedData.put("address", address);
-    return formattedData;
+  private static final RowMapper.Factory<StatementEntry> STATEMENT_ENTRY_MAPPER =
+      resultSet -> {
+        var id = resultSet.findColumn("id_transaction");
+        var type = resultSet.findColumn("transaction_type");
+        var amount = resultSet.findColumn("amount");
+        var date = resultSet.findColumn("transaction_date");
+
+        return row ->
+            new StatementEntry(
+                row.getInt(id),
+                row.getString(type),
+                Money.read(row, amount),
+                row.getObject(date, LocalDateTime.class));
+      };
+
+  public static long getBalance(int accountId) throws Exception {
+    return DatabaseWrapper.executeQueryForSingleMoney(SQLQueries.SELECT_BALANCE, accountId);
   }
 
-  public static double getBalance(int accountId) throws Exception {
-    final String query = "SELECT balance FROM account WHERE id_account = ?";
-
-    return DatabaseWrapper.executeQueryForSingleDouble(query, accountId);
+  public static void updateBalance(int accountId, long amountCents) throws Exception {
+    DatabaseWrapper.executeUpdateTerribleFix(
+        SQLQueries.UPDATE_BALANCE, accountId, Money.toBigDecimal(amountCents), accountId);
   }
 
-  public static double getCreditLimit(int accountId) throws Exception {
-    final String query = "SELECT credit_limit FROM checking_account WHERE id_account = ?";
-
-    return DatabaseWrapper.executeQueryForSingleDouble(query, accountId);
+  /**
+   * Debita o valor somente se houver saldo suficiente, num único comando atômico.
+   *
+   * @return true se o débito foi feito; false se o saldo não cobria o valor.
+   */
+  public static boolean debitIfSufficient(int accountId, long amountCents) {
+    var amount = Money.toBigDecimal(amountCents);
+    var affectedRows =
+        DatabaseWrapper.executeUpdate(
+            SQLQueries.DEBIT_BALANCE_IF_SUFFICIENT, amount, accountId, amount);
+    return affectedRows > 0;
   }
 
-  public static boolean authenticate(int accountId, String password) throws Exception {
-    final String query =
-        "SELECT COUNT(*) FROM user u "
-            + "INNER JOIN customer c ON u.id_user = c.id_user "
-            + "INNER JOIN account a ON c.id_customer = a.id_customer "
-            + "WHERE a.id_account = ? AND u.password = ?";
-
-    var count = DatabaseWrapper.executeQueryForSingleInt(query, accountId, password);
-
-    return count > 0;
-  }
-
-  public static void updateBalance(int accountId, double amount) throws Exception {
-    final String query = "UPDATE account SET balance = balance + ? WHERE id_account = ?";
-
-    DatabaseWrapper.executeUpdateTerribleFix(query, accountId, amount, accountId);
-  }
-
-  public static void insertTransaction(int accountId, String transactionType, double amount)
+  public static void insertTransaction(int accountId, String transactionType, long amountCents)
       throws Exception {
-    final String query =
-        "INSERT INTO transaction (transaction_type, amount, id_account) VALUES (?, ?, ?)";
-
-    DatabaseWrapper.executeUpdateTerribleFix(query, accountId, transactionType, amount, accountId);
+    DatabaseWrapper.executeUpdateTerribleFix(
+        SQLQueries.INSERT_TRANSACTION,
+        accountId,
+        transactionType,
+        Money.toBigDecimal(amountCents),
+        accountId);
   }
 
-  public static List<Map<String, String>> getTransactions(int accountId) throws Exception {
-    final String query =
-        "SELECT transaction_type, amount, transaction_date "
-            + "FROM transaction WHERE id_account = ? ORDER BY transaction_date ASC";
+  /**
+   * Busca as movimentações da conta depois do cursor e antes de {@code to}, em ordem de data.
+   *
+   * @param limit Quantidade máxima de linhas.
+   */
+  public static List<StatementEntry> getTransactionsAfter(
+      int accountId, TransactionCursor after, LocalDateTime to, int limit) {
+    return DatabaseWrapper.executeQueryForList(
+        SQLQueries.SELECT_STATEMENT_PAGE,
+        STATEMENT_ENTRY_MAPPER,
+        accountId,
+        after.transactionDate(),
+        after.transactionDate(),
+        after.transactionDate(),
+        after.transactionId(),
+        to,
+        limit);
+  }
 
-    return DatabaseWrapper.executeQueryForMultipleResults(query, accountId);
+  /**
+   * Busca as movimentações da conta antes do cursor e a partir de {@code from}, da mais nova para a
+   * mais antiga.
+   *
+   * @param limit Quantidade máxima de linhas.
+   */
+  public static List<StatementEntry> getTransactionsBefore(
+      int accountId, TransactionCursor before, LocalDateTime from, int limit) {
+    return DatabaseWrapper.executeQueryForList(
+        SQLQueries.SELECT_STATEMENT_PAGE_BEFORE,
+        STATEMENT_ENTRY_MAPPER,
+        accountId,
+        before.transactionDate(),
+        before.transactionDate(),
+        before.transactionDate(),
+        before.transactionId(),
+        from,
+        limit);
   }
 }
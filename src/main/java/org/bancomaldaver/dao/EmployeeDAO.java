@@ -1,57 +1,69 @@
 package org.bancomaldaver.dao;
 
-import java.util.HashMap;
+import java.time.LocalDateTime;
 import java.util.List;
-import java.util.Map;
+import org.bancomaldaver.models.LedgerEntry;
+import org.bancomaldaver.models.TransactionCursor;
 import org.bancomaldaver.utils.DatabaseWrapper;
+import org.bancomaldaver.utils.Money;
+import org.bancomaldaver.utils.RowConsumer;
+import org.bancomaldaver.utils.RowMapper;
+import org.bancomaldaver.utils.SQLQueries;
 
 public final class EmployeeDAO {
+  private static final RowMapper.Factory<LedgerEntry> LEDGER_ENTRY_MAPPER =
+      resultSet -> {
+        var transactionId = resultSet.findColumn("id_transaction");
+        var accountNumber = resultSet.findColumn("account_number");
+        var accountType = resultSet.findColumn("account_type");
+        var transactionType = resultSet.findColumn("transaction_type");
+        var amount = resultSet.findColumn("amount");
+        var date = resultSet.findColumn("transaction_date");
+        var name = resultSet.findColumn("name");
+        var cpf = resultSet.findColumn("cpf");
 
-  public static Map<String, String> getEmployeeDetailsByCode(String employeeCode) throws Exception {
-    final String query =
-        "SELECT e.employee_code, e.role, u.name, u.cpf, u.birth_date, u.phone, "
-            + "a.zip_code, a.street, a.house_number, a.neighborhood, a.city, a.state "
-            + "FROM employee e "
-            + "INNER JOIN user u ON e.id_user = u.id_user "
-            + "LEFT JOIN address a ON u.id_user = a.id_user "
-            + "WHERE e.employee_code = ?";
+        return row ->
+            new LedgerEntry(
+                row.getInt(transactionId),
+                row.getInt(accountNumber),
+                row.getString(accountType),
+                row.getString(transactionType),
+                Money.read(row, amount),
+                row.getObject(date, LocalDateTime.class),
+                row.getString(name),
+                row.getString(cpf));
+      };
 
-    Map<String, Object> rawData = DatabaseWrapper.executeQueryForSingleResult(query, employeeCode);
-
-    if (rawData.isEmpty()) {
-      throw new Exception("Funcionário não encontrado.");
-    }
-
-    Map<String, String> formattedData = new HashMap<>();
-    for (Map.Entry<String, Object> entry : rawData.entrySet()) {
-      formattedData.put(
-          entry.getKey(), entry.getValue() != null ? entry.getValue().toString() : "");
-    }
-
-    var address =
-        String.format(
-            "%s, %s, %s, %s, %s, %s",
-            rawData.get("street"),
-            rawData.get("house_number"),
-            rawData.get("neighborhood"),
-            rawData.get("city"),
-            rawData.get("state"),
-            rawData.get("zip_code"));
+  public static long countFinancialTransactions() throws Exception {
+    return DatabaseWrapper.executeQueryForSingleInt(SQLQueries.COUNT_TRANSACTIONS);
+  }
 
-    formattedData.put("address", address);
-    return formattedData;
+  public static List<LedgerEntry> getLedgerEntriesAfter(TransactionCursor after, int limit) {
+    return DatabaseWrapper.executeQueryForList(
+        SQLQueries.SELECT_LEDGER_PAGE,
+        LEDGER_ENTRY_MAPPER,
+        after.transactionDate(),
+        after.transactionDate(),
+        after.transactionDate(),
+        after.transactionId(),
+        limit);
   }
 
-  public static List<Map<String, String>> getFinancialTransactions() throws Exception {
-    final String query =
-        "SELECT t.id_transaction, a.account_number, a.account_type, t.transaction_type, "
-            + "       t.amount, t.transaction_date, u.name, u.cpf "
-            + "FROM transaction t "
-            + "INNER JOIN account a ON t.id_account = a.id_account "
-            + "INNER JOIN customer c ON a.id_customer = c.id_customer "
-            + "INNER JOIN user u ON c.id_user = u.id_user "
-            + "ORDER BY t.transaction_date ASC";
+  /** Busca as linhas do razão antes do cursor, da mais nova para a mais antiga. */
+  public static List<LedgerEntry> getLedgerEntriesBefore(TransactionCursor before, int limit) {
+    return DatabaseWrapper.executeQueryForList(
+        SQLQueries.SELECT_LEDGER_PAGE_BEFORE,
+        LEDGER_ENTRY_MAPPER,
+        before.transactionDate(),
+        before.transactionDate(),
+        before.transactionDate(),
+        before.transactionId(),
+        limit);
+  }
 
-    return DatabaseWrapper.executeQueryForMultipleResults(query);
+  public static long forEachFinancialTransaction(RowConsumer<LedgerEntry> consumer)
+      throws Exception {
+    return DatabaseWrapper.executeQueryForEach(
+        SQLQueries.SELECT_FINANCIAL_TRANSACTIONS, LEDGER_ENTRY_MAPPER, consumer);
   }
 }
@@ -0,0 +1,135 @@
+package org.bancomaldaver.dao;
+
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.time.LocalDate;
+import java.util.List;
+import org.bancomaldaver.models.CustomerProfile;
+import org.bancomaldaver.models.EmployeeProfile;
+import org.bancomaldaver.utils.CacheStats;
+import org.bancomaldaver.utils.DatabaseWrapper;
+import org.bancomaldaver.utils.RowMapper;
+import org.bancomaldaver.utils.SQLQueries;
+import org.bancomaldaver.utils.SegmentedLruCache;
+
+/**
+ * Cache dos perfis de clientes (por CPF) e funcionários (por código) mostrados nas consultas do
+ * funcionário. Os perfis são imutáveis e já vêm com o endereço montado, então uma consulta repetida
+ * não faz join nem formatação. Cadastros e alterações chamam os {@code invalidate}.
+ */
+public final class ProfileCache {
+  private static final int MAX_ENTRIES = 500;
+
+  private static final SegmentedLruCache<String, CustomerProfile> customers =
+      new SegmentedLruCache<>("perfis-clientes", MAX_ENTRIES);
+  private static final SegmentedLruCache<String, EmployeeProfile> employees =
+      new SegmentedLruCache<>("perfis-funcionarios", MAX_ENTRIES);
+
+  private static final RowMapper.Factory<CustomerProfile> CUSTOMER_PROFILE_MAPPER =
+      resultSet -> {
+        var name = resultSet.findColumn("name");
+        var cpf = resultSet.findColumn("cpf");
+        var birthDate = resultSet.findColumn("birth_date");
+        var phone = resultSet.findColumn("phone");
+        var address = AddressColumns.bind(resultSet);
+
+        return row ->
+            new CustomerProfile(
+                row.getString(name),
+                row.getString(cpf),
+                row.getObject(birthDate, LocalDate.class),
+                row.getString(phone),
+                address.format(row));
+      };
+
+  private static final RowMapper.Factory<EmployeeProfile> EMPLOYEE_PROFILE_MAPPER =
+      resultSet -> {
+        var code = resultSet.findColumn("employee_code");
+        var role = resultSet.findColumn("role");
+        var name = resultSet.findColumn("name");
+        var cpf = resultSet.findColumn("cpf");
+        var birthDate = resultSet.findColumn("birth_date");
+        var phone = resultSet.findColumn("phone");
+        var address = AddressColumns.bind(resultSet);
+
+        return row ->
+            new EmployeeProfile(
+                row.getString(code),
+                row.getString(role),
+                row.getString(name),
+                row.getString(cpf),
+                row.getObject(birthDate, LocalDate.class),
+                row.getString(phone),
+                address.format(row));
+      };
+
+  private ProfileCache() {
+    throw new UnsupportedOperationException("Essa classe não pode ser instanciada diretamente.");
+  }
+
+  public static CustomerProfile getCustomer(String cpf) throws Exception {
+    return customers.get(
+        cpf,
+        key -> {
+          var rows =
+              DatabaseWrapper.executeQueryForList(
+                  SQLQueries.SELECT_CUSTOMER_DETAILS_BY_CPF, CUSTOMER_PROFILE_MAPPER, key);
+          if (rows.isEmpty()) {
+            throw new IllegalArgumentException("Cliente não encontrado.");
+          }
+          return rows.get(0);
+        });
+  }
+
+  public static EmployeeProfile getEmployee(String employeeCode) throws Exception {
+    return employees.get(
+        employeeCode,
+        key -> {
+          var rows =
+              DatabaseWrapper.executeQueryForList(
+                  SQLQueries.SELECT_EMPLOYEE_DETAILS_BY_CODE, EMPLOYEE_PROFILE_MAPPER, key);
+          if (rows.isEmpty()) {
+            throw new IllegalArgumentException("Funcionário não encontrado.");
+          }
+          return rows.get(0);
+        });
+  }
+
+  public static void invalidateCustomer(String cpf) {
+    customers.invalidate(cpf);
+  }
+
+  public static void invalidateEmployee(String employeeCode) {
+    employees.invalidate(employeeCode);
+  }
+
+  public static List<CacheStats> stats() {
+    return List.of(customers.stats(), employees.stats());
+  }
+
+  /** Índices das colunas de endereço, resolvidos uma vez por consulta. */
+  private record AddressColumns(
+      int street, int houseNumber, int neighborhood, int city, int state, int zipCode) {
+
+    static AddressColumns bind(ResultSet resultSet) throws SQLException {
+      return new AddressColumns(
+          resultSet.findColumn("street"),
+          resultSet.findColumn("house_number"),
+          resultSet.findColumn("neighborhood"),
+          resultSet.findColumn("city"),
+          resultSet.findColumn("state"),
+          resultSet.findColumn("zip_code"));
+    }
+
+    String format(ResultSet row) throws SQLException {
+      return String.join(
+          ", ",
+          String.valueOf(row.getString(street)),
+          String.valueOf(row.getString(houseNumber)),
+          String.valueOf(row.getString(neighborhood)),
+          String.valueOf(row.getString(city)),
+          String.valueOf(row.getString(state)),
+          String.valueOf(row.getString(zipCode)));
+    }
+  }
+}
@@ -0,0 +1,50 @@
+package org.bancomaldaver.dao;
+
+import java.util.List;
+import org.bancomaldaver.utils.DatabaseWrapper;
+import org.bancomaldaver.utils.Money;
+import org.bancomaldaver.utils.RowMapper;
+import org.bancomaldaver.utils.SQLQueries;
+
+public final class TransferDAO {
+  private static final RowMapper.Factory<Integer> ACCOUNT_ID_MAPPER =
+      resultSet -> {
+        var id = resultSet.findColumn("id_account");
+        return row -> row.getInt(id);
+      };
+
+  private TransferDAO() {
+    throw new UnsupportedOperationException("Essa classe não pode ser instanciada diretamente.");
+  }
+
+  /**
+   * Trava as duas contas (SELECT ... FOR UPDATE) em ordem crescente de id. Precisa rodar dentro de
+   * uma unidade de trabalho; os locks duram até o commit.
+   *
+   * @return Quantas das duas contas existem.
+   */
+  public static int lockAccounts(int sourceAccountId, int targetAccountId) {
+    List<Integer> locked =
+        DatabaseWrapper.executeQueryForList(
+            SQLQueries.LOCK_ACCOUNTS_FOR_TRANSFER,
+            ACCOUNT_ID_MAPPER,
+            sourceAccountId,
+            targetAccountId);
+    return locked.size();
+  }
+
+  public static int getAccountIdByNumber(String accountNumber) throws Exception {
+    return DatabaseWrapper.executeQueryForSingleInt(
+        SQLQueries.SELECT_ACCOUNT_ID_BY_NUMBER, accountNumber);
+  }
+
+  /** Grava as duas pernas da transferência num único lote: débito negativo, crédito positivo. */
+  public static void insertLegs(int sourceAccountId, int targetAccountId, long amountCents) {
+    var amount = Money.toBigDecimal(amountCents);
+    DatabaseWrapper.executeBatch(
+        SQLQueries.INSERT_TRANSACTION,
+        List.of(
+            new Object[] {"TRANSFER", amount.negate(), sourceAccountId},
+            new Object[] {"TRANSFER", amount, targetAccountId}));
+  }
+}
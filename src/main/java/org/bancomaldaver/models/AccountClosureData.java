@@ -1,15 +1,14 @@
 package org.bancomaldaver.models;
 
+import java.util.List;
 import lombok.Getter;
 import lombok.RequiredArgsConstructor;
-import lombok.Setter;
 
+/** Todas as contas do cliente, como estavam na consulta que antecede o encerramento. */
 @Getter
-@Setter
 @RequiredArgsConstructor
 public final class AccountClosureData {
   private final String cpf;
-  private final int userId;
-  private final int customerId;
-  private final String accountNumber;
+  private final String customerName;
+  private final List<AccountSnapshot> accounts;
 }
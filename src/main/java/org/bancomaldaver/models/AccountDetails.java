@@ -0,0 +1,4 @@
+package org.bancomaldaver.models;
+
+/** Dados da conta para consulta: os cadastrais, que podem vir do cache, e o saldo atual. */
+public record AccountDetails(AccountMetadata metadata, long balanceCents) {}
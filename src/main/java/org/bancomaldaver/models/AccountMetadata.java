@@ -0,0 +1,28 @@
+package org.bancomaldaver.models;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+
+/**
+ * Dados de uma conta que quase nunca mudam: tipo, titular e condições. O saldo fica de fora de
+ * propósito, porque muda a cada operação e é sempre lido do banco.
+ *
+ * @param creditLimitCents Limite da conta corrente, ou 0 para poupança.
+ * @param dueDate Vencimento da conta corrente, ou null para poupança.
+ * @param interestRate Taxa da poupança, ou null para conta corrente.
+ */
+public record AccountMetadata(
+    int accountId,
+    String accountNumber,
+    String accountType,
+    String branch,
+    String customerName,
+    String cpf,
+    long creditLimitCents,
+    LocalDate dueDate,
+    BigDecimal interestRate) {
+
+  public boolean isChecking() {
+    return "CHECKING".equals(accountType);
+  }
+}
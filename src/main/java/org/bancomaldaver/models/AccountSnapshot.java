@@ -0,0 +1,11 @@
+package org.bancomaldaver.models;
+
+/**
+ * Estado de uma conta no momento da consulta de encerramento. O saldo e a última movimentação
+ * funcionam como versão: o encerramento só é feito se nenhum dos dois mudou desde então.
+ */
+public record AccountSnapshot(AccountDetails account, long lastTransactionId) {
+  public AccountMetadata metadata() {
+    return account.metadata();
+  }
+}
@@ -7,6 +7,6 @@ import org.bancomaldaver.models.core.Account;
 @Getter
 @Setter
 public final class CheckingAccount extends Account {
-  private double limit;
+  private long limitCents;
   private LocalDate dueDate;
 }
@@ -0,0 +1,15 @@
+package org.bancomaldaver.models;
+
+/**
+ * Senha gravada de um usuário, como veio do banco (hash ou texto puro antigo).
+ *
+ * @param accountId A conta pela qual a credencial foi encontrada, ou 0 quando a busca não passa por
+ *     conta.
+ */
+public record Credential(int userId, String passwordHash, int accountId) {
+  @Override
+  public String toString() {
+    // o hash não vai para log
+    return "Credential[userId=" + userId + ", accountId=" + accountId + "]";
+  }
+}
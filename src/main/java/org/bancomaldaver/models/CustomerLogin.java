@@ -0,0 +1,4 @@
+package org.bancomaldaver.models;
+
+/** Resultado da busca de login do cliente: a senha gravada e a conta completa, numa só consulta. */
+public record CustomerLogin(Credential credential, AccountDetails account) {}
@@ -0,0 +1,7 @@
+package org.bancomaldaver.models;
+
+import java.time.LocalDate;
+
+/** Dados cadastrais do cliente para consulta, com o endereço já montado em uma linha. */
+public record CustomerProfile(
+    String name, String cpf, LocalDate birthDate, String phone, String address) {}
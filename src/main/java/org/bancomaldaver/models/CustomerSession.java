@@ -0,0 +1,20 @@
+package org.bancomaldaver.models;
+
+/**
+ * Sessão de um cliente autenticado, criada no login. O token é validado em memória a cada operação;
+ * a validade fica com o registro de sessões, que a renova a cada uso.
+ *
+ * <p>A conta é a que veio na consulta do login: os dados cadastrais servem para a tela, mas o saldo
+ * é o daquele momento e não é atualizado pela sessão.
+ */
+public record CustomerSession(String token, AccountDetails account) {
+  public int accountId() {
+    return account.metadata().accountId();
+  }
+
+  @Override
+  public String toString() {
+    // o token não vai para log
+    return "CustomerSession[accountId=" + accountId() + "]";
+  }
+}
@@ -0,0 +1,13 @@
+package org.bancomaldaver.models;
+
+import java.time.LocalDate;
+
+/** Dados cadastrais do funcionário para consulta, com o endereço já montado em uma linha. */
+public record EmployeeProfile(
+    String employeeCode,
+    String role,
+    String name,
+    String cpf,
+    LocalDate birthDate,
+    String phone,
+    String address) {}
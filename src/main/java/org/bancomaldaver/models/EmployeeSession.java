@@ -0,0 +1,13 @@
+package org.bancomaldaver.models;
+
+/**
+ * Sessão de um funcionário autenticado, criada no login. Confirmações de senha dentro da sessão
+ * usam o código dela, nunca uma busca entre todos os funcionários.
+ */
+public record EmployeeSession(String token, String employeeCode) {
+  @Override
+  public String toString() {
+    // o token não vai para log
+    return "EmployeeSession[employeeCode=" + employeeCode + "]";
+  }
+}
@@ -0,0 +1,19 @@
+package org.bancomaldaver.models;
+
+import java.time.LocalDateTime;
+
+public record LedgerEntry(
+    int transactionId,
+    int accountNumber,
+    String accountType,
+    String transactionType,
+    long amountCents,
+    LocalDateTime transactionDate,
+    String customerName,
+    String cpf) {
+
+  /** Posição desta linha no razão, para pedir a página seguinte a partir dela. */
+  public TransactionCursor cursor() {
+    return new TransactionCursor(transactionDate, transactionId);
+  }
+}
@@ -0,0 +1,12 @@
+package org.bancomaldaver.models;
+
+import java.time.LocalDateTime;
+
+public record StatementEntry(
+    int transactionId, String transactionType, long amountCents, LocalDateTime transactionDate) {
+
+  /** Posição desta linha no extrato, para pedir a página seguinte a partir dela. */
+  public TransactionCursor cursor() {
+    return new TransactionCursor(transactionDate, transactionId);
+  }
+}
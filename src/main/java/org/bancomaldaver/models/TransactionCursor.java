@@ -0,0 +1,23 @@
+package org.bancomaldaver.models;
+
+import java.time.LocalDateTime;
+
+/**
+ * Posição numa lista de movimentações (extrato ou razão): a última linha já entregue, na ordem
+ * {@code (transaction_date, id_transaction)}. A próxima página começa logo depois dela.
+ */
+public record TransactionCursor(LocalDateTime transactionDate, int transactionId) {
+  // menor valor da coluna TIMESTAMP do MySQL
+  private static final TransactionCursor BEGINNING =
+      new TransactionCursor(LocalDateTime.of(1970, 1, 1, 0, 0), 0);
+
+  /** Cursor anterior a todas as movimentações. */
+  public static TransactionCursor beginning() {
+    return BEGINNING;
+  }
+
+  /** Cursor anterior a qualquer movimentação a partir do instante informado. */
+  public static TransactionCursor startingAt(LocalDateTime from) {
+    return new TransactionCursor(from, 0);
+  }
+}
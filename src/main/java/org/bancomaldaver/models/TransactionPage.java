@@ -0,0 +1,46 @@
+package org.bancomaldaver.models;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.function.Function;
+
+/**
+ * Uma página de movimentações.
+ *
+ * @param entries As movimentações da página, da mais antiga para a mais nova.
+ * @param next Cursor para continuar no sentido da busca (a página seguinte, ou a anterior numa
+ *     busca para trás), ou null se não houver mais nada nesse sentido.
+ */
+public record TransactionPage<T>(List<T> entries, TransactionCursor next) {
+
+  /**
+   * Monta a página a partir de uma busca que pediu {@code pageSize + 1} linhas: a linha extra só
+   * indica que existe página seguinte e não é entregue.
+   */
+  public static <T> TransactionPage<T> of(
+      List<T> fetched, int pageSize, Function<T, TransactionCursor> cursorOf) {
+    if (fetched.size() <= pageSize) {
+      return new TransactionPage<>(fetched, null);
+    }
+
+    var page = List.copyOf(fetched.subList(0, pageSize));
+    return new TransactionPage<>(page, cursorOf.apply(page.get(pageSize - 1)));
+  }
+
+  /**
+   * Monta a página a partir de uma busca para trás, em ordem decrescente, que pediu {@code pageSize
+   * + 1} linhas. As linhas são entregues em ordem crescente e o cursor é o da mais antiga.
+   */
+  public static <T> TransactionPage<T> ofDescending(
+      List<T> fetched, int pageSize, Function<T, TransactionCursor> cursorOf) {
+    var hasMore = fetched.size() > pageSize;
+    var page = new ArrayList<>(hasMore ? fetched.subList(0, pageSize) : fetched);
+    Collections.reverse(page);
+    return new TransactionPage<>(List.copyOf(page), hasMore ? cursorOf.apply(page.get(0)) : null);
+  }
+
+  public boolean hasMore() {
+    return next != null;
+  }
+}
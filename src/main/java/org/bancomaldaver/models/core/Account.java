@@ -9,6 +9,6 @@ import org.bancomaldaver.models.Customer;
 public abstract class Account {
   private int number;
   private String branch;
-  private double balance;
+  private long balanceCents;
   private Customer customer;
 }
@@ -0,0 +1,118 @@
+package org.bancomaldaver.utils;
+
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+
+/**
+ * Filtro de Bloom para strings: responde "com certeza não existe" ou "talvez exista". Não guarda os
+ * valores, só bits, então milhões de chaves cabem em poucos megabytes. Pode ser consultado e
+ * alimentado por várias threads ao mesmo tempo; nada é removido.
+ *
+ * <p>O tamanho é calculado para a quantidade esperada de chaves e a taxa de falso positivo pedida.
+ * Passando da quantidade esperada o filtro continua correto, só que a taxa real sobe; {@link
+ * #estimatedFalsePositiveRate()} mostra quanto.
+ */
+public final class BloomFilter {
+  private static final double LN2 = Math.log(2);
+
+  private final AtomicLongArray words;
+  private final long bitCount;
+  private final int hashFunctions;
+  private final AtomicLong insertions = new AtomicLong();
+
+  /**
+   * @param expectedInsertions Quantas chaves o filtro deve comportar.
+   * @param falsePositiveRate Fração de consultas a chaves ausentes que pode responder "talvez",
+   *     entre 0 e 1 (exclusive).
+   */
+  public BloomFilter(long expectedInsertions, double falsePositiveRate) {
+    if (expectedInsertions <= 0) {
+      throw new IllegalArgumentException("A quantidade esperada deve ser maior que zero.");
+    }
+    if (!(falsePositiveRate > 0 && falsePositiveRate < 1)) {
+      throw new IllegalArgumentException("Taxa de falso positivo inválida: " + falsePositiveRate);
+    }
+
+    var bits = (long) Math.ceil(-expectedInsertions * Math.log(falsePositiveRate) / (LN2 * LN2));
+    var wordCount = Math.toIntExact((bits + 63) / 64);
+    this.words = new AtomicLongArray(wordCount);
+    this.bitCount = wordCount * 64L;
+    this.hashFunctions =
+        Math.max(1, (int) Math.round((double) bitCount / expectedInsertions * LN2));
+  }
+
+  public void put(String value) {
+    var hash = hash(value);
+    var h1 = mix(hash);
+    var h2 = mix(hash ^ 0x9E3779B97F4A7C15L) | 1;
+
+    for (int i = 0; i < hashFunctions; i++) {
+      var bit = Math.floorMod(h1 + i * h2, bitCount);
+      var index = (int) (bit >>> 6);
+      var mask = 1L << bit;
+      var word = words.get(index);
+      while ((word & mask) == 0 && !words.compareAndSet(index, word, word | mask)) {
+        word = words.get(index);
+      }
+    }
+    insertions.incrementAndGet();
+  }
+
+  /** Falso quando o valor com certeza nunca foi inserido. */
+  public boolean mightContain(String value) {
+    var hash = hash(value);
+    var h1 = mix(hash);
+    var h2 = mix(hash ^ 0x9E3779B97F4A7C15L) | 1;
+
+    for (int i = 0; i < hashFunctions; i++) {
+      var bit = Math.floorMod(h1 + i * h2, bitCount);
+      if ((words.get((int) (bit >>> 6)) & (1L << bit)) == 0) {
+        return false;
+      }
+    }
+    return true;
+  }
+
+  public long bitCount() {
+    return bitCount;
+  }
+
+  public int hashFunctions() {
+    return hashFunctions;
+  }
+
+  public long insertions() {
+    return insertions.get();
+  }
+
+  /** Memória ocupada pelos bits do filtro. */
+  public long memoryBytes() {
+    return bitCount / 8;
+  }
+
+  /** Taxa de falso positivo esperada com a quantidade de chaves inseridas até agora. */
+  public double estimatedFalsePositiveRate() {
+    var filled = 1 - Math.exp(-(double) hashFunctions * insertions.get() / bitCount);
+    return Math.pow(filled, hashFunctions);
+  }
+
+  // FNV-1a de 64 bits sobre os chars
+  private static long hash(String value) {
+    var hash = 0xCBF29CE484222325L;
+    for (int i = 0; i < value.length(); i++) {
+      hash ^= value.charAt(i);
+      hash *= 0x100000001B3L;
+    }
+    return hash;
+  }
+
+  // finalizador do MurmurHash3, para espalhar os bits do FNV
+  private static long mix(long hash) {
+    hash ^= hash >>> 33;
+    hash *= 0xFF51AFD7ED558CCDL;
+    hash ^= hash >>> 33;
+    hash *= 0xC4CEB93FE1A85EC3L;
+    hash ^= hash >>> 33;
+    return hash;
+  }
+}
@@ -0,0 +1,121 @@
+package org.bancomaldaver.utils;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.function.Predicate;
+
+/**
+ * Cache read-through limitado em tamanho e em idade. Ao passar de {@code maxEntries}, sai a entrada
+ * usada há mais tempo (LRU); entradas mais velhas que o TTL são descartadas na leitura e
+ * recarregadas.
+ *
+ * <p>A carga roda fora do lock, então duas threads que erram a mesma chave ao mesmo tempo podem
+ * carregar duas vezes; o custo é uma consulta a mais, e nenhuma leitura fica esperando o banco de
+ * outra thread. Uma invalidação durante a carga faz o valor carregado ser devolvido sem entrar no
+ * cache, porque ele pode ser anterior à escrita. Falhas da carga não são guardadas.
+ *
+ * <p>Valores lidos por fora do {@link #get} seguem a mesma regra: quem vai guardar lê a {@link
+ * #generation()} antes da consulta e a repassa ao {@link #put}.
+ */
+public final class BoundedCache<K, V> {
+
+  @FunctionalInterface
+  public interface Loader<K, V> {
+    V load(K key) throws Exception;
+  }
+
+  private record Entry<V>(V value, long loadedAt) {}
+
+  private final String name;
+  private final int maxEntries;
+  private final long ttlNanos;
+  private final LinkedHashMap<K, Entry<V>> entries;
+  private long hits;
+  private long misses;
+  private long evictions;
+  // muda a cada invalidação; a carga só grava se nada foi invalidado enquanto ela rodava
+  private long generation;
+
+  public BoundedCache(String name, int maxEntries, long ttlNanos) {
+    this.name = name;
+    this.maxEntries = maxEntries;
+    this.ttlNanos = ttlNanos;
+    this.entries =
+        new LinkedHashMap<>(16, 0.75f, true) {
+          @Override
+          protected boolean removeEldestEntry(Map.Entry<K, Entry<V>> eldest) {
+            if (size() > BoundedCache.this.maxEntries) {
+              evictions++;
+              return true;
+            }
+            return false;
+          }
+        };
+  }
+
+  /** Devolve o valor da chave, carregando-o se não estiver no cache ou tiver expirado. */
+  public V get(K key, Loader<? super K, ? extends V> loader) throws Exception {
+    long loadGeneration;
+    synchronized (this) {
+      var entry = entries.get(key);
+      if (entry != null && System.nanoTime() - entry.loadedAt() < ttlNanos) {
+        hits++;
+        return entry.value();
+      }
+      if (entry != null) {
+        entries.remove(key);
+        evictions++;
+      }
+      misses++;
+      loadGeneration = generation;
+    }
+
+    V value = loader.load(key);
+    synchronized (this) {
+      if (loadGeneration == generation) {
+        entries.put(key, new Entry<>(value, System.nanoTime()));
+      }
+    }
+    return value;
+  }
+
+  /** A geração atual, para ler antes de uma consulta cujo resultado vai para o {@link #put}. */
+  public synchronized long generation() {
+    return generation;
+  }
+
+  /**
+   * Guarda um valor obtido por fora do {@link #get}, se nada foi invalidado desde que a consulta
+   * começou.
+   *
+   * @param readGeneration A {@link #generation()} lida antes da consulta.
+   * @return false se houve invalidação no meio e o valor foi descartado.
+   */
+  public synchronized boolean put(K key, V value, long readGeneration) {
+    if (readGeneration != generation) {
+      return false;
+    }
+    entries.put(key, new Entry<>(value, System.nanoTime()));
+    return true;
+  }
+
+  public synchronized void invalidate(K key) {
+    generation++;
+    entries.remove(key);
+  }
+
+  /** Remove as entradas cujo valor atende ao filtro. */
+  public synchronized void invalidateIf(Predicate<? super V> filter) {
+    generation++;
+    entries.values().removeIf(entry -> filter.test(entry.value()));
+  }
+
+  public synchronized void clear() {
+    generation++;
+    entries.clear();
+  }
+
+  public synchronized CacheStats stats() {
+    return new CacheStats(name, hits, misses, evictions, entries.size());
+  }
+}
@@ -0,0 +1,11 @@
+package org.bancomaldaver.utils;
+
+/** Contadores de um cache desde que a aplicação subiu. */
+public record CacheStats(String cacheName, long hits, long misses, long evictions, int size) {
+
+  /** Fração das leituras atendidas pelo cache, entre 0 e 1. */
+  public double hitRate() {
+    var requests = hits + misses;
+    return requests == 0 ? 0 : (double) hits / requests;
+  }
+}
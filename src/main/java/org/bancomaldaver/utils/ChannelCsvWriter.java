@@ -0,0 +1,223 @@
+package org.bancomaldaver.utils;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.CharBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.CharsetEncoder;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.time.LocalDateTime;
+
+/**
+ * Escritor de CSV em UTF-8 sobre um {@link FileChannel}. Os caracteres são acumulados em buffers
+ * fixos e codificados em blocos, então escrever uma linha não aloca nada (números e datas são
+ * formatados dígito a dígito, sem {@code String.format}).
+ */
+public final class ChannelCsvWriter implements AutoCloseable {
+  private static final int BUFFER_SIZE = 64 * 1024;
+
+  private final FileChannel channel;
+  private final CharsetEncoder encoder = StandardCharsets.UTF_8.newEncoder();
+  private final CharBuffer chars = CharBuffer.allocate(BUFFER_SIZE);
+  private final ByteBuffer bytes = ByteBuffer.allocateDirect(BUFFER_SIZE * 4);
+  private final char[] digits = new char[20];
+  private final char separator;
+  private final char decimalSeparator;
+  private boolean firstField = true;
+
+  public ChannelCsvWriter(Path path, char separator, char decimalSeparator) throws IOException {
+    this.channel =
+        FileChannel.open(
+            path,
+            StandardOpenOption.CREATE,
+            StandardOpenOption.TRUNCATE_EXISTING,
+            StandardOpenOption.WRITE);
+    this.separator = separator;
+    this.decimalSeparator = decimalSeparator;
+  }
+
+  /** Escreve o BOM do UTF-8... o Excel lê melhor com ele. */
+  public void writeBom() throws IOException {
+    put('\uFEFF');
+  }
+
+  public void writeField(CharSequence value) throws IOException {
+    startField();
+    if (value == null) {
+      return;
+    }
+
+    if (!needsQuoting(value)) {
+      putAll(value);
+      return;
+    }
+
+    put('"');
+    for (var i = 0; i < value.length(); i++) {
+      var c = value.charAt(i);
+      if (c == '"') {
+        put('"');
+      }
+      put(c);
+    }
+    put('"');
+  }
+
+  public void writeField(long value) throws IOException {
+    startField();
+    putLong(value);
+  }
+
+  /** Escreve um valor decimal representado como inteiro sem escala (ex.: centavos com escala 2). */
+  public void writeDecimalField(long unscaledValue, int scale) throws IOException {
+    startField();
+
+    if (unscaledValue < 0) {
+      put('-');
+    }
+
+    var magnitude = Math.abs(unscaledValue);
+    var divisor = 1L;
+    for (var i = 0; i < scale; i++) {
+      divisor *= 10;
+    }
+
+    putLong(magnitude / divisor);
+    if (scale > 0) {
+      put(decimalSeparator);
+      putPadded(magnitude % divisor, scale);
+    }
+  }
+
+  /** Escreve a data no formato {@code yyyy-MM-dd HH:mm:ss}. */
+  public void writeField(LocalDateTime value) throws IOException {
+    startField();
+    if (value == null) {
+      return;
+    }
+
+    putPadded(value.getYear(), 4);
+    put('-');
+    putPadded(value.getMonthValue(), 2);
+    put('-');
+    putPadded(value.getDayOfMonth(), 2);
+    put(' ');
+    putPadded(value.getHour(), 2);
+    put(':');
+    putPadded(value.getMinute(), 2);
+    put(':');
+    putPadded(value.getSecond(), 2);
+  }
+
+  public void endRow() throws IOException {
+    put('\r');
+    put('\n');
+    firstField = true;
+  }
+
+  @Override
+  public void close() throws IOException {
+    try (channel) {
+      chars.flip();
+      encode(true);
+      encoder.flush(bytes);
+      writeBytes();
+    }
+  }
+
+  private void startField() throws IOException {
+    if (!firstField) {
+      put(separator);
+    }
+    firstField = false;
+  }
+
+  private boolean needsQuoting(CharSequence value) {
+    for (var i = 0; i < value.length(); i++) {
+      var c = value.charAt(i);
+      if (c == separator || c == '"' || c == '\n' || c == '\r') {
+        return true;
+      }
+    }
+    return false;
+  }
+
+  private void putLong(long value) throws IOException {
+    if (value == Long.MIN_VALUE) {
+      putAll(Long.toString(value));
+      return;
+    }
+
+    if (value < 0) {
+      put('-');
+      value = -value;
+    }
+
+    var position = digits.length;
+    do {
+      digits[--position] = (char) ('0' + value % 10);
+      value /= 10;
+    } while (value > 0);
+
+    for (var i = position; i < digits.length; i++) {
+      put(digits[i]);
+    }
+  }
+
+  private void putPadded(long value, int width) throws IOException {
+    var position = digits.length;
+    for (var i = 0; i < width; i++) {
+      digits[--position] = (char) ('0' + value % 10);
+      value /= 10;
+    }
+
+    for (var i = position; i < digits.length; i++) {
+      put(digits[i]);
+    }
+  }
+
+  private void putAll(CharSequence value) throws IOException {
+    for (var i = 0; i < value.length(); i++) {
+      put(value.charAt(i));
+    }
+  }
+
+  private void put(char c) throws IOException {
+    if (!chars.hasRemaining()) {
+      flushChars();
+    }
+    chars.put(c);
+  }
+
+  private void flushChars() throws IOException {
+    chars.flip();
+    encode(false);
+    // mantém um surrogate solto no fim do bloco para o próximo encode
+    chars.compact();
+  }
+
+  private void encode(boolean endOfInput) throws IOException {
+    while (true) {
+      var result = encoder.encode(chars, bytes, endOfInput);
+      if (result.isError()) {
+        result.throwException();
+      }
+
+      writeBytes();
+
+      if (result.isUnderflow()) {
+        return;
+      }
+    }
+  }
+
+  private void writeBytes() throws IOException {
+    bytes.flip();
+    while (bytes.hasRemaining()) {
+      channel.write(bytes);
+    }
+    bytes.clear();
+  }
+}
@@ -0,0 +1,128 @@
+package org.bancomaldaver.utils;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Locale;
+import java.util.Properties;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+
+/**
+ * Configuração do banco lida de fora do código. A ordem de prioridade de cada chave é:
+ *
+ * <ol>
+ *   <li>variável de ambiente {@code BANCO_MALVADER_<CHAVE>} (ex.: {@code BANCO_MALVADER_DB_URL});
+ *   <li>propriedade de sistema {@code -Dbancomalvader.<chave>};
+ *   <li>a chave no perfil ativo ({@code <perfil>.<chave>});
+ *   <li>a chave sem perfil.
+ * </ol>
+ *
+ * <p>As chaves vêm do {@code database.properties} do classpath, sobrescrito pelo arquivo apontado
+ * em {@code -Dbancomalvader.config} ou {@code BANCO_MALVADER_CONFIG}. O perfil ativo vem de {@code
+ * -Dbancomalvader.profile}, {@code BANCO_MALVADER_PROFILE} ou da chave {@code profile}.
+ *
+ * <p>O processo inteiro lê a mesma instância, {@link #current()}: o pool e os ajustes de fora dele,
+ * como o filtro de CPFs, seguem a mesma ordem de prioridade.
+ */
+public final class DatabaseConfig {
+  private static final Logger logger = Logger.getLogger(DatabaseConfig.class.getName());
+  private static final String RESOURCE = "database.properties";
+  private static final String SYSTEM_PREFIX = "bancomalvader.";
+  private static final String ENV_PREFIX = "BANCO_MALVADER_";
+
+  private final Properties properties;
+  private final String profile;
+
+  private DatabaseConfig(Properties properties, String profile) {
+    this.properties = properties;
+    this.profile = profile;
+  }
+
+  /** A configuração do processo, carregada no primeiro uso. */
+  public static DatabaseConfig current() {
+    return Loaded.INSTANCE;
+  }
+
+  static DatabaseConfig load() {
+    var properties = new Properties();
+
+    try (InputStream input = DatabaseConfig.class.getClassLoader().getResourceAsStream(RESOURCE)) {
+      if (input != null) {
+        properties.load(input);
+      }
+    } catch (IOException e) {
+      logger.log(Level.WARNING, "Erro ao ler " + RESOURCE + ": " + e.getMessage());
+    }
+
+    var externalFile = lookup("config");
+    if (externalFile != null) {
+      try (InputStream input = Files.newInputStream(Path.of(externalFile))) {
+        properties.load(input);
+      } catch (IOException e) {
+        throw new IllegalStateException(
+            "Não foi possível ler a configuração do banco: " + externalFile, e);
+      }
+    }
+
+    var profile = lookup("profile");
+    if (profile == null) {
+      profile = properties.getProperty("profile", "default");
+    }
+
+    logger.log(Level.INFO, "Configuração do banco carregada com o perfil {0}.", profile);
+    return new DatabaseConfig(properties, profile);
+  }
+
+  public String profile() {
+    return profile;
+  }
+
+  public String get(String key, String defaultValue) {
+    var value = lookup(key);
+    if (value != null) {
+      return value;
+    }
+
+    value = properties.getProperty(profile + "." + key);
+    if (value != null) {
+      return value.trim();
+    }
+
+    value = properties.getProperty(key);
+    return value != null ? value.trim() : defaultValue;
+  }
+
+  public int getInt(String key, int defaultValue) {
+    var value = get(key, null);
+    return value != null ? Integer.parseInt(value) : defaultValue;
+  }
+
+  public long getLong(String key, long defaultValue) {
+    var value = get(key, null);
+    return value != null ? Long.parseLong(value) : defaultValue;
+  }
+
+  public double getDouble(String key, double defaultValue) {
+    var value = get(key, null);
+    return value != null ? Double.parseDouble(value) : defaultValue;
+  }
+
+  public boolean getBoolean(String key, boolean defaultValue) {
+    var value = get(key, null);
+    return value != null ? Boolean.parseBoolean(value) : defaultValue;
+  }
+
+  private static String lookup(String key) {
+    var value = System.getenv(ENV_PREFIX + key.toUpperCase(Locale.ROOT).replace('.', '_'));
+    if (value == null) {
+      value = System.getProperty(SYSTEM_PREFIX + key);
+    }
+    return value;
+  }
+
+  private static final class Loaded {
+    static final DatabaseConfig INSTANCE = load();
+  }
+}
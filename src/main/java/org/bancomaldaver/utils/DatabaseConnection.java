@@ -3,36 +3,178 @@ package org.bancomaldaver.utils;
 import com.zaxxer.hikari.HikariConfig;
 import com.zaxxer.hikari.HikariDataSource;
 import java.sql.Connection;
+import java.sql.SQLTransientConnectionException;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.logging.Level;
 import java.util.logging.Logger;
 
+/**
+ * Pools de conexão da aplicação. O pool OLTP atende as operações de caixa e é sensível a latência;
+ * o pool de relatórios é pequeno, somente leitura e isolado, para que uma varredura longa não tome
+ * as conexões de um depósito. Se houver réplicas configuradas em {@code db.replica.urls}, as
+ * consultas somente leitura avulsas são distribuídas entre elas pelo {@link ReplicaRouter}.
+ */
 final class DatabaseConnection {
   private static final Logger logger = Logger.getLogger(DatabaseConnection.class.getName());
+  private static final PoolMetricsTracker oltpMetrics = new PoolMetricsTracker();
+  private static final PoolMetricsTracker reportingMetrics = new PoolMetricsTracker();
   private static final HikariDataSource dataSource;
+  private static final HikariDataSource reportingDataSource;
+  private static final List<PoolMetricsTracker> replicaMetrics = new ArrayList<>();
+  private static final ReplicaRouter replicaRouter;
 
   static {
-    HikariConfig config = new HikariConfig();
-    config.setJdbcUrl("jdbc:mysql://localhost:3306/banco_malvader");
-    config.setUsername("root");
-    config.setPassword("masterkey");
-    config.setMaximumPoolSize(10);
-    config.setMinimumIdle(2);
-    config.setIdleTimeout(30000);
-    config.setMaxLifetime(1800000);
-    config.setConnectionTimeout(30000);
+    var settings = DatabaseConfig.current();
 
+    HikariConfig config = createConfig(settings, "db", "banco-malvader-" + settings.profile());
+    config.setMaximumPoolSize(settings.getInt("db.pool.maximumSize", 10));
+    config.setMinimumIdle(settings.getInt("db.pool.minimumIdle", 2));
+    // timeout curto: com o pool saturado é melhor falhar rápido do que congelar a tela
+    config.setConnectionTimeout(settings.getLong("db.pool.connectionTimeoutMs", 2000));
+    config.setMetricsTrackerFactory(oltpMetrics);
     dataSource = new HikariDataSource(config);
+
+    // relatórios rodam em transações somente leitura com snapshot consistente (REPEATABLE READ com
+    // autocommit desligado: todas as leituras da transação enxergam o mesmo instante)
+    HikariConfig reportingConfig =
+        createConfig(settings, "db.reporting", "banco-malvader-relatorios-" + settings.profile());
+    reportingConfig.setMaximumPoolSize(settings.getInt("db.reporting.pool.maximumSize", 2));
+    reportingConfig.setMinimumIdle(settings.getInt("db.reporting.pool.minimumIdle", 0));
+    reportingConfig.setConnectionTimeout(
+        settings.getLong("db.reporting.pool.connectionTimeoutMs", 10000));
+    reportingConfig.setReadOnly(true);
+    reportingConfig.setAutoCommit(false);
+    reportingConfig.setTransactionIsolation("TRANSACTION_REPEATABLE_READ");
+    reportingConfig.setMetricsTrackerFactory(reportingMetrics);
+    reportingDataSource = new HikariDataSource(reportingConfig);
+
+    var replicas = new ArrayList<HikariDataSource>();
+    var replicaUrls =
+        Arrays.stream(settings.get("db.replica.urls", "").split(","))
+            .map(String::trim)
+            .filter(url -> !url.isEmpty())
+            .toList();
+    for (int i = 0; i < replicaUrls.size(); i++) {
+      HikariConfig replicaConfig =
+          createConfig(settings, "db.replica", "banco-malvader-replica-" + (i + 1));
+      replicaConfig.setJdbcUrl(replicaUrls.get(i));
+      replicaConfig.setMaximumPoolSize(settings.getInt("db.replica.pool.maximumSize", 5));
+      replicaConfig.setMinimumIdle(settings.getInt("db.replica.pool.minimumIdle", 1));
+      replicaConfig.setConnectionTimeout(
+          settings.getLong("db.replica.pool.connectionTimeoutMs", 1000));
+      replicaConfig.setReadOnly(true);
+      // a réplica não pode impedir a aplicação de subir; se estiver fora, as leituras vão para o
+      // primário
+      replicaConfig.setInitializationFailTimeout(-1);
+
+      var metricsTracker = new PoolMetricsTracker();
+      replicaConfig.setMetricsTrackerFactory(metricsTracker);
+      replicaMetrics.add(metricsTracker);
+      replicas.add(new HikariDataSource(replicaConfig));
+    }
+    // janela de aderência após uma escrita: deve cobrir o atraso típico da replicação
+    replicaRouter = new ReplicaRouter(replicas, settings.getLong("db.replica.stickinessMs", 2000));
+    if (replicaRouter.isEnabled()) {
+      logger.log(Level.INFO, "{0} réplica(s) de leitura configurada(s).", replicas.size());
+    }
   }
 
   private DatabaseConnection() {
     throw new UnsupportedOperationException("Essa classe não pode ser instanciada diretamente.");
   }
 
+  /**
+   * Monta a configuração comum aos pools. As chaves de conexão de um pool ({@code <prefixo>.url},
+   * {@code .username}, {@code .password}) caem para as do pool principal quando não existem.
+   */
+  private static HikariConfig createConfig(DatabaseConfig settings, String prefix, String name) {
+    HikariConfig config = new HikariConfig();
+    config.setPoolName(name);
+    config.setJdbcUrl(
+        settings.get(
+            prefix + ".url", settings.get("db.url", "jdbc:mysql://localhost:3306/banco_malvader")));
+    config.setUsername(settings.get(prefix + ".username", settings.get("db.username", "root")));
+    config.setPassword(settings.get(prefix + ".password", settings.get("db.password", "")));
+    config.setIdleTimeout(settings.getLong(prefix + ".pool.idleTimeoutMs", 30000));
+    config.setMaxLifetime(settings.getLong(prefix + ".pool.maxLifetimeMs", 1800000));
+    config.setRegisterMbeans(true);
+
+    // cache de prepared statements no driver + prepare no servidor: cada comando do registro é
+    // parseado uma vez por conexão em vez de a cada execução. Desligado só para comparação
+    var statementCache = String.valueOf(settings.getBoolean("db.statementCache.enabled", true));
+    config.addDataSourceProperty("cachePrepStmts", statementCache);
+    config.addDataSourceProperty("useServerPrepStmts", statementCache);
+    config.addDataSourceProperty("prepStmtCacheSize", String.valueOf(statementCacheSize()));
+    config.addDataSourceProperty("prepStmtCacheSqlLimit", "2048");
+    config.addDataSourceProperty("cacheResultSetMetadata", "true");
+    config.addDataSourceProperty("cacheServerConfiguration", "true");
+    config.addDataSourceProperty("useLocalSessionState", "true");
+    config.addDataSourceProperty("elideSetAutoCommits", "true");
+    config.addDataSourceProperty("maintainTimeStats", "false");
+    // lotes de INSERT viram um único INSERT de várias linhas (lançamentos das transferências)
+    config.addDataSourceProperty("rewriteBatchedStatements", "true");
+
+    return config;
+  }
+
+  /**
+   * Tamanho do cache de statements por conexão: todos os comandos do registro, com folga para as
+   * variações de streaming e para o caminho ad-hoc.
+   */
+  private static int statementCacheSize() {
+    return Math.max(64, QueryRegistry.initialize() * 2);
+  }
+
   static Connection getConnection() {
+    return getConnection(dataSource, oltpMetrics);
+  }
+
+  /**
+   * Conexão do pool de relatórios, já em transação somente leitura. Quem usa deve encerrar a
+   * transação (rollback) antes de devolver a conexão.
+   */
+  static Connection getReportingConnection() {
+    return getConnection(reportingDataSource, reportingMetrics);
+  }
+
+  /**
+   * Conexão para uma consulta somente leitura: de uma réplica, quando houver e não houver escrita
+   * recente, ou do primário.
+   */
+  static Connection getReadConnection() {
+    var connection = replicaRouter.getConnection();
+    return connection != null ? connection : getConnection();
+  }
+
+  /** Avisa o roteador de que houve escrita, para manter as próximas leituras no primário. */
+  static void markWrite() {
+    replicaRouter.markWrite();
+  }
+
+  private static Connection getConnection(
+      HikariDataSource source, PoolMetricsTracker metricsTracker) {
     try {
-      return dataSource.getConnection();
+      return source.getConnection();
+    } catch (SQLTransientConnectionException e) {
+      logger.log(Level.SEVERE, "Timeout ao obter conexão; " + metricsTracker.snapshot());
+      throw new RuntimeException("Banco de dados ocupado. Tente novamente em instantes.");
     } catch (Exception e) {
-      logger.log(java.util.logging.Level.SEVERE, e.getMessage());
+      logger.log(Level.SEVERE, e.getMessage());
       throw new RuntimeException("Erro ao conectar ao banco de dados.");
     }
   }
+
+  static PoolMetrics getPoolMetrics() {
+    return oltpMetrics.snapshot();
+  }
+
+  static List<PoolMetrics> getAllPoolMetrics() {
+    var metrics = new ArrayList<PoolMetrics>();
+    metrics.add(oltpMetrics.snapshot());
+    metrics.add(reportingMetrics.snapshot());
+    replicaMetrics.forEach(tracker -> metrics.add(tracker.snapshot()));
+    return List.copyOf(metrics);
+  }
 }
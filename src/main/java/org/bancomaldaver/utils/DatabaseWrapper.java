@@ -10,19 +10,27 @@ import java.util.logging.Logger;
 
 public final class DatabaseWrapper {
   private static final Logger logger = Logger.getLogger(DatabaseWrapper.class.getName());
+  private static final int ER_DUP_ENTRY = 1062;
 
   private DatabaseWrapper() {
     throw new UnsupportedOperationException("Essa classe não pode ser instanciada diretamente.");
   }
 
-  public static int executeQuery(String query, Object... parameters) {
-    if (!isQuerySafe(query)) {
-      throw new IllegalArgumentException("Tentativa de Injeção SQL detectada.");
+  /** Violação de chave única (1062) em algum ponto da cadeia de causas. */
+  public static boolean isDuplicateKey(Throwable error) {
+    for (var cause = error; cause != null; cause = cause.getCause()) {
+      if (cause instanceof SQLException sqlException
+          && sqlException.getErrorCode() == ER_DUP_ENTRY) {
+        return true;
+      }
     }
+    return false;
+  }
 
-    try (Connection connection = DatabaseConnection.getConnection();
+  public static int executeQuery(SqlStatement query, Object... parameters) {
+    try (var lease = UnitOfWork.acquire(query);
         PreparedStatement statement =
-            connection.prepareStatement(query, Statement.RETURN_GENERATED_KEYS)) {
+            lease.connection().prepareStatement(query.getSql(), Statement.RETURN_GENERATED_KEYS)) {
 
       setParameters(statement, parameters);
       var affectedRows = statement.executeUpdate();
@@ -40,17 +48,14 @@ public final class DatabaseWrapper {
       }
     } catch (SQLException e) {
       logger.log(Level.SEVERE, "Erro ao executar o update: " + e.getMessage());
-      throw new RuntimeException("Operação no banco de dados cancelada.");
+      throw new RuntimeException("Operação no banco de dados cancelada.", e);
     }
   }
 
-  public static int executeUpdateTerribleFix(String query, int accountId, Object... parameters) {
-    if (!isQuerySafe(query)) {
-      throw new IllegalArgumentException("Tentativa de Injeção SQL detectada.");
-    }
-
-    try (Connection connection = DatabaseConnection.getConnection();
-        PreparedStatement statement = connection.prepareStatement(query)) {
+  public static int executeUpdateTerribleFix(
+      SqlStatement query, int accountId, Object... parameters) {
+    try (var lease = UnitOfWork.acquire(query);
+        PreparedStatement statement = lease.connection().prepareStatement(query.getSql())) {
 
       setParameters(statement, parameters);
       var affectedRows = statement.executeUpdate();
@@ -62,34 +67,23 @@ public final class DatabaseWrapper {
       return accountId;
     } catch (SQLException e) {
       logger.log(Level.SEVERE, "Erro ao executar o update: " + e.getMessage());
-      throw new RuntimeException("Operação no banco de dados cancelada.");
+      throw new RuntimeException("Operação no banco de dados cancelada.", e);
     }
   }
 
-  public static List<Map<String, String>> executeQueryForMultipleResults(
-      String query, Object... parameters) {
-    if (!isQuerySafe(query)) {
-      throw new IllegalArgumentException("Tentativa de Injeção SQL detectada.");
-    }
-
-    try (Connection connection = DatabaseConnection.getConnection();
-        PreparedStatement statement = connection.prepareStatement(query)) {
+  public static <T> List<T> executeQueryForList(
+      SqlStatement query, RowMapper.Factory<T> mapperFactory, Object... parameters) {
+    try (var lease = UnitOfWork.acquire(query);
+        PreparedStatement statement = lease.connection().prepareStatement(query.getSql())) {
 
       setParameters(statement, parameters);
 
       try (ResultSet resultSet = statement.executeQuery()) {
-        List<Map<String, String>> results = new ArrayList<>();
-        ResultSetMetaData metaData = resultSet.getMetaData();
-        var columnCount = metaData.getColumnCount();
+        List<T> results = new ArrayList<>();
+        RowMapper<T> mapper = mapperFactory.bind(resultSet);
 
         while (resultSet.next()) {
-          Map<String, String> row = new HashMap<>();
-          for (var i = 1; i <= columnCount; i++) {
-            String columnName = metaData.getColumnLabel(i);
-            Object value = resultSet.getObject(i);
-            row.put(columnName, value != null ? value.toString() : "");
-          }
-          results.add(row);
+          results.add(mapper.mapRow(resultSet));
         }
 
         return results;
@@ -97,17 +91,100 @@ public final class DatabaseWrapper {
 
     } catch (SQLException e) {
       logger.log(Level.SEVERE, "Erro ao executar query: " + e.getMessage());
-      throw new RuntimeException("Operação no banco de dados cancelada.");
+      throw new RuntimeException("Operação no banco de dados cancelada.", e);
     }
   }
 
-  public static int executeDelete(String query, Object... parameters) {
-    if (!isQuerySafe(query)) {
-      throw new IllegalArgumentException("Tentativa de Injeção SQL detectada.");
+  /**
+   * Executa a consulta em modo streaming e entrega cada linha ao consumidor, sem materializar o
+   * resultado. O cursor é fechado ao final, mesmo que o consumidor lance exceção.
+   *
+   * @return A quantidade de linhas entregues.
+   */
+  public static <T> long executeQueryForEach(
+      SqlStatement query,
+      RowMapper.Factory<T> mapperFactory,
+      RowConsumer<T> consumer,
+      Object... parameters)
+      throws Exception {
+    try (var cursor = executeQueryForCursor(query, mapperFactory, parameters)) {
+      long count = 0;
+      while (cursor.next()) {
+        consumer.accept(cursor.get());
+        count++;
+      }
+      return count;
     }
+  }
 
-    try (Connection connection = DatabaseConnection.getConnection();
-        PreparedStatement statement = connection.prepareStatement(query)) {
+  /**
+   * Abre a consulta em modo streaming (fetch size {@code Integer.MIN_VALUE} do Connector/J), que
+   * traz uma linha por vez do servidor. Quem chama é responsável por fechar o cursor.
+   */
+  public static <T> QueryCursor<T> executeQueryForCursor(
+      SqlStatement query, RowMapper.Factory<T> mapperFactory, Object... parameters) {
+    var lease = UnitOfWork.acquire(query);
+    PreparedStatement statement = null;
+    ResultSet resultSet = null;
+
+    try {
+      statement =
+          lease
+              .connection()
+              .prepareStatement(
+                  query.getSql(), ResultSet.TYPE_FORWARD_ONLY, ResultSet.CONCUR_READ_ONLY);
+      statement.setFetchSize(Integer.MIN_VALUE);
+      setParameters(statement, parameters);
+
+      resultSet = statement.executeQuery();
+      return new QueryCursor<>(lease, statement, resultSet, mapperFactory.bind(resultSet));
+    } catch (SQLException e) {
+      logger.log(Level.SEVERE, "Erro ao executar query: " + e.getMessage());
+      closeQuietly(resultSet, statement, lease);
+      throw new RuntimeException("Operação no banco de dados cancelada.", e);
+    }
+  }
+
+  /**
+   * Executa um UPDATE e devolve a quantidade de linhas afetadas, para comandos condicionais em que
+   * zero linhas significa que a condição não foi atendida.
+   */
+  public static int executeUpdate(SqlStatement query, Object... parameters) {
+    try (var lease = UnitOfWork.acquire(query);
+        PreparedStatement statement = lease.connection().prepareStatement(query.getSql())) {
+
+      setParameters(statement, parameters);
+      return statement.executeUpdate();
+    } catch (SQLException e) {
+      logger.log(Level.SEVERE, "Erro ao executar o update: " + e.getMessage());
+      throw new RuntimeException("Operação no banco de dados cancelada.", e);
+    }
+  }
+
+  /**
+   * Executa o mesmo comando para vários conjuntos de parâmetros num único envio ao banco (o driver
+   * reescreve INSERTs em lote como um INSERT de múltiplas linhas).
+   *
+   * @return A quantidade de linhas afetadas por cada conjunto.
+   */
+  public static int[] executeBatch(SqlStatement query, List<Object[]> parameterSets) {
+    try (var lease = UnitOfWork.acquire(query);
+        PreparedStatement statement = lease.connection().prepareStatement(query.getSql())) {
+
+      for (var parameters : parameterSets) {
+        setParameters(statement, parameters);
+        statement.addBatch();
+      }
+      return statement.executeBatch();
+    } catch (SQLException e) {
+      logger.log(Level.SEVERE, "Erro ao executar o lote: " + e.getMessage());
+      throw new RuntimeException("Operação no banco de dados cancelada.", e);
+    }
+  }
+
+  public static int executeDelete(SqlStatement query, Object... parameters) {
+    try (var lease = UnitOfWork.acquire(query);
+        PreparedStatement statement = lease.connection().prepareStatement(query.getSql())) {
 
       setParameters(statement, parameters);
 
@@ -121,37 +198,35 @@ public final class DatabaseWrapper {
 
     } catch (SQLException e) {
       logger.log(java.util.logging.Level.SEVERE, "Erro ao executar o delete: " + e.getMessage());
-      throw new RuntimeException("Operação de exclusão no banco de dados cancelada.");
+      throw new RuntimeException("Operação de exclusão no banco de dados cancelada.", e);
     }
   }
 
-  public static double executeQueryForSingleDouble(String query, Object... parameters)
+  /** Lê um único valor monetário ({@code DECIMAL}) em centavos. */
+  public static long executeQueryForSingleMoney(SqlStatement query, Object... parameters)
       throws Exception {
-    if (!isQuerySafe(query)) {
-      throw new IllegalArgumentException("Tentativa de Injeção SQL detectada.");
-    }
-
-    try (Connection connection = DatabaseConnection.getConnection();
-        PreparedStatement statement = connection.prepareStatement(query)) {
+    try (var lease = UnitOfWork.acquire(query);
+        PreparedStatement statement = lease.connection().prepareStatement(query.getSql())) {
 
       setParameters(statement, parameters);
 
       try (ResultSet resultSet = statement.executeQuery()) {
         if (resultSet.next()) {
-          return resultSet.getDouble(1);
+          return Money.read(resultSet, 1);
         } else {
           throw new SQLException("Nenhum resultado encontrado para a consulta.");
         }
       }
     } catch (SQLException e) {
       logger.log(java.util.logging.Level.SEVERE, "Erro ao executar query: " + e.getMessage());
-      throw new RuntimeException("Erro ao executar consulta no banco de dados.");
+      throw new RuntimeException("Erro ao executar consulta no banco de dados.", e);
     }
   }
 
-  public static int executeQueryForSingleInt(String query, Object... parameters) throws Exception {
-    try (Connection connection = DatabaseConnection.getConnection();
-        PreparedStatement statement = connection.prepareStatement(query)) {
+  public static int executeQueryForSingleInt(SqlStatement query, Object... parameters)
+      throws Exception {
+    try (var lease = UnitOfWork.acquire(query);
+        PreparedStatement statement = lease.connection().prepareStatement(query.getSql())) {
 
       setParameters(statement, parameters);
 
@@ -167,10 +242,10 @@ public final class DatabaseWrapper {
     return 0;
   }
 
-  public static String executeQueryForSingleString(String query, Object... parameters)
+  public static String executeQueryForSingleString(SqlStatement query, Object... parameters)
       throws Exception {
-    try (Connection connection = DatabaseConnection.getConnection();
-        PreparedStatement statement = connection.prepareStatement(query)) {
+    try (var lease = UnitOfWork.acquire(query);
+        PreparedStatement statement = lease.connection().prepareStatement(query.getSql())) {
 
       setParameters(statement, parameters);
 
@@ -187,13 +262,9 @@ public final class DatabaseWrapper {
   }
 
   public static Map<String, Object> executeQueryForSingleResult(
-      String query, Object... parameters) {
-    if (!isQuerySafe(query)) {
-      throw new IllegalArgumentException("Tentativa de Injeção SQL detectada.");
-    }
-
-    try (Connection connection = DatabaseConnection.getConnection();
-        PreparedStatement statement = connection.prepareStatement(query)) {
+      SqlStatement query, Object... parameters) {
+    try (var lease = UnitOfWork.acquire(query);
+        PreparedStatement statement = lease.connection().prepareStatement(query.getSql())) {
 
       setParameters(statement, parameters);
 
@@ -217,7 +288,7 @@ public final class DatabaseWrapper {
 
     } catch (SQLException e) {
       logger.log(java.util.logging.Level.SEVERE, "Erro ao executar query: " + e.getMessage());
-      throw new RuntimeException("Operação no banco de dados cancelada.");
+      throw new RuntimeException("Operação no banco de dados cancelada.", e);
     }
   }
 
@@ -228,27 +299,16 @@ public final class DatabaseWrapper {
     }
   }
 
-  private static boolean isQuerySafe(String query) {
-    String[] disallowed = {
-      ";",
-      "'",
-      "--",
-      "/*",
-      "*/",
-      "xp_", // Esse é específico pra SQL Server, mas sei lá, deixa aí.
-      "exec",
-      "drop",
-      "truncate",
-      "alter"
-    };
-
-    for (String disallowedPattern : disallowed) {
-      if (query.toLowerCase().contains(disallowedPattern)) {
-        logger.warning("Pattern proibido na query: " + disallowedPattern);
-        return false;
+  private static void closeQuietly(AutoCloseable... resources) {
+    for (var resource : resources) {
+      if (resource == null) {
+        continue;
+      }
+      try {
+        resource.close();
+      } catch (Exception e) {
+        logger.log(Level.WARNING, "Erro ao liberar recurso: " + e.getMessage());
       }
     }
-
-    return true;
   }
 }
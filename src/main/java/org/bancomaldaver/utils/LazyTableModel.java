@@ -0,0 +1,232 @@
+package org.bancomaldaver.utils;
+
+import io.qt.core.QAbstractTableModel;
+import io.qt.core.QModelIndex;
+import io.qt.core.Qt;
+import io.qt.widgets.QAbstractItemView;
+import io.qt.widgets.QTableView;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.function.Consumer;
+import java.util.function.Function;
+import org.bancomaldaver.models.TransactionCursor;
+import org.bancomaldaver.models.TransactionPage;
+
+/**
+ * Modelo de tabela que busca as linhas sob demanda, uma página por vez, conforme o usuário rola até
+ * o fim. A busca roda fora da thread da GUI e as linhas entram no modelo quando chegam.
+ *
+ * <p>O modelo guarda no máximo {@code maxRows} linhas, uma janela sobre o resultado. Rolando para
+ * baixo, as linhas mais antigas saem do topo; quando a rolagem volta ao topo, a página anterior à
+ * primeira linha mantida é buscada de novo, pelo cursor dela, e as linhas do fim saem para dar
+ * lugar. A memória fica constante nos dois sentidos.
+ */
+public final class LazyTableModel<T> extends QAbstractTableModel {
+
+  @FunctionalInterface
+  public interface PageLoader<T> {
+    /**
+     * Busca a página vizinha ao cursor: a seguinte, para o carregador das próximas páginas, ou a
+     * anterior, para o das páginas de cima.
+     *
+     * @param cursor A linha a partir da qual buscar, ou null para a primeira página.
+     */
+    CompletableFuture<TransactionPage<T>> load(TransactionCursor cursor);
+  }
+
+  public record Column<T>(String header, Function<T, String> value) {}
+
+  private final List<Column<T>> columns;
+  private final PageLoader<T> loader;
+  private final PageLoader<T> previousLoader;
+  private final Function<T, TransactionCursor> cursorOf;
+  private final Consumer<Throwable> onError;
+  private final int maxRows;
+  private final ArrayDeque<T> rows = new ArrayDeque<>();
+  // acesso por posição sem copiar o deque a cada data(); refeito só quando as linhas mudam
+  private List<T> snapshot = List.of();
+  private TransactionCursor next;
+  private boolean exhausted;
+  // false depois que alguma linha saiu do topo: ainda há o que buscar para cima
+  private boolean startReached = true;
+  private boolean loading;
+
+  /**
+   * @param columns As colunas exibidas.
+   * @param loader Busca a página seguinte ao cursor.
+   * @param previousLoader Busca a página anterior ao cursor, para recarregar o que saiu do topo.
+   * @param cursorOf O cursor de uma linha.
+   * @param maxRows Quantidade máxima de linhas mantidas em memória.
+   * @param onError Recebe, na thread da GUI, o erro de uma busca.
+   */
+  public LazyTableModel(
+      List<Column<T>> columns,
+      PageLoader<T> loader,
+      PageLoader<T> previousLoader,
+      Function<T, TransactionCursor> cursorOf,
+      int maxRows,
+      Consumer<Throwable> onError) {
+    this.columns = List.copyOf(columns);
+    this.loader = loader;
+    this.previousLoader = previousLoader;
+    this.cursorOf = cursorOf;
+    this.maxRows = maxRows;
+    this.onError = onError;
+  }
+
+  /**
+   * Liga o modelo à tabela. A rolagem passa a ser por linha, para que a entrada e a saída de linhas
+   * no topo possam ser compensadas sem a tabela pular, e chegar ao topo busca a página anterior.
+   */
+  public void attach(QTableView view) {
+    view.setVerticalScrollMode(QAbstractItemView.ScrollMode.ScrollPerItem);
+    view.setModel(this);
+    var scrollBar = view.verticalScrollBar();
+    rowsRemoved.connect(
+        (parent, first, last) -> {
+          if (first == 0) {
+            scrollBar.setValue(Math.max(0, scrollBar.value() - (last - first + 1)));
+          }
+        });
+    rowsInserted.connect(
+        (parent, first, last) -> {
+          if (first == 0 && last + 1 < rows.size()) {
+            scrollBar.setValue(scrollBar.value() + (last - first + 1));
+          }
+        });
+    scrollBar.valueChanged.connect(
+        value -> {
+          // a tabela pode ter recebido outro modelo depois deste
+          if (view.model() == this && value == scrollBar.minimum()) {
+            fetchPrevious();
+          }
+        });
+  }
+
+  @Override
+  public int rowCount(QModelIndex parent) {
+    return parent != null && parent.isValid() ? 0 : snapshot.size();
+  }
+
+  @Override
+  public int columnCount(QModelIndex parent) {
+    return parent != null && parent.isValid() ? 0 : columns.size();
+  }
+
+  @Override
+  public Object data(QModelIndex index, int role) {
+    if (role != Qt.ItemDataRole.DisplayRole || !index.isValid()) {
+      return null;
+    }
+    var row = snapshot.get(index.row());
+    return columns.get(index.column()).value().apply(row);
+  }
+
+  @Override
+  public Object headerData(int section, Qt.Orientation orientation, int role) {
+    if (role != Qt.ItemDataRole.DisplayRole) {
+      return null;
+    }
+    if (orientation == Qt.Orientation.Horizontal) {
+      return columns.get(section).header();
+    }
+    return null;
+  }
+
+  @Override
+  public boolean canFetchMore(QModelIndex parent) {
+    return !exhausted && !loading;
+  }
+
+  @Override
+  public void fetchMore(QModelIndex parent) {
+    if (!canFetchMore(parent)) {
+      return;
+    }
+    load(loader, next, this::append);
+  }
+
+  /** Busca a página anterior à primeira linha mantida, se alguma já saiu do topo. */
+  public void fetchPrevious() {
+    if (startReached || loading || rows.isEmpty()) {
+      return;
+    }
+    load(previousLoader, cursorOf.apply(rows.getFirst()), this::prepend);
+  }
+
+  private void load(
+      PageLoader<T> pageLoader, TransactionCursor cursor, Consumer<TransactionPage<T>> apply) {
+    loading = true;
+    pageLoader
+        .load(cursor)
+        .whenComplete(
+            (page, error) ->
+                UiThread.post(
+                    this,
+                    () -> {
+                      loading = false;
+                      if (error != null) {
+                        exhausted = true;
+                        startReached = true;
+                        onError.accept(error.getCause() != null ? error.getCause() : error);
+                        return;
+                      }
+                      apply.accept(page);
+                    }));
+  }
+
+  private void append(TransactionPage<T> page) {
+    next = page.next();
+    exhausted = !page.hasMore();
+
+    var entries = page.entries();
+    if (!entries.isEmpty()) {
+      var first = rows.size();
+      beginInsertRows(new QModelIndex(), first, first + entries.size() - 1);
+      rows.addAll(entries);
+      snapshot = new ArrayList<>(rows);
+      endInsertRows();
+    }
+
+    var overflow = rows.size() - maxRows;
+    if (overflow > 0) {
+      beginRemoveRows(new QModelIndex(), 0, overflow - 1);
+      for (int i = 0; i < overflow; i++) {
+        rows.removeFirst();
+      }
+      snapshot = new ArrayList<>(rows);
+      endRemoveRows();
+      startReached = false;
+    }
+  }
+
+  private void prepend(TransactionPage<T> page) {
+    startReached = !page.hasMore();
+
+    var entries = page.entries();
+    if (!entries.isEmpty()) {
+      beginInsertRows(new QModelIndex(), 0, entries.size() - 1);
+      for (int i = entries.size() - 1; i >= 0; i--) {
+        rows.addFirst(entries.get(i));
+      }
+      snapshot = new ArrayList<>(rows);
+      endInsertRows();
+    }
+
+    var overflow = rows.size() - maxRows;
+    if (overflow > 0) {
+      var last = rows.size() - 1;
+      beginRemoveRows(new QModelIndex(), last - overflow + 1, last);
+      for (int i = 0; i < overflow; i++) {
+        rows.removeLast();
+      }
+      snapshot = new ArrayList<>(rows);
+      endRemoveRows();
+      // o fim saiu da memória: a próxima rolagem para baixo volta a buscar depois da última linha
+      next = cursorOf.apply(rows.getLast());
+      exhausted = false;
+    }
+  }
+}
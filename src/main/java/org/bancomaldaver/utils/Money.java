@@ -0,0 +1,112 @@
+package org.bancomaldaver.utils;
+
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.text.DecimalFormatSymbols;
+
+/**
+ * Valores monetários como {@code long} em centavos. A aritmética é feita direto nos primitivos, sem
+ * alocar e sem erro de arredondamento; {@link BigDecimal} só aparece na fronteira com o JDBC, onde
+ * as colunas são {@code DECIMAL(15, 2)}.
+ */
+public final class Money {
+  private static final int SCALE = 2;
+  private static final long CENTS_PER_UNIT = 100;
+
+  private Money() {
+    throw new UnsupportedOperationException("Essa classe não pode ser instanciada diretamente.");
+  }
+
+  public static long ofUnits(long units) {
+    return Math.multiplyExact(units, CENTS_PER_UNIT);
+  }
+
+  /** Soma com verificação de estouro: um saldo que não cabe em {@code long} é erro, não volta. */
+  public static long addExact(long cents, long otherCents) {
+    return Math.addExact(cents, otherCents);
+  }
+
+  public static long subtractExact(long cents, long otherCents) {
+    return Math.subtractExact(cents, otherCents);
+  }
+
+  /**
+   * Converte o texto digitado pelo usuário em centavos. Aceita ponto ou vírgula como separador
+   * decimal e no máximo duas casas.
+   *
+   * @throws IllegalArgumentException Se o texto não for um valor válido.
+   */
+  public static long parse(String text) {
+    var value = text == null ? "" : text.strip();
+    if (value.isEmpty()) {
+      throw new IllegalArgumentException("Informe um valor.");
+    }
+
+    var negative = value.charAt(0) == '-';
+    var start = negative || value.charAt(0) == '+' ? 1 : 0;
+    long units = 0;
+    long fraction = 0;
+    int fractionDigits = -1;
+
+    for (int i = start; i < value.length(); i++) {
+      var c = value.charAt(i);
+      if ((c == '.' || c == ',') && fractionDigits < 0) {
+        fractionDigits = 0;
+      } else if (c >= '0' && c <= '9' && fractionDigits < 0) {
+        units = Math.addExact(Math.multiplyExact(units, 10), c - '0');
+      } else if (c >= '0' && c <= '9' && fractionDigits < SCALE) {
+        fraction = fraction * 10 + (c - '0');
+        fractionDigits++;
+      } else {
+        throw new IllegalArgumentException("Valor inválido: " + text);
+      }
+    }
+
+    if (value.length() == start || (fractionDigits == 0 && value.length() == start + 1)) {
+      throw new IllegalArgumentException("Valor inválido: " + text);
+    }
+    if (fractionDigits == 1) {
+      fraction *= 10;
+    }
+
+    var cents = Math.addExact(ofUnits(units), fraction);
+    return negative ? -cents : cents;
+  }
+
+  /** Formata com duas casas e o separador decimal do locale, sem símbolo de moeda. */
+  public static String format(long cents) {
+    var builder = new StringBuilder(24);
+    if (cents < 0) {
+      builder.append('-');
+    }
+
+    var absolute = Math.abs(cents);
+    var fraction = absolute % CENTS_PER_UNIT;
+    builder
+        .append(absolute / CENTS_PER_UNIT)
+        .append(DecimalFormatSymbols.getInstance().getDecimalSeparator());
+    if (fraction < 10) {
+      builder.append('0');
+    }
+    return builder.append(fraction).toString();
+  }
+
+  /** Valor para bind em colunas {@code DECIMAL}, sem passar por {@code double}. */
+  public static BigDecimal toBigDecimal(long cents) {
+    return BigDecimal.valueOf(cents, SCALE);
+  }
+
+  /**
+   * Lê uma coluna {@code DECIMAL} em centavos. Valores com mais de duas casas (não deveria haver)
+   * são arredondados meio para cima; {@code NULL} vira zero.
+   */
+  public static long read(ResultSet resultSet, int column) throws SQLException {
+    var value = resultSet.getBigDecimal(column);
+    if (value == null) {
+      return 0;
+    }
+    return value.setScale(SCALE, RoundingMode.HALF_UP).unscaledValue().longValueExact();
+  }
+}
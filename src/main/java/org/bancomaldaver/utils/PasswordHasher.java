@@ -0,0 +1,103 @@
+package org.bancomaldaver.utils;
+
+import java.nio.charset.StandardCharsets;
+import java.security.GeneralSecurityException;
+import java.security.MessageDigest;
+import java.security.SecureRandom;
+import java.util.Base64;
+import javax.crypto.SecretKeyFactory;
+import javax.crypto.spec.PBEKeySpec;
+
+/**
+ * Hash de senhas com PBKDF2-HMAC-SHA256 e salt aleatório, no formato {@code
+ * pbkdf2$<iterações>$<salt>$<hash>} (salt e hash em Base64). As iterações ficam no próprio valor,
+ * então dá para aumentá-las sem invalidar os hashes antigos: {@link #needsRehash(String)} avisa
+ * quando um hash deve ser refeito.
+ *
+ * <p>Cada verificação custa dezenas de milissegundos de CPU de propósito; não chame na thread da
+ * GUI.
+ */
+public final class PasswordHasher {
+  private static final String ALGORITHM = "PBKDF2WithHmacSHA256";
+  private static final String PREFIX = "pbkdf2";
+  private static final int ITERATIONS = 210_000;
+  private static final int SALT_BYTES = 16;
+  private static final int HASH_BYTES = 32;
+  private static final SecureRandom random = new SecureRandom();
+
+  private PasswordHasher() {
+    throw new UnsupportedOperationException("Essa classe não pode ser instanciada diretamente.");
+  }
+
+  public static String hash(String password) {
+    var salt = new byte[SALT_BYTES];
+    random.nextBytes(salt);
+    var hash = pbkdf2(password, salt, ITERATIONS, HASH_BYTES);
+
+    var encoder = Base64.getEncoder().withoutPadding();
+    return PREFIX
+        + "$"
+        + ITERATIONS
+        + "$"
+        + encoder.encodeToString(salt)
+        + "$"
+        + encoder.encodeToString(hash);
+  }
+
+  /**
+   * Confere a senha com o valor gravado. Valores sem o prefixo são senhas antigas em texto puro,
+   * comparadas em tempo constante até serem convertidas.
+   */
+  public static boolean verify(String password, String stored) {
+    if (password == null || stored == null) {
+      return false;
+    }
+    if (!isHashed(stored)) {
+      return MessageDigest.isEqual(
+          password.getBytes(StandardCharsets.UTF_8), stored.getBytes(StandardCharsets.UTF_8));
+    }
+
+    var parts = stored.split("\\$");
+    if (parts.length != 4) {
+      return false;
+    }
+
+    try {
+      var iterations = Integer.parseInt(parts[1]);
+      var decoder = Base64.getDecoder();
+      var salt = decoder.decode(parts[2]);
+      var expected = decoder.decode(parts[3]);
+      return MessageDigest.isEqual(expected, pbkdf2(password, salt, iterations, expected.length));
+    } catch (IllegalArgumentException e) {
+      return false;
+    }
+  }
+
+  /** Indica se o valor gravado é texto puro ou usa menos iterações que o padrão atual. */
+  public static boolean needsRehash(String stored) {
+    if (stored == null || !isHashed(stored)) {
+      return true;
+    }
+    var parts = stored.split("\\$");
+    try {
+      return parts.length != 4 || Integer.parseInt(parts[1]) < ITERATIONS;
+    } catch (NumberFormatException e) {
+      return true;
+    }
+  }
+
+  private static boolean isHashed(String stored) {
+    return stored.startsWith(PREFIX + "$");
+  }
+
+  private static byte[] pbkdf2(String password, byte[] salt, int iterations, int length) {
+    var spec = new PBEKeySpec(password.toCharArray(), salt, iterations, length * 8);
+    try {
+      return SecretKeyFactory.getInstance(ALGORITHM).generateSecret(spec).getEncoded();
+    } catch (GeneralSecurityException e) {
+      throw new IllegalStateException("Erro ao calcular o hash da senha.", e);
+    } finally {
+      spec.clearPassword();
+    }
+  }
+}
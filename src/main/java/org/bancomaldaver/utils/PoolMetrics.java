@@ -0,0 +1,51 @@
+package org.bancomaldaver.utils;
+
+import java.util.List;
+
+/**
+ * Fotografia de um pool de conexões: uso atual, threads esperando por uma conexão e tempos de
+ * aquisição acumulados desde que a aplicação subiu.
+ */
+public record PoolMetrics(
+    String poolName,
+    int activeConnections,
+    int idleConnections,
+    int totalConnections,
+    int maxConnections,
+    int pendingThreads,
+    long acquisitions,
+    double averageAcquireMillis,
+    double maxAcquireMillis,
+    long timeouts) {
+
+  public static PoolMetrics snapshot() {
+    return DatabaseConnection.getPoolMetrics();
+  }
+
+  /** Fotografia de todos os pools: o das operações de caixa e o de relatórios. */
+  public static List<PoolMetrics> snapshotAll() {
+    return DatabaseConnection.getAllPoolMetrics();
+  }
+
+  /** O pool está saturado quando há threads na fila esperando uma conexão. */
+  public boolean isSaturated() {
+    return pendingThreads > 0;
+  }
+
+  @Override
+  public String toString() {
+    return String.format(
+        "pool %s: %d ativas, %d ociosas, %d/%d abertas, %d esperando, %d aquisições"
+            + " (média %.2f ms, máx %.2f ms), %d timeouts",
+        poolName,
+        activeConnections,
+        idleConnections,
+        totalConnections,
+        maxConnections,
+        pendingThreads,
+        acquisitions,
+        averageAcquireMillis,
+        maxAcquireMillis,
+        timeouts);
+  }
+}
@@ -0,0 +1,53 @@
+package org.bancomaldaver.utils;
+
+import com.zaxxer.hikari.metrics.IMetricsTracker;
+import com.zaxxer.hikari.metrics.MetricsTrackerFactory;
+import com.zaxxer.hikari.metrics.PoolStats;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+
+/** Coleta os tempos de aquisição de conexão que o Hikari reporta para um pool. */
+final class PoolMetricsTracker implements MetricsTrackerFactory, IMetricsTracker {
+  private final LongAdder acquisitions = new LongAdder();
+  private final LongAdder acquireNanos = new LongAdder();
+  private final AtomicLong maxAcquireNanos = new AtomicLong();
+  private final LongAdder timeouts = new LongAdder();
+  private volatile String poolName;
+  private volatile PoolStats poolStats;
+
+  @Override
+  public IMetricsTracker create(String poolName, PoolStats poolStats) {
+    this.poolName = poolName;
+    this.poolStats = poolStats;
+    return this;
+  }
+
+  @Override
+  public void recordConnectionAcquiredNanos(long elapsedAcquiredNanos) {
+    acquisitions.increment();
+    acquireNanos.add(elapsedAcquiredNanos);
+    maxAcquireNanos.accumulateAndGet(elapsedAcquiredNanos, Math::max);
+  }
+
+  @Override
+  public void recordConnectionTimeout() {
+    timeouts.increment();
+  }
+
+  PoolMetrics snapshot() {
+    var stats = poolStats;
+    var count = acquisitions.sum();
+
+    return new PoolMetrics(
+        poolName,
+        stats != null ? stats.getActiveConnections() : 0,
+        stats != null ? stats.getIdleConnections() : 0,
+        stats != null ? stats.getTotalConnections() : 0,
+        stats != null ? stats.getMaxConnections() : 0,
+        stats != null ? stats.getPendingThreads() : 0,
+        count,
+        count > 0 ? acquireNanos.sum() / count / 1_000_000.0 : 0,
+        maxAcquireNanos.get() / 1_000_000.0,
+        timeouts.sum());
+  }
+}
@@ -0,0 +1,116 @@
+package org.bancomaldaver.utils;
+
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.util.Spliterator;
+import java.util.Spliterators;
+import java.util.function.Consumer;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+import java.util.stream.Stream;
+import java.util.stream.StreamSupport;
+
+/**
+ * Cursor sobre uma consulta em modo streaming do MySQL: as linhas chegam do servidor uma a uma e só
+ * a linha atual fica em memória. Enquanto o cursor estiver aberto, a conexão não pode executar
+ * outro comando, então ele deve ser fechado assim que a leitura terminar.
+ */
+public final class QueryCursor<T> implements AutoCloseable {
+  private static final Logger logger = Logger.getLogger(QueryCursor.class.getName());
+
+  private final UnitOfWork.Lease lease;
+  private final PreparedStatement statement;
+  private final ResultSet resultSet;
+  private final RowMapper<T> mapper;
+  private boolean exhausted;
+  private boolean closed;
+
+  QueryCursor(
+      UnitOfWork.Lease lease,
+      PreparedStatement statement,
+      ResultSet resultSet,
+      RowMapper<T> mapper) {
+    this.lease = lease;
+    this.statement = statement;
+    this.resultSet = resultSet;
+    this.mapper = mapper;
+  }
+
+  /**
+   * Avança para a próxima linha.
+   *
+   * @return {@code false} quando não há mais linhas.
+   */
+  public boolean next() {
+    if (exhausted || closed) {
+      return false;
+    }
+
+    try {
+      if (resultSet.next()) {
+        return true;
+      }
+    } catch (SQLException e) {
+      logger.log(Level.SEVERE, "Erro ao ler o cursor: " + e.getMessage());
+      throw new RuntimeException("Operação no banco de dados cancelada.", e);
+    }
+
+    exhausted = true;
+    return false;
+  }
+
+  /** Mapeia a linha atual. */
+  public T get() {
+    try {
+      return mapper.mapRow(resultSet);
+    } catch (SQLException e) {
+      logger.log(Level.SEVERE, "Erro ao ler o cursor: " + e.getMessage());
+      throw new RuntimeException("Operação no banco de dados cancelada.", e);
+    }
+  }
+
+  /** Expõe o cursor como {@link Stream}; fechar o stream fecha o cursor. */
+  public Stream<T> stream() {
+    var spliterator =
+        new Spliterators.AbstractSpliterator<T>(
+            Long.MAX_VALUE, Spliterator.ORDERED | Spliterator.NONNULL) {
+          @Override
+          public boolean tryAdvance(Consumer<? super T> action) {
+            if (!next()) {
+              return false;
+            }
+            action.accept(get());
+            return true;
+          }
+        };
+
+    return StreamSupport.stream(spliterator, false).onClose(this::close);
+  }
+
+  @Override
+  public void close() {
+    if (closed) {
+      return;
+    }
+    closed = true;
+
+    try {
+      // Fechar um ResultSet em streaming consome o restante das linhas; cancelar antes evita ler o
+      // resto da tabela só para descartar.
+      if (!exhausted) {
+        statement.cancel();
+      }
+    } catch (SQLException e) {
+      logger.log(Level.WARNING, "Erro ao cancelar a consulta: " + e.getMessage());
+    }
+
+    try (lease;
+        statement;
+        resultSet) {
+      // apenas fecha os recursos na ordem inversa
+    } catch (SQLException e) {
+      logger.log(Level.WARNING, "Erro ao fechar o cursor: " + e.getMessage());
+    }
+  }
+}
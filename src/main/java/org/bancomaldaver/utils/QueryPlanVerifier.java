@@ -0,0 +1,188 @@
+package org.bancomaldaver.utils;
+
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+
+/**
+ * Roda EXPLAIN em todos os comandos registrados e falha se algum deles varre uma tabela ou um
+ * índice inteiro ({@code type} ALL ou index), a não ser que esteja na lista de varreduras aceitas,
+ * com o motivo. As páginas do extrato e do razão também precisam usar o índice esperado e sair na
+ * ordem dele, sem filesort.
+ *
+ * <p>O critério só vale com volume: com poucas linhas o otimizador varre as tabelas pequenas mesmo
+ * tendo índice. Por isso quem aplica a verificação é o teste, contra a massa do {@code seed.sql};
+ * na inicialização ela continua opcional ({@code -Dbancomalvader.verifyPlans=true}), para não
+ * derrubar um banco de desenvolvimento quase vazio. O {@link #main(String[])} roda a mesma
+ * verificação contra qualquer banco populado.
+ */
+public final class QueryPlanVerifier {
+  private static final Logger logger = Logger.getLogger(QueryPlanVerifier.class.getName());
+  private static final String DEFAULT_PARAMETER = "1";
+  private static final String SAMPLE_DATE = "2020-06-01 12:00:00";
+  private static final String SAMPLE_CPF = "90000000001";
+
+  /** Varreduras conhecidas e aceitas, com o motivo. */
+  private static final Map<String, String> ALLOWED_FULL_SCANS =
+      Map.of(
+          "SELECT_ALL_CPFS", "lê todos os CPFs de propósito, para montar o filtro na inicialização",
+          "COUNT_TRANSACTIONS", "conta todas as movimentações",
+          "SELECT_FINANCIAL_TRANSACTIONS", "exporta todas as movimentações",
+          "SELECT_STATEMENT_STATUS", "SHOW GLOBAL STATUS, sem plano de execução");
+
+  /** Índice que a primeira tabela do plano precisa usar, nas consultas paginadas por chave. */
+  private static final Map<String, String> EXPECTED_INDEXES =
+      Map.of(
+          "SELECT_STATEMENT_PAGE", "idx_transaction_account_date",
+          "SELECT_STATEMENT_PAGE_BEFORE", "idx_transaction_account_date",
+          "SELECT_LEDGER_PAGE", "idx_transaction_date",
+          "SELECT_LEDGER_PAGE_BEFORE", "idx_transaction_date");
+
+  /**
+   * Parâmetros de exemplo para comandos em que a string padrão mudaria o plano (LIMIT precisa de
+   * número, e um CPF inexistente faz o otimizador parar antes de montar o plano, por exemplo).
+   */
+  private static final Map<String, Object[]> SAMPLE_PARAMETERS =
+      Map.ofEntries(
+          Map.entry(
+              "SELECT_STATEMENT_PAGE",
+              new Object[] {
+                1, SAMPLE_DATE, SAMPLE_DATE, SAMPLE_DATE, 0, "2038-01-20 00:00:00", 51
+              }),
+          Map.entry(
+              "SELECT_STATEMENT_PAGE_BEFORE",
+              new Object[] {
+                1,
+                SAMPLE_DATE,
+                SAMPLE_DATE,
+                SAMPLE_DATE,
+                Integer.MAX_VALUE,
+                "1970-01-02 00:00:00",
+                51
+              }),
+          Map.entry(
+              "SELECT_LEDGER_PAGE", new Object[] {SAMPLE_DATE, SAMPLE_DATE, SAMPLE_DATE, 0, 201}),
+          Map.entry(
+              "SELECT_LEDGER_PAGE_BEFORE",
+              new Object[] {SAMPLE_DATE, SAMPLE_DATE, SAMPLE_DATE, Integer.MAX_VALUE, 201}),
+          Map.entry("CHECK_CPF_EXISTS", new Object[] {SAMPLE_CPF}),
+          Map.entry("SELECT_USER_ID_BY_CPF", new Object[] {SAMPLE_CPF}),
+          Map.entry("SELECT_CUSTOMER_DETAILS_BY_CPF", new Object[] {SAMPLE_CPF}),
+          Map.entry("SELECT_CUSTOMER_LOGIN", new Object[] {SAMPLE_CPF, "SP"}),
+          Map.entry("SELECT_CLOSURE_ACCOUNTS_BY_CPF", new Object[] {SAMPLE_CPF}),
+          Map.entry("SELECT_EMPLOYEE_NAME_BY_CODE", new Object[] {"S0000000001"}),
+          Map.entry("SELECT_EMPLOYEE_CREDENTIAL", new Object[] {"S0000000001"}),
+          Map.entry("SELECT_EMPLOYEE_DETAILS_BY_CODE", new Object[] {"S0000000001"}),
+          Map.entry("SELECT_ACCOUNT_METADATA_BY_NUMBER", new Object[] {1000001}),
+          Map.entry("SELECT_ACCOUNT_ID_BY_NUMBER", new Object[] {1000001}));
+
+  private QueryPlanVerifier() {
+    throw new UnsupportedOperationException("Essa classe não pode ser instanciada diretamente.");
+  }
+
+  public static boolean isEnabled() {
+    return Boolean.getBoolean("bancomalvader.verifyPlans");
+  }
+
+  /**
+   * Verifica o plano de todos os comandos registrados.
+   *
+   * @throws IllegalStateException Se algum comando fizer varredura completa fora da lista de
+   *     aceitas, ou se uma página não usar o índice esperado.
+   */
+  public static void verify() {
+    QueryRegistry.initialize();
+    var failures = new ArrayList<String>();
+    var checked = 0;
+
+    try (Connection connection = DatabaseConnection.getConnection()) {
+      for (var statement : QueryRegistry.all()) {
+        if (!isExplainable(statement)) {
+          continue;
+        }
+
+        checked++;
+        failures.addAll(explain(connection, statement));
+      }
+    } catch (SQLException e) {
+      throw new IllegalStateException("Erro ao verificar os planos das queries.", e);
+    }
+
+    if (!failures.isEmpty()) {
+      failures.forEach(failure -> logger.log(Level.SEVERE, failure));
+      throw new IllegalStateException(
+          failures.size() + " problema(s) nos planos das queries: " + failures);
+    }
+
+    logger.log(Level.INFO, "Planos verificados: {0} queries sem varredura completa.", checked);
+  }
+
+  private static boolean isExplainable(SqlStatement statement) {
+    if (ALLOWED_FULL_SCANS.containsKey(statement.getName())) {
+      return false;
+    }
+
+    // INSERT ... VALUES não lê tabela nenhuma
+    var sql = statement.getSql().stripLeading();
+    return !sql.regionMatches(true, 0, "INSERT", 0, 6);
+  }
+
+  static List<String> explain(Connection connection, SqlStatement statement) throws SQLException {
+    var failures = new ArrayList<String>();
+    var name = statement.getName();
+
+    try (var explain = connection.prepareStatement("EXPLAIN " + statement.getSql())) {
+      var parameters = SAMPLE_PARAMETERS.get(name);
+      // o registro não aceita aspas, então todo ? no texto é um parâmetro
+      var parameterCount = statement.getSql().chars().filter(c -> c == '?').count();
+      for (int i = 1; i <= parameterCount; i++) {
+        explain.setObject(i, parameters != null ? parameters[i - 1] : DEFAULT_PARAMETER);
+      }
+
+      try (var plan = explain.executeQuery()) {
+        var table = plan.findColumn("table");
+        var type = plan.findColumn("type");
+        var key = plan.findColumn("key");
+        var extra = plan.findColumn("Extra");
+        var expectedIndex = EXPECTED_INDEXES.get(name);
+        var firstRow = true;
+
+        while (plan.next()) {
+          var tableName = plan.getString(table);
+          var accessType = plan.getString(type);
+          if (tableName != null && ("ALL".equals(accessType) || "index".equals(accessType))) {
+            failures.add(name + " (varredura " + accessType + " na tabela " + tableName + ")");
+          }
+
+          if (expectedIndex != null) {
+            if (firstRow && !expectedIndex.equals(plan.getString(key))) {
+              failures.add(
+                  name + " (usa " + plan.getString(key) + " em vez de " + expectedIndex + ")");
+            }
+            var rowExtra = plan.getString(extra);
+            if (rowExtra != null && rowExtra.contains("filesort")) {
+              failures.add(name + " (ordena com filesort na tabela " + tableName + ")");
+            }
+          }
+          firstRow = false;
+        }
+      }
+    }
+
+    return failures;
+  }
+
+  /** Verificação avulsa: sai com código 1 se algum plano falhar. */
+  public static void main(String[] args) {
+    try {
+      verify();
+    } catch (IllegalStateException e) {
+      logger.log(Level.SEVERE, e.getMessage());
+      System.exit(1);
+    }
+  }
+}
@@ -0,0 +1,137 @@
+package org.bancomaldaver.utils;
+
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+
+/**
+ * Registro dos comandos SQL da aplicação. Cada comando é validado uma única vez, no registro, e
+ * depois referenciado pelo handle {@link SqlStatement}. Strings montadas em tempo de execução só
+ * entram pelo caminho lento {@link #adHoc(String)}, que valida a cada chamada.
+ */
+public final class QueryRegistry {
+  private static final Logger logger = Logger.getLogger(QueryRegistry.class.getName());
+  private static final Map<String, SqlStatement> statements = new LinkedHashMap<>();
+  private static boolean initialized;
+
+  private static final String[] DISALLOWED = {
+    ";",
+    "'",
+    "--",
+    "/*",
+    "*/",
+    "xp_", // Esse é específico pra SQL Server, mas sei lá, deixa aí.
+    "exec",
+    "drop",
+    "truncate",
+    "alter"
+  };
+
+  private QueryRegistry() {
+    throw new UnsupportedOperationException("Essa classe não pode ser instanciada diretamente.");
+  }
+
+  /**
+   * Carrega e valida todos os comandos de {@link SQLQueries}. Deve ser chamado na inicialização
+   * para que um comando inválido derrube a aplicação logo de cara, e não no primeiro clique.
+   *
+   * @return A quantidade de comandos registrados.
+   */
+  public static synchronized int initialize() {
+    if (initialized) {
+      return size();
+    }
+
+    try {
+      Class.forName(SQLQueries.class.getName(), true, QueryRegistry.class.getClassLoader());
+    } catch (ClassNotFoundException e) {
+      throw new IllegalStateException("Não foi possível carregar as queries.", e);
+    }
+
+    initialized = true;
+    var count = size();
+    logger.log(Level.INFO, "{0} queries registradas e validadas.", count);
+    return count;
+  }
+
+  /**
+   * Registra e valida um comando.
+   *
+   * @throws IllegalStateException Se o comando for inseguro ou o nome já estiver em uso.
+   */
+  public static SqlStatement register(String name, String sql) {
+    return register(name, sql, false, false);
+  }
+
+  /**
+   * Registra uma consulta de relatório, que roda no pool de relatórios em transação somente
+   * leitura.
+   *
+   * @throws IllegalStateException Se o comando for inseguro, não for uma consulta ou o nome já
+   *     estiver em uso.
+   */
+  public static SqlStatement registerReport(String name, String sql) {
+    return register(name, sql, true, false);
+  }
+
+  /**
+   * Registra uma consulta que sempre lê do primário, nunca de uma réplica: estado do próprio
+   * servidor, como contadores, e não dados replicados.
+   *
+   * @throws IllegalStateException Se o comando for inseguro ou o nome já estiver em uso.
+   */
+  public static SqlStatement registerPrimary(String name, String sql) {
+    return register(name, sql, false, true);
+  }
+
+  private static synchronized SqlStatement register(
+      String name, String sql, boolean reporting, boolean primaryOnly) {
+    if (!isQuerySafe(sql)) {
+      throw new IllegalStateException("Query insegura no registro: " + name);
+    }
+
+    var statement = new SqlStatement(name, sql, reporting, primaryOnly);
+    if (reporting && !statement.isReadOnly()) {
+      throw new IllegalStateException("Query de relatório precisa ser uma consulta: " + name);
+    }
+    if (statements.putIfAbsent(name, statement) != null) {
+      throw new IllegalStateException("Query registrada em duplicidade: " + name);
+    }
+
+    return statement;
+  }
+
+  /** Caminho lento para SQL montado em tempo de execução: valida a string a cada chamada. */
+  public static SqlStatement adHoc(String sql) {
+    if (!isQuerySafe(sql)) {
+      throw new IllegalArgumentException("Tentativa de Injeção SQL detectada.");
+    }
+
+    logger.fine("Executando query fora do registro.");
+    return new SqlStatement("AD_HOC", sql, false, false);
+  }
+
+  public static synchronized List<SqlStatement> all() {
+    return List.copyOf(statements.values());
+  }
+
+  public static synchronized int size() {
+    return statements.size();
+  }
+
+  private static boolean isQuerySafe(String query) {
+    var normalized = query.toLowerCase(Locale.ROOT);
+
+    for (String disallowedPattern : DISALLOWED) {
+      if (normalized.contains(disallowedPattern)) {
+        logger.warning("Pattern proibido na query: " + disallowedPattern);
+        return false;
+      }
+    }
+
+    return true;
+  }
+}
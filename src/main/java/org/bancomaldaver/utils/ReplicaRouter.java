@@ -0,0 +1,85 @@
+package org.bancomaldaver.utils;
+
+import com.zaxxer.hikari.HikariDataSource;
+import java.sql.Connection;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+
+/**
+ * Distribui as consultas somente leitura entre as réplicas, em rodízio. Depois de qualquer escrita
+ * as leituras voltam para o primário durante a janela de aderência, para que quem acabou de
+ * depositar veja o próprio saldo mesmo com a réplica atrasada.
+ *
+ * <p>A aderência é só uma janela de tempo, e do processo inteiro: não acompanha a posição da
+ * replicação. Se a réplica atrasar mais que {@code db.replica.stickinessMs}, uma leitura logo
+ * depois da janela ainda pode vir velha. Uma escrita de qualquer caixa segura as leituras de todos
+ * no primário, e a escrita feita por outra instância da aplicação não segura as leituras desta.
+ */
+final class ReplicaRouter {
+  private static final Logger logger = Logger.getLogger(ReplicaRouter.class.getName());
+  // réplica que falhou fica fora do rodízio por um tempo, em vez de custar um timeout a cada
+  // leitura
+  private static final long FAILURE_COOLDOWN_NANOS = TimeUnit.SECONDS.toNanos(30);
+
+  private final List<HikariDataSource> replicas;
+  private final long stickinessNanos;
+  private final AtomicInteger next = new AtomicInteger();
+  private final AtomicLongArray unavailableUntil;
+  private volatile long stickyUntil = System.nanoTime();
+
+  ReplicaRouter(List<HikariDataSource> replicas, long stickinessMillis) {
+    this.replicas = List.copyOf(replicas);
+    this.stickinessNanos = TimeUnit.MILLISECONDS.toNanos(stickinessMillis);
+    this.unavailableUntil = new AtomicLongArray(replicas.size());
+  }
+
+  boolean isEnabled() {
+    return !replicas.isEmpty();
+  }
+
+  /** Registra uma escrita: as leituras seguintes ficam no primário até a janela expirar. */
+  void markWrite() {
+    if (isEnabled()) {
+      stickyUntil = System.nanoTime() + stickinessNanos;
+    }
+  }
+
+  /**
+   * Conexão de uma réplica para uma consulta somente leitura.
+   *
+   * @return A conexão, ou null se a leitura deve ir para o primário (sem réplicas, dentro da janela
+   *     de aderência ou com todas as réplicas indisponíveis).
+   */
+  Connection getConnection() {
+    if (!isEnabled() || System.nanoTime() - stickyUntil < 0) {
+      return null;
+    }
+
+    var start = Math.floorMod(next.getAndIncrement(), replicas.size());
+    for (int i = 0; i < replicas.size(); i++) {
+      var index = (start + i) % replicas.size();
+      var now = System.nanoTime();
+      if (now - unavailableUntil.get(index) < 0) {
+        continue;
+      }
+
+      try {
+        return replicas.get(index).getConnection();
+      } catch (Exception e) {
+        unavailableUntil.set(index, now + FAILURE_COOLDOWN_NANOS);
+        logger.log(
+            Level.WARNING,
+            "Réplica "
+                + replicas.get(index).getPoolName()
+                + " indisponível, lendo do primário: "
+                + e.getMessage());
+      }
+    }
+
+    return null;
+  }
+}
@@ -0,0 +1,7 @@
+package org.bancomaldaver.utils;
+
+/** Recebe as linhas de uma consulta em streaming, uma de cada vez. */
+@FunctionalInterface
+public interface RowConsumer<T> {
+  void accept(T row) throws Exception;
+}
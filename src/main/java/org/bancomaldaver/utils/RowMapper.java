@@ -0,0 +1,22 @@
+package org.bancomaldaver.utils;
+
+import java.sql.ResultSet;
+import java.sql.SQLException;
+
+/**
+ * Converte a linha atual de um {@link ResultSet} em um objeto tipado, lendo os valores direto pelo
+ * índice da coluna.
+ */
+@FunctionalInterface
+public interface RowMapper<T> {
+  T mapRow(ResultSet resultSet) throws SQLException;
+
+  /**
+   * Cria o mapper de um {@link ResultSet} específico. É chamada uma única vez por consulta, então é
+   * aqui que os índices das colunas devem ser resolvidos (via {@link ResultSet#findColumn}).
+   */
+  @FunctionalInterface
+  interface Factory<T> {
+    RowMapper<T> bind(ResultSet resultSet) throws SQLException;
+  }
+}
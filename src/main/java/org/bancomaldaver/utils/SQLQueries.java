@@ -7,20 +7,244 @@ public final class SQLQueries {
   }
 
   // Queries de usuário
-  public static final String INSERT_USER =
-      "INSERT INTO user (name, cpf, birth_date, phone, password, user_type) VALUES (?, ?, ?, ?, ?, ?)";
-  public static final String CHECK_CPF_EXISTS = "SELECT COUNT(*) FROM user WHERE cpf = ?";
-  public static final String SELECT_USER_ID_BY_CPF = "SELECT id_user FROM user WHERE cpf = ?";
+  public static final SqlStatement INSERT_USER =
+      QueryRegistry.register(
+          "INSERT_USER",
+          "INSERT INTO user (name, cpf, birth_date, phone, password, user_type) VALUES (?, ?, ?, ?, ?, ?)");
+  public static final SqlStatement CHECK_CPF_EXISTS =
+      QueryRegistry.register("CHECK_CPF_EXISTS", "SELECT COUNT(*) FROM user WHERE cpf = ?");
+  // varre todos os CPFs para montar o filtro na inicialização
+  public static final SqlStatement SELECT_ALL_CPFS =
+      QueryRegistry.registerReport("SELECT_ALL_CPFS", "SELECT cpf FROM user");
+  public static final SqlStatement SELECT_USER_ID_BY_CPF =
+      QueryRegistry.register("SELECT_USER_ID_BY_CPF", "SELECT id_user FROM user WHERE cpf = ?");
+  public static final SqlStatement UPDATE_USER_PASSWORD =
+      QueryRegistry.register(
+          "UPDATE_USER_PASSWORD", "UPDATE user SET password = ? WHERE id_user = ?");
 
   // Queries de funcionário
-  public static final String INSERT_EMPLOYEE =
-      "INSERT INTO employee (employee_code, role, id_user) VALUES (?, ?, ?)";
+  public static final SqlStatement INSERT_EMPLOYEE =
+      QueryRegistry.register(
+          "INSERT_EMPLOYEE",
+          "INSERT INTO employee (employee_code, role, id_user) VALUES (?, ?, ?)");
+  public static final SqlStatement SELECT_EMPLOYEE_NAME_BY_CODE =
+      QueryRegistry.register(
+          "SELECT_EMPLOYEE_NAME_BY_CODE",
+          "SELECT name FROM user u "
+              + "INNER JOIN employee e ON u.id_user = e.id_user "
+              + "WHERE e.employee_code = ?");
+  // as senhas são conferidas na aplicação; estas queries só trazem o hash gravado
+  public static final SqlStatement SELECT_EMPLOYEE_CREDENTIAL =
+      QueryRegistry.register(
+          "SELECT_EMPLOYEE_CREDENTIAL",
+          "SELECT u.id_user, u.password, 0 AS id_account FROM user u "
+              + "INNER JOIN employee e ON u.id_user = e.id_user "
+              + "WHERE e.employee_code = ?");
+  public static final SqlStatement SELECT_EMPLOYEE_DETAILS_BY_CODE =
+      QueryRegistry.register(
+          "SELECT_EMPLOYEE_DETAILS_BY_CODE",
+          "SELECT e.employee_code, e.role, u.name, u.cpf, u.birth_date, u.phone, "
+              + "a.zip_code, a.street, a.house_number, a.neighborhood, a.city, a.state "
+              + "FROM employee e "
+              + "INNER JOIN user u ON e.id_user = u.id_user "
+              + "LEFT JOIN address a ON u.id_user = a.id_user "
+              + "WHERE e.employee_code = ?");
 
   // Queries de cliente
-  public static final String SELECT_CUSTOMER_BY_USER_ID =
-      "SELECT id_customer FROM customer WHERE id_user = ?";
+  public static final SqlStatement INSERT_CUSTOMER =
+      QueryRegistry.register("INSERT_CUSTOMER", "INSERT INTO customer (id_user) VALUES (?)");
+  public static final SqlStatement SELECT_CUSTOMER_BY_USER_ID =
+      QueryRegistry.register(
+          "SELECT_CUSTOMER_BY_USER_ID", "SELECT id_customer FROM customer WHERE id_user = ?");
+  public static final SqlStatement SELECT_CUSTOMER_DETAILS_BY_CPF =
+      QueryRegistry.register(
+          "SELECT_CUSTOMER_DETAILS_BY_CPF",
+          "SELECT u.name, u.cpf, u.birth_date, u.phone, "
+              + "a.zip_code, a.street, a.house_number, a.neighborhood, a.city, a.state "
+              + "FROM customer c "
+              + "INNER JOIN user u ON c.id_user = u.id_user "
+              + "LEFT JOIN address a ON u.id_user = a.id_user "
+              + "WHERE u.cpf = ?");
+  // login do cliente: senha gravada e o contexto completo da conta de uma vez, para a tela
+  // principal abrir sem outras consultas
+  public static final SqlStatement SELECT_CUSTOMER_LOGIN =
+      QueryRegistry.register(
+          "SELECT_CUSTOMER_LOGIN",
+          "SELECT u.id_user, u.password, u.name, u.cpf, "
+              + "       a.id_account, a.account_number, a.account_type, a.branch, a.balance, "
+              + "       c.credit_limit, c.due_date, s.interest_rate "
+              + "FROM user u "
+              + "INNER JOIN customer cust ON u.id_user = cust.id_user "
+              + "INNER JOIN account a ON cust.id_customer = a.id_customer "
+              + "LEFT JOIN checking_account c ON a.id_account = c.id_account "
+              + "LEFT JOIN savings_account s ON a.id_account = s.id_account "
+              + "WHERE u.cpf = ? AND a.branch = ?");
+  public static final SqlStatement SELECT_ACCOUNT_CREDENTIAL =
+      QueryRegistry.register(
+          "SELECT_ACCOUNT_CREDENTIAL",
+          "SELECT u.id_user, u.password, a.id_account FROM user u "
+              + "INNER JOIN customer c ON u.id_user = c.id_user "
+              + "INNER JOIN account a ON c.id_customer = a.id_customer "
+              + "WHERE a.id_account = ?");
 
   // Queries de endereço
-  public static final String INSERT_ADDRESS =
-      "INSERT INTO address (id_user, zip_code, street, house_number, neighborhood, city, state) VALUES (?, ?, ?, ?, ?, ?, ?)";
+  public static final SqlStatement INSERT_ADDRESS =
+      QueryRegistry.register(
+          "INSERT_ADDRESS",
+          "INSERT INTO address (id_user, zip_code, street, house_number, neighborhood, city, state) VALUES (?, ?, ?, ?, ?, ?, ?)");
+
+  // Queries de conta
+  public static final SqlStatement INSERT_ACCOUNT =
+      QueryRegistry.register(
+          "INSERT_ACCOUNT",
+          "INSERT INTO account (account_number, id_customer, branch, account_type, balance) "
+              + "VALUES (?, ?, ?, ?, 0.0)");
+  public static final SqlStatement INSERT_CHECKING_ACCOUNT =
+      QueryRegistry.register(
+          "INSERT_CHECKING_ACCOUNT",
+          "INSERT INTO checking_account (id_account, credit_limit, due_date) VALUES (?, ?, ?)");
+  public static final SqlStatement INSERT_SAVINGS_ACCOUNT =
+      QueryRegistry.register(
+          "INSERT_SAVINGS_ACCOUNT",
+          "INSERT INTO savings_account (id_account, interest_rate) VALUES (?, ?)");
+  // reserva um bloco de números de conta; o novo valor fica em LAST_INSERT_ID() da sessão
+  public static final SqlStatement RESERVE_ACCOUNT_NUMBER_BLOCK =
+      QueryRegistry.register(
+          "RESERVE_ACCOUNT_NUMBER_BLOCK",
+          "UPDATE account_number_sequence SET next_value = LAST_INSERT_ID(next_value + ?) "
+              + "WHERE id = 1");
+  public static final SqlStatement SELECT_LAST_INSERT_ID =
+      QueryRegistry.register("SELECT_LAST_INSERT_ID", "SELECT LAST_INSERT_ID()");
+  // dados cadastrais da conta, sem o saldo; vão para o cache de metadados
+  private static final String SELECT_ACCOUNT_METADATA =
+      "SELECT a.id_account, a.account_number, a.account_type, a.branch, u.name, u.cpf, "
+          + "       c.credit_limit, c.due_date, s.interest_rate "
+          + "FROM account a "
+          + "LEFT JOIN checking_account c ON a.id_account = c.id_account "
+          + "LEFT JOIN savings_account s ON a.id_account = s.id_account "
+          + "INNER JOIN customer cust ON a.id_customer = cust.id_customer "
+          + "INNER JOIN user u ON cust.id_user = u.id_user ";
+  public static final SqlStatement SELECT_ACCOUNT_METADATA_BY_ID =
+      QueryRegistry.register(
+          "SELECT_ACCOUNT_METADATA_BY_ID", SELECT_ACCOUNT_METADATA + "WHERE a.id_account = ?");
+  public static final SqlStatement SELECT_ACCOUNT_METADATA_BY_NUMBER =
+      QueryRegistry.register(
+          "SELECT_ACCOUNT_METADATA_BY_NUMBER",
+          SELECT_ACCOUNT_METADATA + "WHERE a.account_number = ?");
+  public static final SqlStatement SELECT_BALANCE =
+      QueryRegistry.register("SELECT_BALANCE", "SELECT balance FROM account WHERE id_account = ?");
+  public static final SqlStatement UPDATE_BALANCE =
+      QueryRegistry.register(
+          "UPDATE_BALANCE", "UPDATE account SET balance = balance + ? WHERE id_account = ?");
+  // débito condicional: confere o saldo e debita no mesmo comando, sem janela entre a leitura e a
+  // escrita
+  public static final SqlStatement DEBIT_BALANCE_IF_SUFFICIENT =
+      QueryRegistry.register(
+          "DEBIT_BALANCE_IF_SUFFICIENT",
+          "UPDATE account SET balance = balance - ? WHERE id_account = ? AND balance >= ?");
+  public static final SqlStatement SELECT_ACCOUNT_ID_BY_NUMBER =
+      QueryRegistry.register(
+          "SELECT_ACCOUNT_ID_BY_NUMBER", "SELECT id_account FROM account WHERE account_number = ?");
+  // trava as duas contas da transferência sempre em ordem crescente de id, para que transferências
+  // cruzadas (A para B e B para A) nunca esperem uma pela outra em ordem inversa
+  public static final SqlStatement LOCK_ACCOUNTS_FOR_TRANSFER =
+      QueryRegistry.register(
+          "LOCK_ACCOUNTS_FOR_TRANSFER",
+          "SELECT id_account FROM account WHERE id_account IN (?, ?) "
+              + "ORDER BY id_account FOR UPDATE");
+  // encerramento: todas as contas do CPF numa consulta, com saldo e última movimentação como versão
+  public static final SqlStatement SELECT_CLOSURE_ACCOUNTS_BY_CPF =
+      QueryRegistry.register(
+          "SELECT_CLOSURE_ACCOUNTS_BY_CPF",
+          "SELECT a.id_account, a.account_number, a.account_type, a.branch, a.balance, "
+              + "       u.name, u.cpf, c.credit_limit, c.due_date, s.interest_rate, "
+              + "       (SELECT COALESCE(MAX(t.id_transaction), 0) FROM transaction t "
+              + "        WHERE t.id_account = a.id_account) AS last_transaction "
+              + "FROM user u "
+              + "INNER JOIN customer cust ON u.id_user = cust.id_user "
+              + "INNER JOIN account a ON cust.id_customer = a.id_customer "
+              + "LEFT JOIN checking_account c ON a.id_account = c.id_account "
+              + "LEFT JOIN savings_account s ON a.id_account = s.id_account "
+              + "WHERE u.cpf = ? "
+              + "ORDER BY a.account_number");
+  // só apaga se saldo e movimentações ainda forem os da consulta; zero linhas = a conta mudou
+  public static final SqlStatement DELETE_ACCOUNT_IF_UNCHANGED =
+      QueryRegistry.register(
+          "DELETE_ACCOUNT_IF_UNCHANGED",
+          "DELETE FROM account WHERE id_account = ? AND balance = ? "
+              + "AND NOT EXISTS (SELECT 1 FROM transaction t "
+              + "WHERE t.id_account = ? AND t.id_transaction > ?)");
+
+  // Queries de transação
+  public static final SqlStatement INSERT_TRANSACTION =
+      QueryRegistry.register(
+          "INSERT_TRANSACTION",
+          "INSERT INTO transaction (transaction_type, amount, id_account) VALUES (?, ?, ?)");
+  // paginação por chave: continua depois do cursor (data, id) em vez de pular linhas com OFFSET,
+  // então o custo da página não cresce com a idade da conta. A comparação (data, id) > (?, ?) vai
+  // escrita por extenso, com o ">= data" na frente, para o intervalo do índice começar no cursor
+  public static final SqlStatement SELECT_STATEMENT_PAGE =
+      QueryRegistry.register(
+          "SELECT_STATEMENT_PAGE",
+          "SELECT id_transaction, transaction_type, amount, transaction_date "
+              + "FROM transaction "
+              + "WHERE id_account = ? AND transaction_date >= ? "
+              + "AND (transaction_date > ? OR (transaction_date = ? AND id_transaction > ?)) "
+              + "AND transaction_date < ? "
+              + "ORDER BY transaction_date, id_transaction LIMIT ?");
+  // a mesma página no sentido contrário: as linhas antes do cursor, da mais nova para a mais
+  // antiga, para recarregar o começo do extrato que já saiu da tela
+  public static final SqlStatement SELECT_STATEMENT_PAGE_BEFORE =
+      QueryRegistry.register(
+          "SELECT_STATEMENT_PAGE_BEFORE",
+          "SELECT id_transaction, transaction_type, amount, transaction_date "
+              + "FROM transaction "
+              + "WHERE id_account = ? AND transaction_date <= ? "
+              + "AND (transaction_date < ? OR (transaction_date = ? AND id_transaction < ?)) "
+              + "AND transaction_date >= ? "
+              + "ORDER BY transaction_date DESC, id_transaction DESC LIMIT ?");
+  public static final SqlStatement COUNT_TRANSACTIONS =
+      QueryRegistry.registerReport("COUNT_TRANSACTIONS", "SELECT COUNT(*) FROM transaction");
+  public static final SqlStatement SELECT_FINANCIAL_TRANSACTIONS =
+      QueryRegistry.registerReport(
+          "SELECT_FINANCIAL_TRANSACTIONS",
+          "SELECT t.id_transaction, a.account_number, a.account_type, t.transaction_type, "
+              + "       t.amount, t.transaction_date, u.name, u.cpf "
+              + "FROM transaction t "
+              + "INNER JOIN account a ON t.id_account = a.id_account "
+              + "INNER JOIN customer c ON a.id_customer = c.id_customer "
+              + "INNER JOIN user u ON c.id_user = u.id_user "
+              + "ORDER BY t.transaction_date ASC");
+  // razão paginado por chave para a navegação do funcionário; roda no pool de relatórios. O
+  // STRAIGHT_JOIN faz a leitura começar pelo índice de data das transações e parar no LIMIT; sem
+  // ele o otimizador começa pela tabela menor (clientes) e ordena o razão inteiro a cada página
+  public static final SqlStatement SELECT_LEDGER_PAGE =
+      QueryRegistry.registerReport(
+          "SELECT_LEDGER_PAGE",
+          "SELECT STRAIGHT_JOIN t.id_transaction, a.account_number, a.account_type, "
+              + "       t.transaction_type, t.amount, t.transaction_date, u.name, u.cpf "
+              + "FROM transaction t "
+              + "INNER JOIN account a ON t.id_account = a.id_account "
+              + "INNER JOIN customer c ON a.id_customer = c.id_customer "
+              + "INNER JOIN user u ON c.id_user = u.id_user "
+              + "WHERE t.transaction_date >= ? "
+              + "AND (t.transaction_date > ? OR (t.transaction_date = ? AND t.id_transaction > ?)) "
+              + "ORDER BY t.transaction_date, t.id_transaction LIMIT ?");
+  public static final SqlStatement SELECT_LEDGER_PAGE_BEFORE =
+      QueryRegistry.registerReport(
+          "SELECT_LEDGER_PAGE_BEFORE",
+          "SELECT STRAIGHT_JOIN t.id_transaction, a.account_number, a.account_type, "
+              + "       t.transaction_type, t.amount, t.transaction_date, u.name, u.cpf "
+              + "FROM transaction t "
+              + "INNER JOIN account a ON t.id_account = a.id_account "
+              + "INNER JOIN customer c ON a.id_customer = c.id_customer "
+              + "INNER JOIN user u ON c.id_user = u.id_user "
+              + "WHERE t.transaction_date <= ? "
+              + "AND (t.transaction_date < ? OR (t.transaction_date = ? AND t.id_transaction < ?)) "
+              + "ORDER BY t.transaction_date DESC, t.id_transaction DESC LIMIT ?");
+
+  // Queries de diagnóstico
+  public static final SqlStatement SELECT_STATEMENT_STATUS =
+      QueryRegistry.registerPrimary(
+          "SELECT_STATEMENT_STATUS", "SHOW GLOBAL STATUS WHERE Variable_name IN (?, ?, ?)");
 }
@@ -0,0 +1,99 @@
+package org.bancomaldaver.utils;
+
+import java.util.LinkedHashMap;
+
+/**
+ * Cache read-through com LRU segmentado (SLRU), resistente a varreduras. Uma chave nova entra no
+ * segmento de experiência; só passa para o protegido quando é lida de novo. Uma sequência de
+ * consultas únicas (um funcionário conferindo uma lista de CPFs, por exemplo) circula só pelo
+ * segmento de experiência e não tira do cache as chaves que são consultadas o tempo todo.
+ *
+ * <p>Quando o protegido enche, a entrada usada há mais tempo volta para o de experiência em vez de
+ * sair, ganhando mais uma chance. As mesmas regras de carga do {@link BoundedCache} valem aqui: a
+ * carga roda fora do lock e não é guardada se houve invalidação enquanto ela rodava.
+ */
+public final class SegmentedLruCache<K, V> {
+  private final String name;
+  private final int probationCapacity;
+  private final int protectedCapacity;
+  // ordem de acesso: o primeiro elemento é o usado há mais tempo
+  private final LinkedHashMap<K, V> probation = new LinkedHashMap<>(16, 0.75f, true);
+  private final LinkedHashMap<K, V> protectedSegment = new LinkedHashMap<>(16, 0.75f, true);
+  private long hits;
+  private long misses;
+  private long evictions;
+  private long generation;
+
+  /**
+   * @param maxEntries Capacidade total; 80% fica para o segmento protegido.
+   */
+  public SegmentedLruCache(String name, int maxEntries) {
+    this.name = name;
+    this.protectedCapacity = Math.max(1, maxEntries * 4 / 5);
+    this.probationCapacity = Math.max(1, maxEntries - protectedCapacity);
+  }
+
+  public V get(K key, BoundedCache.Loader<? super K, ? extends V> loader) throws Exception {
+    long loadGeneration;
+    synchronized (this) {
+      var value = protectedSegment.get(key);
+      if (value != null) {
+        hits++;
+        return value;
+      }
+
+      value = probation.remove(key);
+      if (value != null) {
+        hits++;
+        promote(key, value);
+        return value;
+      }
+
+      misses++;
+      loadGeneration = generation;
+    }
+
+    V value = loader.load(key);
+    synchronized (this) {
+      if (loadGeneration == generation && !protectedSegment.containsKey(key)) {
+        addToProbation(key, value);
+      }
+    }
+    return value;
+  }
+
+  public synchronized void invalidate(K key) {
+    generation++;
+    probation.remove(key);
+    protectedSegment.remove(key);
+  }
+
+  public synchronized void clear() {
+    generation++;
+    probation.clear();
+    protectedSegment.clear();
+  }
+
+  public synchronized CacheStats stats() {
+    return new CacheStats(
+        name, hits, misses, evictions, probation.size() + protectedSegment.size());
+  }
+
+  private void promote(K key, V value) {
+    protectedSegment.put(key, value);
+    if (protectedSegment.size() > protectedCapacity) {
+      var demoted = protectedSegment.entrySet().iterator().next();
+      protectedSegment.remove(demoted.getKey());
+      addToProbation(demoted.getKey(), demoted.getValue());
+    }
+  }
+
+  private void addToProbation(K key, V value) {
+    probation.put(key, value);
+    if (probation.size() > probationCapacity) {
+      var eldest = probation.keySet().iterator().next();
+      probation.remove(eldest);
+      evictions++;
+    }
+  }
+}
@@ -0,0 +1,65 @@
+package org.bancomaldaver.utils;
+
+import java.util.Locale;
+
+/**
+ * Handle de um comando SQL já validado. Só pode ser criado pelo {@link QueryRegistry}, então o
+ * {@link DatabaseWrapper} não precisa validar o texto de novo a cada execução.
+ */
+public final class SqlStatement {
+  private final String name;
+  private final String sql;
+  private final boolean readOnly;
+  private final boolean reporting;
+  private final boolean primaryOnly;
+
+  SqlStatement(String name, String sql, boolean reporting, boolean primaryOnly) {
+    this.name = name;
+    this.sql = sql;
+    // SELECT ... FOR UPDATE trava linhas para escrita e precisa ficar no primário
+    var command = sql.stripLeading();
+    this.readOnly =
+        (command.regionMatches(true, 0, "SELECT", 0, 6)
+                && !sql.toUpperCase(Locale.ROOT).contains("FOR UPDATE"))
+            || command.regionMatches(true, 0, "SHOW", 0, 4);
+    this.reporting = reporting;
+    this.primaryOnly = primaryOnly;
+  }
+
+  public String getName() {
+    return name;
+  }
+
+  public String getSql() {
+    return sql;
+  }
+
+  /**
+   * Indica se o comando é uma consulta (SELECT ou SHOW) que não trava linhas, sem efeito de
+   * escrita.
+   */
+  public boolean isReadOnly() {
+    return readOnly;
+  }
+
+  /**
+   * Indica se o comando é de relatório: fora de uma unidade de trabalho ele roda no pool de
+   * relatórios, e não no pool das operações de caixa.
+   */
+  public boolean isReporting() {
+    return reporting;
+  }
+
+  /**
+   * Indica se a consulta precisa ler do primário mesmo fora de uma unidade de trabalho, porque o
+   * resultado é do próprio servidor e não dos dados replicados.
+   */
+  public boolean isPrimaryOnly() {
+    return primaryOnly;
+  }
+
+  @Override
+  public String toString() {
+    return name;
+  }
+}
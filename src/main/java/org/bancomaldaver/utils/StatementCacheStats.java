@@ -0,0 +1,101 @@
+package org.bancomaldaver.utils;
+
+import java.util.logging.Level;
+import java.util.logging.Logger;
+
+/**
+ * Estatísticas do cache de prepared statements, pelos contadores do MySQL. Com o cache funcionando,
+ * quase toda execução reaproveita um statement já preparado, então a taxa de acerto fica perto de
+ * 100%.
+ *
+ * <p>Os contadores são do servidor inteiro e contam desde que ele subiu, então o que vale é a
+ * diferença entre duas leituras: {@link #markStart()} guarda a leitura da inicialização e {@link
+ * #sinceStart()} devolve o que aconteceu depois dela. A diferença ainda inclui os outros clientes
+ * do mesmo servidor (outras instâncias da aplicação, ferramentas); só é exata com o servidor
+ * dedicado. A consulta é sempre feita no primário: numa réplica os contadores seriam os dela.
+ */
+public record StatementCacheStats(long prepares, long reprepares, long executions) {
+  private static final Logger logger = Logger.getLogger(StatementCacheStats.class.getName());
+
+  private static final RowMapper.Factory<String[]> STATUS_MAPPER =
+      resultSet -> {
+        var name = resultSet.findColumn("Variable_name");
+        var value = resultSet.findColumn("Value");
+
+        return row -> new String[] {row.getString(name), row.getString(value)};
+      };
+
+  private static volatile StatementCacheStats baseline;
+
+  /** Guarda a leitura de referência. Chamado na inicialização, antes das operações de caixa. */
+  public static void markStart() {
+    try {
+      baseline = snapshot();
+    } catch (Exception e) {
+      logger.log(Level.WARNING, "Não foi possível ler as estatísticas do cache: " + e.getMessage());
+    }
+  }
+
+  /** Contadores acumulados desde {@link #markStart()}, ou desde que o servidor subiu sem ele. */
+  public static StatementCacheStats sinceStart() {
+    var current = snapshot();
+    var start = baseline;
+    return start == null ? current : current.minus(start);
+  }
+
+  /** Leitura atual dos contadores do servidor, acumulados desde que ele subiu. */
+  public static StatementCacheStats snapshot() {
+    long prepares = 0;
+    long reprepares = 0;
+    long executions = 0;
+
+    var rows =
+        DatabaseWrapper.executeQueryForList(
+            SQLQueries.SELECT_STATEMENT_STATUS,
+            STATUS_MAPPER,
+            "Com_stmt_prepare",
+            "Com_stmt_reprepare",
+            "Com_stmt_execute");
+
+    for (var row : rows) {
+      var value = Long.parseLong(row[1]);
+      switch (row[0]) {
+        case "Com_stmt_prepare" -> prepares = value;
+        case "Com_stmt_reprepare" -> reprepares = value;
+        case "Com_stmt_execute" -> executions = value;
+        default -> {}
+      }
+    }
+
+    return new StatementCacheStats(prepares, reprepares, executions);
+  }
+
+  /** Escreve no log a taxa de acerto do cache desde que a aplicação subiu. */
+  public static void log() {
+    try {
+      var stats = sinceStart();
+      logger.log(
+          Level.INFO,
+          String.format(
+              "Cache de statements: %d execuções, %d prepares, %d re-prepares, acerto %.1f%%",
+              stats.executions(), stats.prepares(), stats.reprepares(), stats.hitRate() * 100));
+    } catch (Exception e) {
+      logger.log(Level.WARNING, "Não foi possível ler as estatísticas do cache: " + e.getMessage());
+    }
+  }
+
+  public StatementCacheStats minus(StatementCacheStats earlier) {
+    return new StatementCacheStats(
+        prepares - earlier.prepares,
+        reprepares - earlier.reprepares,
+        executions - earlier.executions);
+  }
+
+  /** Fração das execuções que não precisaram de um novo prepare no servidor. */
+  public double hitRate() {
+    if (executions == 0) {
+      return 0;
+    }
+    return Math.max(0, 1 - (double) (prepares + reprepares) / executions);
+  }
+}
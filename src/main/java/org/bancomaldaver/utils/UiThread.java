@@ -0,0 +1,76 @@
+package org.bancomaldaver.utils;
+
+import io.qt.core.QCoreApplication;
+import io.qt.core.QMetaObject;
+import io.qt.core.QObject;
+import io.qt.core.Qt;
+import io.qt.gui.QCursor;
+import io.qt.widgets.QApplication;
+import io.qt.widgets.QWidget;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ExecutionException;
+import java.util.function.Consumer;
+
+public final class UiThread {
+  private UiThread() {
+    throw new UnsupportedOperationException("Essa classe não deve ser instanciada");
+  }
+
+  /**
+   * Agenda a tarefa para rodar na thread do objeto de contexto (a thread da GUI, para widgets).
+   * Pode ser chamado de qualquer thread; se o contexto for destruído antes, a tarefa é descartada.
+   *
+   * @param context O objeto Qt dono da tarefa.
+   * @param task A tarefa a ser executada.
+   */
+  public static void post(QObject context, Runnable task) {
+    QMetaObject.invokeMethod(context, task::run, Qt.ConnectionType.QueuedConnection);
+  }
+
+  /**
+   * Acompanha uma operação assíncrona a partir da thread da GUI. Enquanto ela roda, o widget fica
+   * desabilitado (evitando o clique duplo) e o cursor vira ampulheta; ao terminar, o resultado ou o
+   * erro é entregue na thread da GUI. Se o widget for destruído antes, o retorno é descartado.
+   *
+   * @param busyWidget O widget que dispara a operação, geralmente o botão.
+   * @param future A operação em andamento.
+   * @param onSuccess Recebe o resultado, na thread da GUI.
+   * @param onError Recebe a causa do erro, já sem o {@link CompletionException}, na thread da GUI.
+   */
+  public static <T> void onComplete(
+      QWidget busyWidget,
+      CompletableFuture<T> future,
+      Consumer<? super T> onSuccess,
+      Consumer<Throwable> onError) {
+    busyWidget.setEnabled(false);
+    QApplication.setOverrideCursor(new QCursor(Qt.CursorShape.WaitCursor));
+
+    future.whenComplete(
+        (result, error) ->
+            // o cursor é da aplicação, então volta mesmo que a tela já tenha sido fechada
+            post(
+                QCoreApplication.instance(),
+                () -> {
+                  QApplication.restoreOverrideCursor();
+                  if (busyWidget.isDisposed()) {
+                    return;
+                  }
+
+                  busyWidget.setEnabled(true);
+                  if (error == null) {
+                    onSuccess.accept(result);
+                  } else {
+                    onError.accept(unwrap(error));
+                  }
+                }));
+  }
+
+  private static Throwable unwrap(Throwable error) {
+    while ((error instanceof CompletionException || error instanceof ExecutionException)
+        && error.getCause() != null) {
+      error = error.getCause();
+    }
+    return error;
+  }
+}
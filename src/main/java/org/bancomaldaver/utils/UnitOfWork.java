@@ -0,0 +1,216 @@
+package org.bancomaldaver.utils;
+
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.sql.SQLTransactionRollbackException;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+
+/**
+ * Unidade de trabalho transacional: segura uma única conexão do pool durante toda a operação do
+ * controller e faz um único commit no final. Enquanto a unidade está aberta, todas as chamadas do
+ * {@link DatabaseWrapper} feitas na mesma thread reutilizam essa conexão.
+ */
+public final class UnitOfWork {
+  private static final Logger logger = Logger.getLogger(UnitOfWork.class.getName());
+  private static final ThreadLocal<Connection> currentConnection = new ThreadLocal<>();
+  // se a unidade aberta na thread já executou algum comando de escrita
+  private static final ThreadLocal<Boolean> currentUnitWrote = new ThreadLocal<>();
+  private static final int MAX_ATTEMPTS = 5;
+  private static final long RETRY_BASE_DELAY_MILLIS = 10;
+  private static final int ER_LOCK_WAIT_TIMEOUT = 1205;
+  private static final int ER_LOCK_DEADLOCK = 1213;
+
+  private UnitOfWork() {
+    throw new UnsupportedOperationException("Essa classe não pode ser instanciada diretamente.");
+  }
+
+  @FunctionalInterface
+  public interface Work<T> {
+    T execute() throws Exception;
+  }
+
+  @FunctionalInterface
+  public interface VoidWork {
+    void execute() throws Exception;
+  }
+
+  /**
+   * Executa o trabalho dentro de uma transação. Se já existir uma unidade aberta na thread, o
+   * trabalho participa dela e o commit fica a cargo de quem a abriu.
+   *
+   * @param work O trabalho a ser executado.
+   * @return O resultado do trabalho.
+   */
+  public static <T> T call(Work<T> work) throws Exception {
+    if (currentConnection.get() != null) {
+      return work.execute();
+    }
+
+    try (Connection connection = DatabaseConnection.getConnection()) {
+      connection.setAutoCommit(false);
+      currentConnection.set(connection);
+      currentUnitWrote.set(false);
+
+      try {
+        T result = work.execute();
+        connection.commit();
+        // uma unidade só de leituras não tem o que esperar a réplica copiar
+        if (currentUnitWrote.get()) {
+          DatabaseConnection.markWrite();
+        }
+        return result;
+      } catch (Exception e) {
+        rollback(connection);
+        throw e;
+      } finally {
+        currentConnection.remove();
+        currentUnitWrote.remove();
+      }
+    }
+  }
+
+  /**
+   * Executa o trabalho numa transação somente leitura do pool de relatórios. Todas as consultas
+   * feitas dentro dela enxergam o mesmo snapshot do banco, então uma contagem e a varredura que vem
+   * depois batem entre si mesmo com depósitos acontecendo no meio. Se já existir uma unidade aberta
+   * na thread, o trabalho participa dela.
+   *
+   * @param work O trabalho a ser executado.
+   * @return O resultado do trabalho.
+   */
+  public static <T> T callReadOnlySnapshot(Work<T> work) throws Exception {
+    if (currentConnection.get() != null) {
+      return work.execute();
+    }
+
+    try (Connection connection = DatabaseConnection.getReportingConnection()) {
+      currentConnection.set(connection);
+
+      try {
+        return work.execute();
+      } finally {
+        currentConnection.remove();
+        // nada foi escrito; o rollback só encerra a transação e libera o snapshot
+        rollback(connection);
+      }
+    }
+  }
+
+  /** Indica se há uma unidade aberta na thread atual. */
+  public static boolean isActive() {
+    return currentConnection.get() != null;
+  }
+
+  /**
+   * Igual a {@link #call(Work)}, mas refaz a transação inteira quando o banco a aborta por deadlock
+   * ou por timeout de lock, com uma espera curta e aleatória entre as tentativas. Dentro de uma
+   * unidade já aberta não há como refazer só a parte interna, então o trabalho roda uma vez e o
+   * erro sobe para quem abriu a unidade.
+   *
+   * @param work O trabalho a ser executado; precisa poder ser repetido do zero.
+   * @return O resultado do trabalho.
+   */
+  public static <T> T callWithRetry(Work<T> work) throws Exception {
+    if (currentConnection.get() != null) {
+      return work.execute();
+    }
+
+    for (int attempt = 1; ; attempt++) {
+      try {
+        return call(work);
+      } catch (Exception e) {
+        if (attempt >= MAX_ATTEMPTS || !isLockConflict(e)) {
+          throw e;
+        }
+
+        logger.log(
+            Level.INFO, "Conflito de lock na tentativa {0}, refazendo a transação.", attempt);
+        var backoff = RETRY_BASE_DELAY_MILLIS << (attempt - 1);
+        Thread.sleep(backoff + ThreadLocalRandom.current().nextLong(backoff));
+      }
+    }
+  }
+
+  /** Deadlock (1213) ou timeout de espera por lock (1205) em algum ponto da cadeia de causas. */
+  private static boolean isLockConflict(Throwable error) {
+    for (var cause = error; cause != null; cause = cause.getCause()) {
+      if (cause instanceof SQLTransactionRollbackException) {
+        return true;
+      }
+      if (cause instanceof SQLException sqlException
+          && (sqlException.getErrorCode() == ER_LOCK_DEADLOCK
+              || sqlException.getErrorCode() == ER_LOCK_WAIT_TIMEOUT)) {
+        return true;
+      }
+    }
+    return false;
+  }
+
+  public static void run(VoidWork work) throws Exception {
+    call(
+        () -> {
+          work.execute();
+          return null;
+        });
+  }
+
+  /**
+   * Empresta uma conexão para um único comando: a da unidade aberta na thread, se houver, ou uma
+   * nova do pool, que é devolvida ao fechar o empréstimo. Consultas de relatório avulsas vão para o
+   * pool de relatórios e as demais consultas avulsas podem ir para uma réplica, salvo as
+   * registradas como só do primário; dentro de uma unidade tudo fica no primário.
+   */
+  static Lease acquire(SqlStatement statement) {
+    var bound = currentConnection.get();
+    if (bound != null) {
+      if (!statement.isReadOnly() && currentUnitWrote.get() != null) {
+        currentUnitWrote.set(true);
+      }
+      return new Lease(bound, false, false);
+    }
+    if (statement.isReporting()) {
+      return new Lease(DatabaseConnection.getReportingConnection(), true, false);
+    }
+    if (statement.isReadOnly()) {
+      var connection =
+          statement.isPrimaryOnly()
+              ? DatabaseConnection.getConnection()
+              : DatabaseConnection.getReadConnection();
+      return new Lease(connection, true, false);
+    }
+    return new Lease(DatabaseConnection.getConnection(), true, true);
+  }
+
+  private static void rollback(Connection connection) {
+    try {
+      connection.rollback();
+    } catch (SQLException e) {
+      logger.log(Level.SEVERE, "Erro ao desfazer a transação: " + e.getMessage());
+    }
+  }
+
+  /**
+   * Conexão emprestada para um comando. Uma escrita avulsa só avisa o roteador de réplicas ao
+   * fechar, depois que o comando rodou em autocommit; se o comando falhou o aviso vai do mesmo
+   * jeito, o que só mantém as leituras no primário por mais uma janela.
+   */
+  record Lease(Connection connection, boolean owned, boolean write) implements AutoCloseable {
+    @Override
+    public void close() throws SQLException {
+      if (owned) {
+        try {
+          if (!connection.getAutoCommit()) {
+            rollback(connection);
+          }
+          connection.close();
+        } finally {
+          if (write) {
+            DatabaseConnection.markWrite();
+          }
+        }
+      }
+    }
+  }
+}
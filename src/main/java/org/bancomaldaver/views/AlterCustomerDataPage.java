@@ -2,10 +2,11 @@ package org.bancomaldaver.views;
 
 import io.qt.core.Qt;
 import io.qt.widgets.*;
+import org.bancomaldaver.models.EmployeeSession;
 import org.bancomaldaver.utils.FontHelper;
 
 public final class AlterCustomerDataPage extends QWidget {
-  public AlterCustomerDataPage(QMainWindow mainWindow) {
+  public AlterCustomerDataPage(QMainWindow mainWindow, EmployeeSession session) {
     setWindowTitle("Alterar Dados do Cliente");
 
     var centralWidget = new QWidget();
@@ -24,7 +25,8 @@ public final class AlterCustomerDataPage extends QWidget {
             + "QPushButton:hover {"
             + "background-color: #b3b3b3;"
             + "}");
-    backButton.clicked.connect(() -> mainWindow.setCentralWidget(new EmployeeMainPage(mainWindow)));
+    backButton.clicked.connect(
+        () -> mainWindow.setCentralWidget(new EmployeeMainPage(mainWindow, session)));
     topLayout.addWidget(backButton);
     mainLayout.addLayout(topLayout);
 
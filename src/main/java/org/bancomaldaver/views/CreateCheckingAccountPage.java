@@ -6,9 +6,10 @@ import io.qt.widgets.*;
 import io.qt.widgets.QMainWindow;
 import java.time.LocalDate;
 import org.bancomaldaver.controllers.AccountController;
-import org.bancomaldaver.controllers.UserController;
 import org.bancomaldaver.models.*;
 import org.bancomaldaver.utils.FontHelper;
+import org.bancomaldaver.utils.Money;
+import org.bancomaldaver.utils.UiThread;
 
 public final class CreateCheckingAccountPage extends QWidget {
   private final QLineEdit usernameField;
@@ -148,7 +149,7 @@ public final class CreateCheckingAccountPage extends QWidget {
             + "QPushButton:pressed {"
             + "background-color: #388E3C;"
             + "}");
-    registerButton.clicked.connect(this::onRegisterClicked);
+    registerButton.clicked.connect(() -> onRegisterClicked(registerButton));
     formLayout.addRow(registerButton);
 
     mainLayout.addLayout(formLayout);
@@ -156,7 +157,7 @@ public final class CreateCheckingAccountPage extends QWidget {
     setLayout(mainLayout);
   }
 
-  private void onRegisterClicked() {
+  private void onRegisterClicked(QPushButton registerButton) {
     try {
       var customer = new Customer();
       customer.setName(usernameField.text());
@@ -178,17 +179,21 @@ public final class CreateCheckingAccountPage extends QWidget {
 
       var checkingAccount = new CheckingAccount();
       checkingAccount.setBranch(agencyDropdown.currentData().toString());
-      checkingAccount.setLimit(Double.parseDouble(limitField.text()));
+      checkingAccount.setLimitCents(Money.parse(limitField.text()));
       checkingAccount.setDueDate(LocalDate.parse(dueDateField.date().toString("yyyy-MM-dd")));
 
-      var userController = new UserController();
-      var userId = userController.createUserWithAddress(customer);
-
+      // o hash da senha e as inserções rodam fora da thread da GUI; usuário e conta entram na
+      // mesma transação
       var accountController = new AccountController();
-      accountController.createCheckingAccount(userId, checkingAccount);
-
-      QMessageBox.information(this, "Sucesso", "Conta corrente criada com sucesso!");
+      UiThread.onComplete(
+          registerButton,
+          accountController.createCustomerWithCheckingAccountAsync(customer, checkingAccount),
+          ignored -> QMessageBox.information(this, "Sucesso", "Conta corrente criada com sucesso!"),
+          e ->
+              QMessageBox.critical(
+                  this, "Erro", "Erro ao criar conta corrente: " + e.getMessage()));
     } catch (Exception e) {
+      // dados do formulário inválidos, como um número de casa que não é número
       QMessageBox.critical(this, "Erro", "Erro ao criar conta corrente: " + e.getMessage());
     }
   }
@@ -7,6 +7,7 @@ import org.bancomaldaver.controllers.EmployeeController;
 import org.bancomaldaver.models.Address;
 import org.bancomaldaver.models.Employee;
 import org.bancomaldaver.utils.FontHelper;
+import org.bancomaldaver.utils.UiThread;
 
 public final class CreateEmployeeAccountPage extends QWidget {
   private final QLineEdit nameField;
@@ -133,7 +134,7 @@ public final class CreateEmployeeAccountPage extends QWidget {
             + "QPushButton:pressed {"
             + "background-color: #388E3C;"
             + "}");
-    registerButton.clicked.connect(this::onRegisterClicked);
+    registerButton.clicked.connect(() -> onRegisterClicked(registerButton));
     formLayout.addRow(registerButton);
 
     mainLayout.addLayout(formLayout);
@@ -141,7 +142,7 @@ public final class CreateEmployeeAccountPage extends QWidget {
     setLayout(mainLayout);
   }
 
-  private void onRegisterClicked() {
+  private void onRegisterClicked(QPushButton registerButton) {
     try {
       var employee = new Employee();
       employee.setName(nameField.text());
@@ -161,11 +162,15 @@ public final class CreateEmployeeAccountPage extends QWidget {
       address.setState(stateField.text());
       employee.setAddress(address);
 
+      // o hash da senha e as inserções rodam fora da thread da GUI
       var controller = new EmployeeController();
-      controller.createEmployee(employee);
-
-      QMessageBox.information(this, "Sucesso", "Funcionário criado com sucesso!");
+      UiThread.onComplete(
+          registerButton,
+          controller.createEmployeeAsync(employee),
+          ignored -> QMessageBox.information(this, "Sucesso", "Funcionário criado com sucesso!"),
+          e -> QMessageBox.critical(this, "Erro", "Erro ao criar funcionário: " + e.getMessage()));
     } catch (Exception e) {
+      // dados do formulário inválidos, como um número de casa que não é número
       QMessageBox.critical(this, "Erro", "Erro ao criar funcionário: " + e.getMessage());
     }
   }
@@ -4,12 +4,12 @@ import io.qt.gui.QIntValidator;
 import io.qt.widgets.*;
 import java.time.LocalDate;
 import org.bancomaldaver.controllers.AccountController;
-import org.bancomaldaver.controllers.UserController;
 import org.bancomaldaver.models.Address;
 import org.bancomaldaver.models.BrazilianStates;
 import org.bancomaldaver.models.Customer;
 import org.bancomaldaver.models.SavingsAccount;
 import org.bancomaldaver.utils.FontHelper;
+import org.bancomaldaver.utils.UiThread;
 
 public final class CreateSavingsAccountPage extends QWidget {
   private final QLineEdit usernameField;
@@ -136,7 +136,7 @@ public final class CreateSavingsAccountPage extends QWidget {
             + "QPushButton:pressed {"
             + "background-color: #388E3C;"
             + "}");
-    registerButton.clicked.connect(this::onRegisterClicked);
+    registerButton.clicked.connect(() -> onRegisterClicked(registerButton));
     formLayout.addRow(registerButton);
 
     mainLayout.addLayout(formLayout);
@@ -144,7 +144,7 @@ public final class CreateSavingsAccountPage extends QWidget {
     setLayout(mainLayout);
   }
 
-  private void onRegisterClicked() {
+  private void onRegisterClicked(QPushButton registerButton) {
     try {
       var customer = new Customer();
       customer.setName(usernameField.text());
@@ -168,14 +168,18 @@ public final class CreateSavingsAccountPage extends QWidget {
       savingsAccount.setBranch(agencyDropdown.currentData().toString());
       savingsAccount.setInterestRate(0.5);
 
-      var userController = new UserController();
-      var userId = userController.createUserWithAddress(customer);
-
+      // o hash da senha e as inserções rodam fora da thread da GUI; usuário e conta entram na
+      // mesma transação
       var accountController = new AccountController();
-      accountController.createSavingsAccount(userId, savingsAccount);
-
-      QMessageBox.information(this, "Sucesso", "Conta poupança criada com sucesso!");
+      UiThread.onComplete(
+          registerButton,
+          accountController.createCustomerWithSavingsAccountAsync(customer, savingsAccount),
+          ignored -> QMessageBox.information(this, "Sucesso", "Conta poupança criada com sucesso!"),
+          e ->
+              QMessageBox.critical(
+                  this, "Erro", "Erro ao criar conta poupança: " + e.getMessage()));
     } catch (Exception e) {
+      // dados do formulário inválidos, como um número de casa que não é número
       QMessageBox.critical(this, "Erro", "Erro ao criar conta poupança: " + e.getMessage());
     }
   }
@@ -5,6 +5,7 @@ import io.qt.widgets.*;
 import org.bancomaldaver.controllers.UserController;
 import org.bancomaldaver.utils.FontHelper;
 import org.bancomaldaver.utils.NavigationManager;
+import org.bancomaldaver.utils.UiThread;
 
 public final class CustomerLoginPage extends QWidget {
   private final QLineEdit cpfField;
@@ -82,7 +83,7 @@ public final class CustomerLoginPage extends QWidget {
             + "background-color: #388E3C;"
             + "}");
 
-    loginButton.clicked.connect(() -> onLoginClicked(mainWindow));
+    loginButton.clicked.connect(() -> onLoginClicked(mainWindow, loginButton));
     backButton.clicked.connect(() -> mainWindow.setCentralWidget(new MainMenuPage()));
 
     topLayout.addWidget(backButton);
@@ -101,23 +102,23 @@ public final class CustomerLoginPage extends QWidget {
     setLayout(mainLayout);
   }
 
-  private void onLoginClicked(QMainWindow mainWindow) {
-    try {
-      var cpf = cpfField.text().replaceAll("\\D", "");
-      var password = passwordField.text();
-      var branch = branchDropdown.currentData().toString();
-
-      var controller = new UserController();
-      var accountId = controller.validateCustomerLogin(cpf, password, branch);
-
-      if (accountId > 0) {
-        QMessageBox.information(this, "Sucesso", "Login efetuado com sucesso!");
-        NavigationManager.getInstance().navigateTo(new CustomerMainPage(mainWindow, accountId));
-      } else {
-        QMessageBox.warning(this, "Erro", "CPF, senha ou agência incorretos.");
-      }
-    } catch (Exception e) {
-      QMessageBox.critical(this, "Erro", "Erro durante o login: " + e.getMessage());
-    }
+  private void onLoginClicked(QMainWindow mainWindow, QPushButton loginButton) {
+    var cpf = cpfField.text().replaceAll("\\D", "");
+    var password = passwordField.text();
+    var branch = branchDropdown.currentData().toString();
+
+    var controller = new UserController();
+    UiThread.onComplete(
+        loginButton,
+        controller.loginAsync(cpf, password, branch),
+        session -> {
+          if (session != null) {
+            QMessageBox.information(this, "Sucesso", "Login efetuado com sucesso!");
+            NavigationManager.getInstance().navigateTo(new CustomerMainPage(mainWindow, session));
+          } else {
+            QMessageBox.warning(this, "Erro", "CPF, senha ou agência incorretos.");
+          }
+        },
+        e -> QMessageBox.critical(this, "Erro", "Erro durante o login: " + e.getMessage()));
   }
 }
@@ -1,89 +1,123 @@
 package org.bancomaldaver.views;
 
+import io.qt.core.QDate;
+import io.qt.core.QModelIndex;
 import io.qt.core.Qt;
 import io.qt.widgets.*;
+import java.time.LocalDate;
+import java.time.format.DateTimeFormatter;
 import java.util.List;
-import java.util.Map;
 import org.bancomaldaver.controllers.CustomerController;
+import org.bancomaldaver.controllers.TransferController;
+import org.bancomaldaver.controllers.UserController;
+import org.bancomaldaver.models.CustomerSession;
+import org.bancomaldaver.models.StatementEntry;
 import org.bancomaldaver.utils.ButtonUtils;
 import org.bancomaldaver.utils.FontHelper;
+import org.bancomaldaver.utils.LazyTableModel;
+import org.bancomaldaver.utils.Money;
+import org.bancomaldaver.utils.UiThread;
 
 public final class CustomerMainPage extends QWidget {
-
-  public CustomerMainPage(QMainWindow mainWindow, int accountId) {
+  private static final DateTimeFormatter DATE_FORMAT =
+      DateTimeFormatter.ofPattern("dd/MM/yyyy HH:mm");
+  private static final int MAX_STATEMENT_ROWS = 2000;
+  private static final List<LazyTableModel.Column<StatementEntry>> STATEMENT_COLUMNS =
+      List.of(
+          new LazyTableModel.Column<>("Data", entry -> DATE_FORMAT.format(entry.transactionDate())),
+          new LazyTableModel.Column<>("Tipo", StatementEntry::transactionType),
+          new LazyTableModel.Column<>("Valor (R$)", entry -> Money.format(entry.amountCents())));
+
+  private final QLabel balanceLabel = new QLabel();
+  private long balanceCents;
+
+  // a tela abre só com o que veio no login: nenhum dado do cabeçalho vai ao banco
+  public CustomerMainPage(QMainWindow mainWindow, CustomerSession session) {
     setWindowTitle("Banco Malvader - Cliente");
 
+    var account = session.account().metadata();
     var mainLayout = new QVBoxLayout();
 
-    var headerLabel = new QLabel("Bem-vindo, Cliente!");
+    var headerLabel = new QLabel("Bem-vindo, " + account.customerName() + "!");
     headerLabel.setFont(FontHelper.getBaseFont(24));
     headerLabel.setAlignment(Qt.AlignmentFlag.AlignCenter);
     mainLayout.addWidget(headerLabel);
 
+    var accountLabel =
+        new QLabel(
+            "Conta "
+                + account.accountNumber()
+                + " - Agência "
+                + account.branch()
+                + " - "
+                + (account.isChecking() ? "Conta Corrente" : "Conta Poupança"));
+    accountLabel.setAlignment(Qt.AlignmentFlag.AlignCenter);
+    mainLayout.addWidget(accountLabel);
+
+    balanceLabel.setAlignment(Qt.AlignmentFlag.AlignCenter);
+    mainLayout.addWidget(balanceLabel);
+    setBalance(session.account().balanceCents());
+
     var balanceButton =
-        ButtonUtils.createButton("Consultar Saldo", () -> showBalanceDialog(accountId), this);
+        ButtonUtils.createButton("Consultar Saldo", () -> showBalance(session), this);
     var depositButton =
-        ButtonUtils.createButton("Depósito", () -> showDepositDialog(accountId), this);
+        ButtonUtils.createButton("Depósito", () -> showDepositDialog(session), this);
     var withdrawalButton =
-        ButtonUtils.createButton("Saque", () -> showWithdrawalDialog(accountId), this);
+        ButtonUtils.createButton("Saque", () -> showWithdrawalDialog(session), this);
+    var transferButton =
+        ButtonUtils.createButton("Transferência", () -> showTransferDialog(session), this);
     var statementButton =
-        ButtonUtils.createButton("Extrato", () -> showStatementDialog(accountId), this);
+        ButtonUtils.createButton("Extrato", () -> showStatementDialog(session), this);
 
     mainLayout.addWidget(balanceButton);
     mainLayout.addWidget(depositButton);
     mainLayout.addWidget(withdrawalButton);
+    mainLayout.addWidget(transferButton);
     mainLayout.addWidget(statementButton);
 
-    try {
-      var controller = new CustomerController();
-      var accountType = controller.getAccountType(accountId);
-
-      if ("CHECKING".equals(accountType)) {
-        var creditLimitButton =
-            ButtonUtils.createButton(
-                "Consultar Limite", () -> showCreditLimitDialog(accountId), this);
-        mainLayout.addWidget(creditLimitButton);
-      }
-    } catch (Exception e) {
-      QMessageBox.critical(this, "Erro", "Erro ao carregar tipo de conta: " + e.getMessage());
+    // o botão de limite só aparece para conta corrente
+    if (account.isChecking()) {
+      mainLayout.addWidget(
+          ButtonUtils.createButton("Consultar Limite", () -> showCreditLimit(session), this));
     }
 
-    var backButton = ButtonUtils.createButton("Voltar ao Menu Principal", mainWindow::close, this);
+    var backButton =
+        ButtonUtils.createButton(
+            "Voltar ao Menu Principal",
+            () -> {
+              new UserController().logout(session);
+              mainWindow.close();
+            },
+            this);
     mainLayout.addWidget(backButton);
 
     setLayout(mainLayout);
   }
 
-  private void showBalanceDialog(int accountId) {
-    var dialog = new QDialog(this);
-    dialog.setWindowTitle("Consultar Saldo");
-    var layout = new QVBoxLayout(dialog);
-
-    var passwordField = new QLineEdit();
-    passwordField.setPlaceholderText("Digite sua senha");
-    passwordField.setEchoMode(QLineEdit.EchoMode.Password);
-
-    var fetchButton = new QPushButton("Consultar");
-    fetchButton.clicked.connect(
-        () -> {
-          try {
-            var controller = new CustomerController();
-            double balance = controller.getBalance(accountId, passwordField.text());
-            QMessageBox.information(
-                this, "Saldo", "Seu saldo é: R$ " + String.format("%.2f", balance));
-            dialog.accept();
-          } catch (Exception e) {
-            QMessageBox.critical(this, "Erro", "Erro: " + e.getMessage());
-          }
-        });
+  /**
+   * O saldo do cabeçalho começa com o valor do login e acompanha as operações feitas nesta tela.
+   * Movimentações de fora (uma transferência recebida, por exemplo) só aparecem ao consultar o
+   * saldo.
+   */
+  private void setBalance(long cents) {
+    balanceCents = cents;
+    balanceLabel.setText("Saldo: R$ " + Money.format(cents));
+  }
 
-    layout.addWidget(passwordField);
-    layout.addWidget(fetchButton);
-    dialog.setLayout(layout);
-    dialog.exec();
+  // a sessão já autenticou o cliente; só saque e transferência pedem a senha de novo
+  private void showBalance(CustomerSession session) {
+    var controller = new CustomerController();
+    UiThread.onComplete(
+        this,
+        controller.getBalanceAsync(session),
+        balance -> {
+          setBalance(balance);
+          QMessageBox.information(this, "Saldo", "Seu saldo é: R$ " + Money.format(balance));
+        },
+        e -> QMessageBox.critical(this, "Erro", "Erro: " + e.getMessage()));
   }
 
-  private void showDepositDialog(int accountId) {
+  private void showDepositDialog(CustomerSession session) {
     var dialog = new QDialog(this);
     dialog.setWindowTitle("Depósito");
     var layout = new QVBoxLayout(dialog);
@@ -95,11 +129,17 @@ public final class CustomerMainPage extends QWidget {
     depositButton.clicked.connect(
         () -> {
           try {
-            double amount = Double.parseDouble(amountField.text());
+            long amountCents = Money.parse(amountField.text());
             var controller = new CustomerController();
-            controller.deposit(accountId, amount);
-            QMessageBox.information(this, "Sucesso", "Depósito realizado com sucesso!");
-            dialog.accept();
+            UiThread.onComplete(
+                depositButton,
+                controller.depositAsync(session, amountCents),
+                ignored -> {
+                  setBalance(Money.addExact(balanceCents, amountCents));
+                  QMessageBox.information(this, "Sucesso", "Depósito realizado com sucesso!");
+                  dialog.accept();
+                },
+                e -> QMessageBox.critical(this, "Erro", "Erro: " + e.getMessage()));
           } catch (Exception e) {
             QMessageBox.critical(this, "Erro", "Erro: " + e.getMessage());
           }
@@ -111,7 +151,7 @@ public final class CustomerMainPage extends QWidget {
     dialog.exec();
   }
 
-  private void showWithdrawalDialog(int accountId) {
+  private void showWithdrawalDialog(CustomerSession session) {
     var dialog = new QDialog(this);
     dialog.setWindowTitle("Saque");
     var layout = new QVBoxLayout(dialog);
@@ -127,11 +167,17 @@ public final class CustomerMainPage extends QWidget {
     withdrawButton.clicked.connect(
         () -> {
           try {
-            double amount = Double.parseDouble(amountField.text());
+            long amountCents = Money.parse(amountField.text());
             var controller = new CustomerController();
-            controller.withdraw(accountId, amount, passwordField.text());
-            QMessageBox.information(this, "Sucesso", "Saque realizado com sucesso!");
-            dialog.accept();
+            UiThread.onComplete(
+                withdrawButton,
+                controller.withdrawAsync(session, amountCents, passwordField.text()),
+                ignored -> {
+                  setBalance(Money.subtractExact(balanceCents, amountCents));
+                  QMessageBox.information(this, "Sucesso", "Saque realizado com sucesso!");
+                  dialog.accept();
+                },
+                e -> QMessageBox.critical(this, "Erro", "Erro: " + e.getMessage()));
           } catch (Exception e) {
             QMessageBox.critical(this, "Erro", "Erro: " + e.getMessage());
           }
@@ -144,74 +190,113 @@ public final class CustomerMainPage extends QWidget {
     dialog.exec();
   }
 
-  private void showStatementDialog(int accountId) {
+  private void showTransferDialog(CustomerSession session) {
     var dialog = new QDialog(this);
-    dialog.setWindowTitle("Extrato");
+    dialog.setWindowTitle("Transferência");
     var layout = new QVBoxLayout(dialog);
 
     var passwordField = new QLineEdit();
     passwordField.setPlaceholderText("Digite sua senha");
     passwordField.setEchoMode(QLineEdit.EchoMode.Password);
 
-    var fetchButton = new QPushButton("Consultar Extrato");
-    fetchButton.clicked.connect(
+    var targetAccountField = new QLineEdit();
+    targetAccountField.setPlaceholderText("Digite o número da conta de destino");
+
+    var amountField = new QLineEdit();
+    amountField.setPlaceholderText("Digite o valor da transferência");
+
+    var transferButton = new QPushButton("Transferir");
+    transferButton.clicked.connect(
         () -> {
           try {
-            var controller = new CustomerController();
-            List<Map<String, String>> transactions =
-                controller.getStatement(accountId, passwordField.text());
-
-            StringBuilder statement = new StringBuilder();
-            statement.append("Extrato:\n");
-            for (var transaction : transactions) {
-              statement
-                  .append(transaction.get("transaction_date"))
-                  .append(" - ")
-                  .append(transaction.get("transaction_type"))
-                  .append(": R$ ")
-                  .append(transaction.get("amount"))
-                  .append("\n");
-            }
-
-            QMessageBox.information(this, "Extrato", statement.toString());
-            dialog.accept();
+            long amountCents = Money.parse(amountField.text());
+            var controller = new TransferController();
+            UiThread.onComplete(
+                transferButton,
+                controller.transferAsync(
+                    session, targetAccountField.text().trim(), amountCents, passwordField.text()),
+                ignored -> {
+                  setBalance(Money.subtractExact(balanceCents, amountCents));
+                  QMessageBox.information(this, "Sucesso", "Transferência realizada com sucesso!");
+                  dialog.accept();
+                },
+                e -> QMessageBox.critical(this, "Erro", "Erro: " + e.getMessage()));
           } catch (Exception e) {
             QMessageBox.critical(this, "Erro", "Erro: " + e.getMessage());
           }
         });
 
     layout.addWidget(passwordField);
-    layout.addWidget(fetchButton);
+    layout.addWidget(targetAccountField);
+    layout.addWidget(amountField);
+    layout.addWidget(transferButton);
     dialog.setLayout(layout);
     dialog.exec();
   }
 
-  private void showCreditLimitDialog(int accountId) {
+  private void showStatementDialog(CustomerSession session) {
     var dialog = new QDialog(this);
-    dialog.setWindowTitle("Consultar Limite");
+    dialog.setWindowTitle("Extrato");
+    dialog.resize(640, 520);
     var layout = new QVBoxLayout(dialog);
 
-    var passwordField = new QLineEdit();
-    passwordField.setPlaceholderText("Digite sua senha");
-    passwordField.setEchoMode(QLineEdit.EchoMode.Password);
-
-    var fetchButton = new QPushButton("Consultar Limite");
+    var fromField = new QDateEdit(QDate.currentDate().addDays(-30));
+    fromField.setCalendarPopup(true);
+    fromField.setDisplayFormat("dd/MM/yyyy");
+    var toField = new QDateEdit(QDate.currentDate());
+    toField.setCalendarPopup(true);
+    toField.setDisplayFormat("dd/MM/yyyy");
+
+    var periodLayout = new QHBoxLayout();
+    periodLayout.addWidget(new QLabel("De:"));
+    periodLayout.addWidget(fromField);
+    periodLayout.addWidget(new QLabel("Até:"));
+    periodLayout.addWidget(toField);
+
+    var table = new QTableView();
+    table.setEditTriggers(QAbstractItemView.EditTrigger.NoEditTriggers);
+    table.horizontalHeader().setStretchLastSection(true);
+
+    // cada consulta ganha um modelo novo, que guarda o período e segue buscando as páginas
+    // conforme a rolagem chega ao fim ou volta ao topo
+    var fetchButton = new QPushButton("Consultar Extrato");
     fetchButton.clicked.connect(
         () -> {
-          try {
-            var controller = new CustomerController();
-            var creditLimit = controller.getCreditLimit(accountId, passwordField.text());
-            QMessageBox.information(
-                this, "Limite", "Seu limite é: R$ " + String.format("%.2f", creditLimit));
-            dialog.accept();
-          } catch (Exception e) {
-            QMessageBox.critical(this, "Erro", "Erro: " + e.getMessage());
-          }
+          var from = toLocalDate(fromField.date());
+          var to = toLocalDate(toField.date());
+          var controller = new CustomerController();
+
+          var model =
+              new LazyTableModel<StatementEntry>(
+                  STATEMENT_COLUMNS,
+                  after -> controller.getStatementPageAsync(session, from, to, after),
+                  before -> controller.getStatementPageBeforeAsync(session, from, before),
+                  StatementEntry::cursor,
+                  MAX_STATEMENT_ROWS,
+                  e -> QMessageBox.critical(this, "Erro", "Erro: " + e.getMessage()));
+          model.attach(table);
+          model.fetchMore(new QModelIndex());
         });
 
-    layout.addWidget(passwordField);
+    layout.addLayout(periodLayout);
     layout.addWidget(fetchButton);
+    layout.addWidget(table);
     dialog.setLayout(layout);
     dialog.exec();
   }
+
+  private static LocalDate toLocalDate(QDate date) {
+    return LocalDate.of(date.year(), date.month(), date.day());
+  }
+
+  private void showCreditLimit(CustomerSession session) {
+    var controller = new CustomerController();
+    UiThread.onComplete(
+        this,
+        controller.getCreditLimitAsync(session),
+        creditLimit ->
+            QMessageBox.information(
+                this, "Limite", "Seu limite é: R$ " + Money.format(creditLimit)),
+        e -> QMessageBox.critical(this, "Erro", "Erro: " + e.getMessage()));
+  }
 }
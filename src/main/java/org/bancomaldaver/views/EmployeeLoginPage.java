@@ -1,15 +1,21 @@
 package org.bancomaldaver.views;
 
+import io.qt.core.QTimer;
 import io.qt.core.Qt;
 import io.qt.widgets.*;
 import org.bancomaldaver.controllers.EmployeeController;
 import org.bancomaldaver.utils.FontHelper;
 import org.bancomaldaver.utils.NavigationManager;
+import org.bancomaldaver.utils.UiThread;
 
 public final class EmployeeLoginPage extends QWidget {
+  private static final int NAME_LOOKUP_DELAY_MILLIS = 300;
+
   private final QLineEdit employeeCodeField;
   private final QLineEdit employeeNameField;
   private final QLineEdit passwordField;
+  // a busca do nome espera o usuário parar de digitar, em vez de ir ao banco a cada tecla
+  private final QTimer nameLookupTimer = new QTimer(this);
 
   public EmployeeLoginPage(QMainWindow mainWindow) {
     setWindowTitle("Banco Malvader - Login Funcionário");
@@ -160,42 +166,64 @@ public final class EmployeeLoginPage extends QWidget {
 
   private void setupEventHandlers(
       QMainWindow mainWindow, QPushButton loginButton, QPushButton createEmployeeButton) {
+    nameLookupTimer.setSingleShot(true);
+    nameLookupTimer.setInterval(NAME_LOOKUP_DELAY_MILLIS);
+    nameLookupTimer.timeout.connect(this::lookupEmployeeName);
     employeeCodeField.textChanged.connect(this::onEmployeeCodeChanged);
-    loginButton.clicked.connect(() -> onLoginClicked(mainWindow));
+    loginButton.clicked.connect(() -> onLoginClicked(mainWindow, loginButton));
     createEmployeeButton.clicked.connect(this::showAdminPasswordDialog);
   }
 
   private void onEmployeeCodeChanged() {
-    var code = employeeCodeField.text().trim();
-    if (!code.isEmpty()) {
-      try {
-        var controller = new EmployeeController();
-        var name = controller.getEmployeeNameByCode(code);
-        employeeNameField.setText(name != null ? name : "Funcionário não encontrado");
-      } catch (Exception e) {
-        employeeNameField.setText("Erro ao buscar nome");
-      }
-    } else {
+    if (employeeCodeField.text().trim().isEmpty()) {
+      nameLookupTimer.stop();
       employeeNameField.clear();
+    } else {
+      // reinicia a espera a cada tecla
+      nameLookupTimer.start();
     }
   }
 
-  private void onLoginClicked(QMainWindow mainWindow) {
+  private void lookupEmployeeName() {
     var code = employeeCodeField.text().trim();
-    var password = passwordField.text();
-    try {
-      var controller = new EmployeeController();
-      var isValid = controller.validateEmployeeLogin(code, password);
-
-      if (isValid) {
-        QMessageBox.information(this, "Login", "Login realizado com sucesso!");
-        mainWindow.setCentralWidget(new EmployeeMainPage(mainWindow));
-      } else {
-        QMessageBox.warning(this, "Login", "Código ou senha incorretos.");
-      }
-    } catch (Exception e) {
-      QMessageBox.critical(this, "Erro", "Erro durante o login: " + e.getMessage());
+    if (code.isEmpty()) {
+      return;
     }
+
+    var controller = new EmployeeController();
+    UiThread.onComplete(
+        employeeNameField,
+        controller.getEmployeeNameByCodeAsync(code),
+        name -> {
+          // o código mudou enquanto a busca rodava; o resultado é de outro funcionário
+          if (code.equals(employeeCodeField.text().trim())) {
+            employeeNameField.setText(name != null ? name : "Funcionário não encontrado");
+          }
+        },
+        e -> {
+          if (code.equals(employeeCodeField.text().trim())) {
+            employeeNameField.setText("Erro ao buscar nome");
+          }
+        });
+  }
+
+  private void onLoginClicked(QMainWindow mainWindow, QPushButton loginButton) {
+    var code = employeeCodeField.text().trim();
+    var password = passwordField.text();
+
+    var controller = new EmployeeController();
+    UiThread.onComplete(
+        loginButton,
+        controller.loginAsync(code, password),
+        session -> {
+          if (session != null) {
+            QMessageBox.information(this, "Login", "Login realizado com sucesso!");
+            mainWindow.setCentralWidget(new EmployeeMainPage(mainWindow, session));
+          } else {
+            QMessageBox.warning(this, "Login", "Código ou senha incorretos.");
+          }
+        },
+        e -> QMessageBox.critical(this, "Erro", "Erro durante o login: " + e.getMessage()));
   }
 
   private void showAdminPasswordDialog() {
@@ -1,21 +1,51 @@
 package org.bancomaldaver.views;
 
+import io.qt.core.QModelIndex;
 import io.qt.core.Qt;
 import io.qt.widgets.*;
-import java.io.FileOutputStream;
-import java.io.OutputStreamWriter;
-import java.io.PrintWriter;
-import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.time.format.DateTimeFormatter;
+import java.util.List;
+import java.util.Objects;
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.atomic.AtomicBoolean;
 import org.bancomaldaver.controllers.AccountController;
 import org.bancomaldaver.controllers.EmployeeController;
+import org.bancomaldaver.controllers.ReportController;
 import org.bancomaldaver.controllers.UserController;
 import org.bancomaldaver.models.AccountClosureData;
+import org.bancomaldaver.models.AccountDetails;
+import org.bancomaldaver.models.AccountSnapshot;
+import org.bancomaldaver.models.CustomerProfile;
+import org.bancomaldaver.models.EmployeeProfile;
+import org.bancomaldaver.models.EmployeeSession;
+import org.bancomaldaver.models.LedgerEntry;
 import org.bancomaldaver.utils.ButtonUtils;
+import org.bancomaldaver.utils.LazyTableModel;
+import org.bancomaldaver.utils.Money;
 import org.bancomaldaver.utils.NavigationManager;
+import org.bancomaldaver.utils.UiThread;
 
 public final class EmployeeMainPage extends QWidget {
 
-  public EmployeeMainPage(QMainWindow mainWindow) {
+  private static final DateTimeFormatter DATE_FORMAT =
+      DateTimeFormatter.ofPattern("dd/MM/yyyy HH:mm");
+  private static final int MAX_LEDGER_ROWS = 5000;
+  private static final List<LazyTableModel.Column<LedgerEntry>> LEDGER_COLUMNS =
+      List.of(
+          new LazyTableModel.Column<>("Data", entry -> DATE_FORMAT.format(entry.transactionDate())),
+          new LazyTableModel.Column<>("Conta", entry -> String.valueOf(entry.accountNumber())),
+          new LazyTableModel.Column<>("Tipo de Conta", LedgerEntry::accountType),
+          new LazyTableModel.Column<>("Cliente", LedgerEntry::customerName),
+          new LazyTableModel.Column<>("CPF", LedgerEntry::cpf),
+          new LazyTableModel.Column<>("Operação", LedgerEntry::transactionType),
+          new LazyTableModel.Column<>("Valor (R$)", entry -> Money.format(entry.amountCents())));
+
+  private final EmployeeSession session;
+
+  public EmployeeMainPage(QMainWindow mainWindow, EmployeeSession session) {
+    this.session = session;
     setWindowTitle("Banco Malvader - Página Principal do Funcionário");
 
     var centralWidget = new QWidget();
@@ -23,7 +53,12 @@ public final class EmployeeMainPage extends QWidget {
 
     var backButton =
         ButtonUtils.createBackButton(
-            "Sair", () -> NavigationManager.getInstance().goBack(new MainMenuPage()), this);
+            "Sair",
+            () -> {
+              new EmployeeController().logout(session);
+              NavigationManager.getInstance().goBack(new MainMenuPage());
+            },
+            this);
     mainLayout.addWidget(backButton, 0, Qt.AlignmentFlag.AlignTop);
 
     var titleLabel = new QLabel("Menu Principal do Funcionário");
@@ -48,6 +83,10 @@ public final class EmployeeMainPage extends QWidget {
             "Gerar Relatório de Movimentações", this::generateFinancialReportDialog, this);
     mainLayout.addWidget(generateReportButton);
 
+    var ledgerButton =
+        ButtonUtils.createButton("Consultar Movimentações", this::showLedgerBrowserDialog, this);
+    mainLayout.addWidget(ledgerButton);
+
     var bottomLayout = new QVBoxLayout();
     bottomLayout.addWidget(consultDataButton);
     bottomLayout.addWidget(createAccountButton);
@@ -62,6 +101,14 @@ public final class EmployeeMainPage extends QWidget {
   }
 
   private void generateFinancialReportDialog() {
+    requestEmployeeAuthentication(this::generateFinancialReport);
+  }
+
+  private void showLedgerBrowserDialog() {
+    requestEmployeeAuthentication(this::showLedgerBrowser);
+  }
+
+  private void requestEmployeeAuthentication(Runnable onAuthenticated) {
     var dialog = new QDialog(this);
     dialog.setWindowTitle("Autenticação do Funcionário");
 
@@ -85,12 +132,19 @@ public final class EmployeeMainPage extends QWidget {
     confirmButton.clicked.connect(
         () -> {
           String password = passwordField.text().trim();
-          if (authenticateEmployee(password)) {
-            dialog.accept();
-            generateFinancialReport();
-          } else {
-            QMessageBox.warning(this, "Erro", "Senha do funcionário incorreta.");
-          }
+          var employeeController = new EmployeeController();
+          UiThread.onComplete(
+              confirmButton,
+              employeeController.authenticateAsync(session, password),
+              authenticated -> {
+                if (authenticated) {
+                  dialog.accept();
+                  onAuthenticated.run();
+                } else {
+                  QMessageBox.warning(this, "Erro", "Senha do funcionário incorreta.");
+                }
+              },
+              e -> QMessageBox.critical(this, "Erro", "Erro na autenticação: " + e.getMessage()));
         });
 
     cancelButton.clicked.connect(dialog::reject);
@@ -99,65 +153,103 @@ public final class EmployeeMainPage extends QWidget {
     dialog.exec();
   }
 
-  private boolean authenticateEmployee(String password) {
-    try {
-      var employeeController = new EmployeeController();
-      return employeeController.authenticate(password);
-    } catch (Exception e) {
-      QMessageBox.critical(this, "Erro", "Erro na autenticação: " + e.getMessage());
-      return false;
-    }
+  /**
+   * Navega pelas movimentações de todas as contas. As páginas chegam conforme a rolagem e a tabela
+   * mantém no máximo {@link #MAX_LEDGER_ROWS} linhas; voltar ao topo busca de novo as que saíram.
+   */
+  private void showLedgerBrowser() {
+    var dialog = new QDialog(this);
+    dialog.setWindowTitle("Movimentações");
+    dialog.resize(900, 600);
+    var layout = new QVBoxLayout(dialog);
+
+    var table = new QTableView();
+    table.setEditTriggers(QAbstractItemView.EditTrigger.NoEditTriggers);
+    table.horizontalHeader().setStretchLastSection(true);
+
+    var employeeController = new EmployeeController();
+    var model =
+        new LazyTableModel<LedgerEntry>(
+            LEDGER_COLUMNS,
+            employeeController::getLedgerPageAsync,
+            employeeController::getLedgerPageBeforeAsync,
+            LedgerEntry::cursor,
+            MAX_LEDGER_ROWS,
+            e -> QMessageBox.critical(this, "Erro", "Erro: " + e.getMessage()));
+    model.attach(table);
+    model.fetchMore(new QModelIndex());
+
+    layout.addWidget(table);
+    dialog.setLayout(layout);
+    dialog.exec();
   }
 
   private void generateFinancialReport() {
-    try {
-      var employeeController = new EmployeeController();
-      var transactions = employeeController.getAllFinancialTransactions();
-
-      var userHome = System.getenv("USERPROFILE");
-
-      if (userHome == null || userHome.isEmpty()) {
-        throw new Exception("Não foi possível determinar o diretório do usuário.");
-      }
-
-      // aqui eu tô unindo a variável do powershell com a pasta que eu quero
-      var downloadsFolder = userHome + "\\Downloads";
-
-      // nome do relatório
-      var fileName = downloadsFolder + "\\financial_report.csv";
-
-      // gera o csv
-      try (var writer =
-          new PrintWriter(
-              new OutputStreamWriter(new FileOutputStream(fileName), StandardCharsets.UTF_8))) {
-        // escreve nosso querido BOM... excel lê melhor com ele
-        writer.write('\uFEFF');
-
-        // headers do csv
-        writer.println(
-            "Transaction ID;Account Number;Account Type;Transaction Type;Amount;Date;Customer Name;CPF");
-
-        // dados
-        for (var transaction : transactions) {
-          writer.println(
-              String.join(
-                  ";",
-                  transaction.get("id_transaction"),
-                  transaction.get("account_number"),
-                  transaction.get("account_type"),
-                  transaction.get("transaction_type"),
-                  String.format("%.2f", Double.parseDouble(transaction.get("amount"))),
-                  transaction.get("transaction_date"),
-                  transaction.get("name"),
-                  transaction.get("cpf")));
-        }
-      }
-
-      QMessageBox.information(
-          this, "Relatório Gerado", "Relatório financeiro gerado com sucesso:\n" + fileName);
-    } catch (Exception e) {
-      QMessageBox.critical(this, "Erro", "Erro ao gerar o relatório: " + e.getMessage());
+    var userHome = System.getenv("USERPROFILE");
+
+    if (userHome == null || userHome.isEmpty()) {
+      QMessageBox.critical(
+          this,
+          "Erro",
+          "Erro ao gerar o relatório: Não foi possível determinar o diretório do usuário.");
+      return;
+    }
+
+    // aqui eu tô unindo a variável do powershell com a pasta que eu quero
+    var fileName = Path.of(userHome, "Downloads", "financial_report.csv");
+
+    var progressDialog =
+        new QProgressDialog("Gerando relatório financeiro...", "Cancelar", 0, 100, this);
+    progressDialog.setWindowTitle("Relatório de Movimentações");
+    progressDialog.setWindowModality(Qt.WindowModality.WindowModal);
+    progressDialog.setMinimumDuration(0);
+    progressDialog.setAutoClose(false);
+    progressDialog.setAutoReset(false);
+    progressDialog.setValue(0);
+
+    var cancelled = new AtomicBoolean();
+    progressDialog.canceled.connect(() -> cancelled.set(true));
+
+    // o csv é gerado fora da thread da GUI; aqui só acompanhamos o progresso
+    new ReportController()
+        .exportFinancialReport(
+            fileName,
+            (rowsWritten, totalRows) ->
+                UiThread.post(
+                    progressDialog,
+                    () -> progressDialog.setValue(progressPercent(rowsWritten, totalRows))),
+            cancelled)
+        .whenComplete(
+            (rowsWritten, error) ->
+                UiThread.post(
+                    this,
+                    () -> {
+                      progressDialog.close();
+
+                      if (error == null) {
+                        QMessageBox.information(
+                            this,
+                            "Relatório Gerado",
+                            "Relatório financeiro gerado com sucesso:\n" + fileName);
+                        return;
+                      }
+
+                      var cause = error instanceof CompletionException ? error.getCause() : error;
+                      if (cause instanceof CancellationException) {
+                        QMessageBox.information(
+                            this, "Relatório", "Geração do relatório cancelada.");
+                      } else {
+                        QMessageBox.critical(
+                            this, "Erro", "Erro ao gerar o relatório: " + cause.getMessage());
+                      }
+                    }));
+  }
+
+  private static int progressPercent(long rowsWritten, long totalRows) {
+    if (totalRows <= 0) {
+      return 100;
     }
+    return (int) Math.min(100, rowsWritten * 100 / totalRows);
   }
 
   private void openDataConsultationDialog(QMainWindow mainWindow) {
@@ -194,40 +286,38 @@ public final class EmployeeMainPage extends QWidget {
 
     fetchButton.clicked.connect(
         () -> {
-          try {
-            var accountNumber = accountNumberField.text().trim();
-            var accountController = new AccountController();
-            var details = accountController.getAccountDetails(accountNumber);
-
-            var message = new StringBuilder();
-            message.append("Tipo: ").append(details.get("account_type")).append("\n");
-            message.append("Nome: ").append(details.get("name")).append("\n");
-            message.append("CPF: ").append(details.get("cpf")).append("\n");
-            message
-                .append("Saldo: ")
-                .append(String.format("%.2f", details.get("balance")))
-                .append("\n");
-
-            if ("CHECKING".equals(details.get("account_type"))) {
-              message
-                  .append("Limite: ")
-                  .append(String.format("%.2f", details.get("credit_limit")))
-                  .append("\n");
-              message.append("Vencimento: ").append(details.get("due_date")).append("\n");
-            } else if ("SAVINGS".equals(details.get("account_type"))) {
-              message.append("Taxa de Juros: ").append(details.get("interest_rate")).append("\n");
-            }
-
-            QMessageBox.information(this, "Detalhes da Conta", message.toString());
-          } catch (Exception e) {
-            QMessageBox.critical(this, "Erro", "Erro ao consultar conta: " + e.getMessage());
-          }
+          var accountNumber = accountNumberField.text().trim();
+          var accountController = new AccountController();
+          UiThread.onComplete(
+              fetchButton,
+              accountController.getAccountDetailsAsync(accountNumber),
+              this::showAccountDetails,
+              e ->
+                  QMessageBox.critical(this, "Erro", "Erro ao consultar conta: " + e.getMessage()));
         });
 
     dialog.setLayout(layout);
     dialog.exec();
   }
 
+  private void showAccountDetails(AccountDetails details) {
+    var account = details.metadata();
+    var message = new StringBuilder();
+    message.append("Tipo: ").append(account.accountType()).append("\n");
+    message.append("Nome: ").append(account.customerName()).append("\n");
+    message.append("CPF: ").append(account.cpf()).append("\n");
+    message.append("Saldo: ").append(Money.format(details.balanceCents())).append("\n");
+
+    if (account.isChecking()) {
+      message.append("Limite: ").append(Money.format(account.creditLimitCents())).append("\n");
+      message.append("Vencimento: ").append(account.dueDate()).append("\n");
+    } else if ("SAVINGS".equals(account.accountType())) {
+      message.append("Taxa de Juros: ").append(account.interestRate()).append("\n");
+    }
+
+    QMessageBox.information(this, "Detalhes da Conta", message.toString());
+  }
+
   private void showEmployeeDetailsDialog() {
     var dialog = new QDialog(this);
     dialog.setWindowTitle("Consultar Funcionário");
@@ -242,30 +332,37 @@ public final class EmployeeMainPage extends QWidget {
 
     fetchButton.clicked.connect(
         () -> {
-          try {
-            var employeeCode = employeeCodeField.text().trim();
-            var employeeController = new EmployeeController();
-            var details = employeeController.getEmployeeDetails(employeeCode);
-
-            var message = new StringBuilder();
-            message.append("Código: ").append(details.get("employee_code")).append("\n");
-            message.append("Cargo: ").append(details.get("role")).append("\n");
-            message.append("Nome: ").append(details.get("name")).append("\n");
-            message.append("CPF: ").append(details.get("cpf")).append("\n");
-            message.append("Data de Nascimento: ").append(details.get("birth_date")).append("\n");
-            message.append("Telefone: ").append(details.get("phone")).append("\n");
-            message.append("Endereço: ").append(details.get("address")).append("\n");
-
-            QMessageBox.information(this, "Detalhes do Funcionário", message.toString());
-          } catch (Exception e) {
-            QMessageBox.critical(this, "Erro", "Erro ao consultar funcionário: " + e.getMessage());
-          }
+          var employeeCode = employeeCodeField.text().trim();
+          var employeeController = new EmployeeController();
+          UiThread.onComplete(
+              fetchButton,
+              employeeController.getEmployeeDetailsAsync(employeeCode),
+              this::showEmployeeDetails,
+              e ->
+                  QMessageBox.critical(
+                      this, "Erro", "Erro ao consultar funcionário: " + e.getMessage()));
         });
 
     dialog.setLayout(layout);
     dialog.exec();
   }
 
+  private void showEmployeeDetails(EmployeeProfile details) {
+    var message = new StringBuilder();
+    message.append("Código: ").append(details.employeeCode()).append("\n");
+    message.append("Cargo: ").append(details.role()).append("\n");
+    message.append("Nome: ").append(details.name()).append("\n");
+    message.append("CPF: ").append(details.cpf()).append("\n");
+    message.append("Data de Nascimento: ").append(details.birthDate()).append("\n");
+    message
+        .append("Telefone: ")
+        .append(Objects.requireNonNullElse(details.phone(), ""))
+        .append("\n");
+    message.append("Endereço: ").append(details.address()).append("\n");
+
+    QMessageBox.information(this, "Detalhes do Funcionário", message.toString());
+  }
+
   private void showCustomerDetailsDialog() {
     var dialog = new QDialog(this);
     dialog.setWindowTitle("Consultar Cliente");
@@ -280,28 +377,35 @@ public final class EmployeeMainPage extends QWidget {
 
     fetchButton.clicked.connect(
         () -> {
-          try {
-            var cpf = cpfField.text().trim();
-            var customerController = new UserController();
-            var details = customerController.getCustomerDetails(cpf);
-
-            var message = new StringBuilder();
-            message.append("Nome: ").append(details.get("name")).append("\n");
-            message.append("CPF: ").append(details.get("cpf")).append("\n");
-            message.append("Data de Nascimento: ").append(details.get("birth_date")).append("\n");
-            message.append("Telefone: ").append(details.get("phone")).append("\n");
-            message.append("Endereço: ").append(details.get("address")).append("\n");
-
-            QMessageBox.information(this, "Detalhes do Cliente", message.toString());
-          } catch (Exception e) {
-            QMessageBox.critical(this, "Erro", "Erro ao consultar cliente: " + e.getMessage());
-          }
+          var cpf = cpfField.text().trim();
+          var customerController = new UserController();
+          UiThread.onComplete(
+              fetchButton,
+              customerController.getCustomerDetailsAsync(cpf),
+              this::showCustomerDetails,
+              e ->
+                  QMessageBox.critical(
+                      this, "Erro", "Erro ao consultar cliente: " + e.getMessage()));
         });
 
     dialog.setLayout(layout);
     dialog.exec();
   }
 
+  private void showCustomerDetails(CustomerProfile details) {
+    var message = new StringBuilder();
+    message.append("Nome: ").append(details.name()).append("\n");
+    message.append("CPF: ").append(details.cpf()).append("\n");
+    message.append("Data de Nascimento: ").append(details.birthDate()).append("\n");
+    message
+        .append("Telefone: ")
+        .append(Objects.requireNonNullElse(details.phone(), ""))
+        .append("\n");
+    message.append("Endereço: ").append(details.address()).append("\n");
+
+    QMessageBox.information(this, "Detalhes do Cliente", message.toString());
+  }
+
   private void openCreateAccountDialog(QMainWindow mainWindow) {
     var dialog = new QDialog(this);
     dialog.setWindowTitle("Criar Contas");
@@ -351,7 +455,8 @@ public final class EmployeeMainPage extends QWidget {
             "Alterar Limite/Data de Conta Corrente",
             () -> {
               dialog.accept();
-              mainWindow.setCentralWidget(new AlterCheckingAccountPage((QMainWindow) parent()));
+              mainWindow.setCentralWidget(
+                  new AlterCheckingAccountPage((QMainWindow) parent(), session));
             },
             this);
 
@@ -360,7 +465,8 @@ public final class EmployeeMainPage extends QWidget {
             "Alterar Dados do Funcionário",
             () -> {
               dialog.accept();
-              mainWindow.setCentralWidget(new AlterEmployeeDataPage((QMainWindow) parent()));
+              mainWindow.setCentralWidget(
+                  new AlterEmployeeDataPage((QMainWindow) parent(), session));
             },
             this);
 
@@ -380,7 +486,8 @@ public final class EmployeeMainPage extends QWidget {
             "Alterar Telefone/Endereço do Cliente",
             () -> {
               dialog.accept();
-              mainWindow.setCentralWidget(new AlterCustomerDataPage((QMainWindow) parent()));
+              mainWindow.setCentralWidget(
+                  new AlterCustomerDataPage((QMainWindow) parent(), session));
             },
             this);
 
@@ -424,6 +531,7 @@ public final class EmployeeMainPage extends QWidget {
     adminPasswordDialog.exec();
   }
 
+  // o resultado da busca é o que vai para a confirmação; mudar o CPF descarta a busca
   private void showAccountClosureDialog() {
     var closeAccountDialog = new QDialog(this);
     closeAccountDialog.setWindowTitle("Encerramento de Conta");
@@ -431,36 +539,56 @@ public final class EmployeeMainPage extends QWidget {
 
     var cpfLabel = new QLabel("Digite o CPF do cliente:");
     var cpfField = new QLineEdit();
+    var customerLabel = new QLabel();
+    var accountDropdown = new QComboBox();
+    accountDropdown.setEnabled(false);
 
     dialogLayout.addWidget(cpfLabel);
     dialogLayout.addWidget(cpfField);
+    dialogLayout.addWidget(customerLabel);
+    dialogLayout.addWidget(accountDropdown);
 
     var buttonLayout = new QHBoxLayout();
     var fetchButton = new QPushButton("Buscar Dados");
     var closeButton = new QPushButton("Encerrar Conta");
+    closeButton.setEnabled(false);
     var cancelButton = new QPushButton("Cancelar");
     buttonLayout.addWidget(fetchButton);
     buttonLayout.addWidget(closeButton);
     buttonLayout.addWidget(cancelButton);
     dialogLayout.addLayout(buttonLayout);
 
+    var fetched = new AccountClosureData[1];
+    Runnable reset =
+        () -> {
+          fetched[0] = null;
+          customerLabel.clear();
+          accountDropdown.clear();
+          accountDropdown.setEnabled(false);
+          closeButton.setEnabled(false);
+        };
+    cpfField.textChanged.connect(text -> reset.run());
+
     fetchButton.clicked.connect(
         () -> {
           var cpf = cpfField.text().trim();
           if (!cpf.isEmpty()) {
-            try {
-              AccountController accountController = new AccountController();
-              AccountClosureData data = accountController.getAccountClosureData(cpf);
-
-              QMessageBox.information(
-                  this,
-                  "Confirmação",
-                  String.format(
-                      "CPF do cliente: %s\nNome do cliente: ID %d\nNúmero da conta: %s",
-                      data.getCpf(), data.getUserId(), data.getAccountNumber()));
-            } catch (Exception e) {
-              QMessageBox.warning(this, "Erro", "Erro ao buscar dados: " + e.getMessage());
-            }
+            reset.run();
+            AccountController accountController = new AccountController();
+            UiThread.onComplete(
+                fetchButton,
+                accountController.getAccountClosureDataAsync(cpf),
+                data -> {
+                  fetched[0] = data;
+                  customerLabel.setText(
+                      String.format("Cliente: %s (CPF %s)", data.getCustomerName(), data.getCpf()));
+                  for (var snapshot : data.getAccounts()) {
+                    accountDropdown.addItem(describeAccount(snapshot));
+                  }
+                  accountDropdown.setEnabled(true);
+                  closeButton.setEnabled(true);
+                },
+                e -> QMessageBox.warning(this, "Erro", "Erro ao buscar dados: " + e.getMessage()));
           } else {
             QMessageBox.warning(this, "Erro", "Por favor, insira o CPF.");
           }
@@ -468,37 +596,14 @@ public final class EmployeeMainPage extends QWidget {
 
     closeButton.clicked.connect(
         () -> {
-          var cpf = cpfField.text().trim();
-          if (!cpf.isEmpty()) {
-            try {
-              var accountController = new AccountController();
-              var data = accountController.getAccountClosureData(cpf);
-
-              int response =
-                  QMessageBox.question(
-                      this,
-                      "Confirmar Encerramento",
-                      String.format(
-                          "Tem certeza que deseja encerrar a conta?\nCPF: %s\nNúmero da conta: %s",
-                          data.getCpf(), data.getAccountNumber()),
-                      QMessageBox.StandardButton.Yes,
-                      QMessageBox.StandardButton.No);
-
-              if (response == QMessageBox.StandardButton.Yes.value()) {
-                var success = accountController.closeAccount(data.getAccountNumber());
-                if (success) {
-                  QMessageBox.information(this, "Sucesso", "Conta encerrada com sucesso.");
-                  closeAccountDialog.accept();
-                } else {
-                  QMessageBox.warning(this, "Erro", "Falha ao encerrar a conta.");
-                }
-              }
-            } catch (Exception e) {
-              QMessageBox.critical(this, "Erro", "Erro ao encerrar a conta: " + e.getMessage());
-            }
-          } else {
-            QMessageBox.warning(this, "Erro", "Por favor, insira o CPF.");
+          var data = fetched[0];
+          var index = accountDropdown.currentIndex();
+          if (data == null || index < 0) {
+            QMessageBox.warning(this, "Erro", "Busque os dados do cliente primeiro.");
+            return;
           }
+          confirmAccountClosure(
+              closeAccountDialog, closeButton, data.getCpf(), data.getAccounts().get(index));
         });
 
     cancelButton.clicked.connect(closeAccountDialog::reject);
@@ -506,4 +611,49 @@ public final class EmployeeMainPage extends QWidget {
     closeAccountDialog.setLayout(dialogLayout);
     closeAccountDialog.exec();
   }
+
+  private static String describeAccount(AccountSnapshot snapshot) {
+    var metadata = snapshot.metadata();
+    return String.format(
+        "Conta %s - Agência %s - %s - Saldo R$ %s",
+        metadata.accountNumber(),
+        metadata.branch(),
+        metadata.isChecking() ? "Corrente" : "Poupança",
+        Money.format(snapshot.account().balanceCents()));
+  }
+
+  private void confirmAccountClosure(
+      QDialog closeAccountDialog, QPushButton closeButton, String cpf, AccountSnapshot snapshot) {
+    int response =
+        QMessageBox.question(
+            this,
+            "Confirmar Encerramento",
+            String.format(
+                "Tem certeza que deseja encerrar a conta?\nCPF: %s\n%s",
+                cpf, describeAccount(snapshot)),
+            QMessageBox.StandardButton.Yes,
+            QMessageBox.StandardButton.No);
+
+    if (response != QMessageBox.StandardButton.Yes.value()) {
+      return;
+    }
+
+    var accountController = new AccountController();
+    UiThread.onComplete(
+        closeButton,
+        accountController.closeAccountAsync(snapshot),
+        success -> {
+          if (success) {
+            QMessageBox.information(this, "Sucesso", "Conta encerrada com sucesso.");
+            closeAccountDialog.accept();
+          } else {
+            QMessageBox.warning(
+                this,
+                "Erro",
+                "A conta foi movimentada ou encerrada depois da consulta. "
+                    + "Busque os dados novamente.");
+          }
+        },
+        e -> QMessageBox.critical(this, "Erro", "Erro ao encerrar a conta: " + e.getMessage()));
+  }
 }
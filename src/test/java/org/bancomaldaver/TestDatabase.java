@@ -0,0 +1,306 @@
+package org.bancomaldaver;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.UncheckedIOException;
+import java.math.BigDecimal;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.sql.Connection;
+import java.sql.DriverManager;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Properties;
+import java.util.concurrent.atomic.AtomicInteger;
+import org.bancomaldaver.utils.Money;
+import org.junit.jupiter.api.Assumptions;
+
+/**
+ * Banco de teste: o {@code schema.sql} recriado com outro nome ({@value #NAME}), para nunca tocar o
+ * banco de desenvolvimento. A aplicação é apontada para ele pela propriedade {@code
+ * bancomalvader.db.url} antes que qualquer pool suba.
+ *
+ * <p>O servidor vem de {@code -Dbancomalvader.test.serverUrl} (padrão {@code
+ * jdbc:mysql://localhost:3306/}), com o usuário e a senha do {@code database.properties}. Sem
+ * servidor, os testes que dependem do banco são ignorados em vez de falhar.
+ */
+public final class TestDatabase {
+  public static final String NAME = "banco_malvader_test";
+  public static final String SERVER_URL =
+      System.getProperty("bancomalvader.test.serverUrl", "jdbc:mysql://localhost:3306/");
+
+  private static final Properties settings = loadSettings();
+  // bem acima dos números que a sequência distribui
+  private static final AtomicInteger nextAccountNumber = new AtomicInteger(5_000_000);
+  private static final Map<String, String> loadedScripts = new HashMap<>();
+  private static Boolean available;
+
+  static {
+    if (System.getProperty("bancomalvader.db.url") == null) {
+      System.setProperty("bancomalvader.db.url", SERVER_URL + NAME);
+    }
+  }
+
+  public record Account(int id, int number, String cpf, String branch) {}
+
+  private TestDatabase() {
+    throw new UnsupportedOperationException("Essa classe não pode ser instanciada diretamente.");
+  }
+
+  public static synchronized boolean isAvailable() {
+    if (available == null) {
+      try (var connection = DriverManager.getConnection(SERVER_URL, username(), password())) {
+        available = connection.isValid(2);
+      } catch (SQLException e) {
+        available = false;
+      }
+    }
+    return available;
+  }
+
+  /** Recria o banco de teste só com o schema, uma vez por JVM. Sem servidor, ignora o teste. */
+  public static void prepare() {
+    Assumptions.assumeTrue(isAvailable(), "Servidor MySQL de teste indisponível em " + SERVER_URL);
+    load(SERVER_URL, "schema.sql");
+  }
+
+  /** Recria o banco de teste com o schema e a massa do {@code seed.sql}, uma vez por JVM. */
+  public static void prepareSeeded() {
+    Assumptions.assumeTrue(isAvailable(), "Servidor MySQL de teste indisponível em " + SERVER_URL);
+    load(SERVER_URL, "schema.sql", "seed.sql");
+  }
+
+  /**
+   * Recria o banco de teste só com o schema em outro servidor, que faz o papel de réplica. Não há
+   * replicação de verdade: o teste grava na "réplica" o que quiser que ela devolva.
+   */
+  public static void prepareReplica(String serverUrl) {
+    load(serverUrl, "schema.sql");
+  }
+
+  private static synchronized void load(String serverUrl, String... scripts) {
+    var key = String.join(",", scripts);
+    var loaded = loadedScripts.get(serverUrl);
+    if (key.equals(loaded)) {
+      return;
+    }
+    if (loaded != null) {
+      throw new IllegalStateException("Banco de teste já carregado com " + loaded + " nesta JVM.");
+    }
+
+    try (var connection = DriverManager.getConnection(serverUrl, username(), password());
+        var statement = connection.createStatement()) {
+      for (var script : scripts) {
+        execute(statement, Files.readString(Path.of(script), StandardCharsets.UTF_8));
+      }
+    } catch (IOException e) {
+      throw new UncheckedIOException(e);
+    } catch (SQLException e) {
+      throw new IllegalStateException("Erro ao recriar o banco de teste em " + serverUrl + ".", e);
+    }
+    loadedScripts.put(serverUrl, key);
+  }
+
+  /** Executa um script com um comando por {@code ;} no fim da linha, trocando o nome do banco. */
+  private static void execute(Statement statement, String script) throws SQLException {
+    var withoutComments = new StringBuilder();
+    for (var line : script.split("\n")) {
+      if (!line.strip().startsWith("--")) {
+        withoutComments.append(line).append('\n');
+      }
+    }
+
+    for (var command : withoutComments.toString().split(";\\s*\n")) {
+      var sql = command.replaceAll("\\bbanco_malvader\\b", NAME).strip();
+      if (!sql.isEmpty()) {
+        statement.execute(sql);
+      }
+    }
+  }
+
+  /** Conexão direta ao banco de teste, fora dos pools da aplicação, em autocommit. */
+  public static Connection connect() throws SQLException {
+    return connect(SERVER_URL);
+  }
+
+  /** Conexão direta ao banco de teste de outro servidor, em autocommit. */
+  public static Connection connect(String serverUrl) throws SQLException {
+    return DriverManager.getConnection(serverUrl + NAME, username(), password());
+  }
+
+  /**
+   * Cria um cliente com uma conta corrente na agência {@code TST}.
+   *
+   * @param passwordHash A senha já no formato gravado (hash ou texto puro).
+   */
+  public static Account createAccount(long balanceCents, String passwordHash) throws SQLException {
+    var number = nextAccountNumber.getAndIncrement();
+    var cpf = String.format("%011d", number);
+
+    try (var connection = connect()) {
+      var userId =
+          insert(
+              connection,
+              "INSERT INTO user (name, cpf, birth_date, phone, password, user_type) "
+                  + "VALUES (?, ?, '1990-01-01', NULL, ?, 'CUSTOMER')",
+              "Cliente " + number,
+              cpf,
+              passwordHash);
+      var customerId = insert(connection, "INSERT INTO customer (id_user) VALUES (?)", userId);
+      var accountId =
+          insert(
+              connection,
+              "INSERT INTO account (account_number, id_customer, branch, account_type, balance) "
+                  + "VALUES (?, ?, 'TST', 'CHECKING', ?)",
+              number,
+              customerId,
+              Money.toBigDecimal(balanceCents));
+      insert(
+          connection,
+          "INSERT INTO checking_account (id_account, credit_limit, due_date) "
+              + "VALUES (?, 0, '2030-01-01')",
+          accountId);
+      return new Account(accountId, number, cpf, "TST");
+    }
+  }
+
+  /**
+   * Cria um funcionário.
+   *
+   * @param passwordHash A senha já no formato gravado (hash ou texto puro).
+   * @return O código do funcionário.
+   */
+  public static String createEmployee(String passwordHash) throws SQLException {
+    var number = nextAccountNumber.getAndIncrement();
+    var code = "T" + number;
+
+    try (var connection = connect()) {
+      var userId =
+          insert(
+              connection,
+              "INSERT INTO user (name, cpf, birth_date, phone, password, user_type) "
+                  + "VALUES (?, ?, '1980-01-01', NULL, ?, 'EMPLOYEE')",
+              "Funcionário " + number,
+              String.format("%011d", number),
+              passwordHash);
+      insert(
+          connection,
+          "INSERT INTO employee (employee_code, role, id_user) VALUES (?, 'Analyst', ?)",
+          code,
+          userId);
+      return code;
+    }
+  }
+
+  /**
+   * Grava depósitos de 1,00 na conta, um por data, num único lote.
+   *
+   * @return Os ids gerados, na ordem das datas informadas.
+   */
+  public static List<Integer> insertTransactions(int accountId, List<LocalDateTime> dates)
+      throws SQLException {
+    try (var connection = connect();
+        var statement =
+            connection.prepareStatement(
+                "INSERT INTO transaction (transaction_type, amount, transaction_date, id_account) "
+                    + "VALUES ('DEPOSIT', 1.00, ?, ?)",
+                Statement.RETURN_GENERATED_KEYS)) {
+      for (var date : dates) {
+        statement.setObject(1, date);
+        statement.setInt(2, accountId);
+        statement.addBatch();
+      }
+      statement.executeBatch();
+
+      var ids = new ArrayList<Integer>();
+      try (var keys = statement.getGeneratedKeys()) {
+        while (keys.next()) {
+          ids.add(keys.getInt(1));
+        }
+      }
+      return ids;
+    }
+  }
+
+  public static long balanceOf(int accountId) throws SQLException {
+    return queryDecimal("SELECT balance FROM account WHERE id_account = ?", accountId)
+        .movePointRight(2)
+        .longValueExact();
+  }
+
+  public static long count(String sql, Object... parameters) throws SQLException {
+    return queryDecimal(sql, parameters).longValueExact();
+  }
+
+  /** Contador global do servidor ({@code SHOW GLOBAL STATUS}). */
+  public static long globalStatus(String variable) throws SQLException {
+    try (var connection = connect();
+        var statement = connection.prepareStatement("SHOW GLOBAL STATUS LIKE ?")) {
+      statement.setString(1, variable);
+      try (var resultSet = statement.executeQuery()) {
+        return resultSet.next() ? resultSet.getLong(2) : 0;
+      }
+    }
+  }
+
+  private static BigDecimal queryDecimal(String sql, Object... parameters) throws SQLException {
+    try (var connection = connect();
+        var statement = connection.prepareStatement(sql)) {
+      for (int i = 0; i < parameters.length; i++) {
+        statement.setObject(i + 1, parameters[i]);
+      }
+      try (var resultSet = statement.executeQuery()) {
+        if (!resultSet.next()) {
+          throw new SQLException("Nenhum resultado para: " + sql);
+        }
+        return resultSet.getBigDecimal(1);
+      }
+    }
+  }
+
+  private static int insert(Connection connection, String sql, Object... parameters)
+      throws SQLException {
+    try (var statement = connection.prepareStatement(sql, Statement.RETURN_GENERATED_KEYS)) {
+      for (int i = 0; i < parameters.length; i++) {
+        statement.setObject(i + 1, parameters[i]);
+      }
+      statement.executeUpdate();
+      try (var keys = statement.getGeneratedKeys()) {
+        keys.next();
+        return keys.getInt(1);
+      }
+    }
+  }
+
+  private static String username() {
+    return setting("db.username", "root");
+  }
+
+  private static String password() {
+    return setting("db.password", "");
+  }
+
+  private static String setting(String key, String defaultValue) {
+    var value = System.getProperty("bancomalvader." + key);
+    return value != null ? value : settings.getProperty(key, defaultValue).trim();
+  }
+
+  private static Properties loadSettings() {
+    var properties = new Properties();
+    try (InputStream input =
+        TestDatabase.class.getClassLoader().getResourceAsStream("database.properties")) {
+      if (input != null) {
+        properties.load(input);
+      }
+    } catch (IOException e) {
+      throw new UncheckedIOException(e);
+    }
+    return properties;
+  }
+}
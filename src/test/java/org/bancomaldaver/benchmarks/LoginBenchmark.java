@@ -0,0 +1,81 @@
+package org.bancomaldaver.benchmarks;
+
+import java.util.concurrent.TimeUnit;
+import org.bancomaldaver.TestDatabase;
+import org.bancomaldaver.controllers.EmployeeController;
+import org.bancomaldaver.controllers.UserController;
+import org.bancomaldaver.models.EmployeeSession;
+import org.bancomaldaver.utils.PasswordHasher;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Threads;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Logins simultâneos, pela mesma entrada da tela. A senha certa cai no cache de verificações depois
+ * do primeiro acerto; a errada nunca entra nele, então cada tentativa paga um PBKDF2 inteiro e mede
+ * a vazão do pool de hash. A confirmação de senha do funcionário roda com um e com vários
+ * funcionários cadastrados: ela busca pelo código, então o custo não pode crescer com o cadastro.
+ *
+ * <pre>{@code
+ * mvn -Pbenchmark test-compile exec:exec -Dbenchmark="LoginBenchmark"
+ * }</pre>
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode({Mode.Throughput, Mode.SampleTime})
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Threads(8)
+@Warmup(iterations = 2, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class LoginBenchmark {
+  private static final String PASSWORD = "senha-benchmark";
+  private static final String WRONG_PASSWORD = "senha-errada";
+
+  @Param({"1", "100"})
+  public int employees;
+
+  private final UserController userController = new UserController();
+  private final EmployeeController employeeController = new EmployeeController();
+  private TestDatabase.Account account;
+  private EmployeeSession employeeSession;
+
+  @Setup(Level.Trial)
+  public void setUp() throws Exception {
+    TestDatabase.prepare();
+    var passwordHash = PasswordHasher.hash(PASSWORD);
+    account = TestDatabase.createAccount(100_00, passwordHash);
+
+    String employeeCode = null;
+    for (int i = 0; i < employees; i++) {
+      employeeCode = TestDatabase.createEmployee(passwordHash);
+    }
+    employeeSession = employeeController.login(employeeCode, PASSWORD);
+  }
+
+  @Benchmark
+  public boolean customerLogin() throws Exception {
+    var session = userController.login(account.cpf(), PASSWORD, account.branch());
+    userController.logout(session);
+    return session != null;
+  }
+
+  @Benchmark
+  public boolean customerLoginWithWrongPassword() throws Exception {
+    return userController.login(account.cpf(), WRONG_PASSWORD, account.branch()) != null;
+  }
+
+  @Benchmark
+  public boolean employeeAuthenticateWithWrongPassword() throws Exception {
+    return employeeController.authenticate(employeeSession, WRONG_PASSWORD);
+  }
+}
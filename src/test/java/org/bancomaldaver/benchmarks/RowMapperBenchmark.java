@@ -0,0 +1,153 @@
+package org.bancomaldaver.benchmarks;
+
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+import org.bancomaldaver.TestDatabase;
+import org.bancomaldaver.models.StatementEntry;
+import org.bancomaldaver.utils.Money;
+import org.bancomaldaver.utils.RowMapper;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+
+/**
+ * Alocação do mapeamento de linhas: o {@link RowMapper} de {@link StatementEntry}, igual ao do
+ * {@code CustomerDAO}, contra o caminho antigo, que copiava cada linha para um {@code
+ * HashMap<String, String>} pelo rótulo da coluna. As três variantes rodam a mesma consulta na mesma
+ * conexão; {@code driverOnly} só percorre as linhas e dá o custo do driver, que as outras duas
+ * também pagam.
+ *
+ * <p>Rodar com o profiler de GC e comparar {@code gc.alloc.rate.norm} (bytes por operação):
+ *
+ * <pre>{@code
+ * mvn -Pbenchmark test-compile exec:exec -Dbenchmark="RowMapperBenchmark -prof gc"
+ * }</pre>
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class RowMapperBenchmark {
+  private static final String SQL =
+      "SELECT id_transaction, transaction_type, amount, transaction_date "
+          + "FROM transaction WHERE id_account = ? "
+          + "ORDER BY transaction_date, id_transaction LIMIT ?";
+
+  private static final RowMapper.Factory<StatementEntry> STATEMENT_ENTRY_MAPPER =
+      resultSet -> {
+        var id = resultSet.findColumn("id_transaction");
+        var type = resultSet.findColumn("transaction_type");
+        var amount = resultSet.findColumn("amount");
+        var date = resultSet.findColumn("transaction_date");
+
+        return row ->
+            new StatementEntry(
+                row.getInt(id),
+                row.getString(type),
+                Money.read(row, amount),
+                row.getObject(date, LocalDateTime.class));
+      };
+
+  @Param({"50", "500"})
+  public int rows;
+
+  private Connection connection;
+  private PreparedStatement statement;
+
+  @Setup(Level.Trial)
+  public void setUp() throws Exception {
+    TestDatabase.prepare();
+    var accountId = TestDatabase.createAccount(0, "senha").id();
+    try (var insert = TestDatabase.connect()) {
+      insert.setAutoCommit(false);
+      try (var batch =
+          insert.prepareStatement(
+              "INSERT INTO transaction (transaction_type, amount, transaction_date, id_account) "
+                  + "VALUES ('DEPOSIT', ?, ?, ?)")) {
+        var start = LocalDateTime.of(2024, 1, 1, 0, 0);
+        for (int i = 0; i < rows; i++) {
+          batch.setBigDecimal(1, Money.toBigDecimal(1_00 + i));
+          batch.setObject(2, start.plusMinutes(i));
+          batch.setInt(3, accountId);
+          batch.addBatch();
+        }
+        batch.executeBatch();
+      }
+      insert.commit();
+    }
+
+    connection = TestDatabase.connect();
+    statement = connection.prepareStatement(SQL);
+    statement.setInt(1, accountId);
+    statement.setInt(2, rows);
+  }
+
+  @TearDown(Level.Trial)
+  public void tearDown() throws SQLException {
+    statement.close();
+    connection.close();
+  }
+
+  @Benchmark
+  public void driverOnly(Blackhole blackhole) throws SQLException {
+    try (var resultSet = statement.executeQuery()) {
+      while (resultSet.next()) {
+        blackhole.consume(resultSet);
+      }
+    }
+  }
+
+  @Benchmark
+  public List<StatementEntry> rowMapper() throws SQLException {
+    try (var resultSet = statement.executeQuery()) {
+      var mapper = STATEMENT_ENTRY_MAPPER.bind(resultSet);
+      var results = new ArrayList<StatementEntry>();
+      while (resultSet.next()) {
+        results.add(mapper.mapRow(resultSet));
+      }
+      return results;
+    }
+  }
+
+  /** O laço do antigo {@code executeQueryForMultipleResults}. */
+  @Benchmark
+  public List<Map<String, String>> hashMapRows() throws SQLException {
+    try (ResultSet resultSet = statement.executeQuery()) {
+      List<Map<String, String>> results = new ArrayList<>();
+      var metaData = resultSet.getMetaData();
+      var columnCount = metaData.getColumnCount();
+
+      while (resultSet.next()) {
+        Map<String, String> row = new HashMap<>();
+        for (var i = 1; i <= columnCount; i++) {
+          String columnName = metaData.getColumnLabel(i);
+          Object value = resultSet.getObject(i);
+          row.put(columnName, value != null ? value.toString() : "");
+        }
+        results.add(row);
+      }
+      return results;
+    }
+  }
+}
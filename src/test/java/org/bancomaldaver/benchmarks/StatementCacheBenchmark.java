@@ -0,0 +1,75 @@
+package org.bancomaldaver.benchmarks;
+
+import java.util.concurrent.TimeUnit;
+import org.bancomaldaver.TestDatabase;
+import org.bancomaldaver.dao.CredentialDAO;
+import org.bancomaldaver.dao.CustomerDAO;
+import org.bancomaldaver.models.CustomerLogin;
+import org.bancomaldaver.utils.StatementCacheStats;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Latência das consultas do login e do saldo com o cache de prepared statements ligado e desligado
+ * ({@code db.statementCache.enabled}). Cada valor do parâmetro roda numa JVM própria, então a
+ * propriedade é lida quando o pool sobe. O fim de cada rodada imprime a taxa de acerto do cache no
+ * servidor.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.SampleTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class StatementCacheBenchmark {
+  @Param({"true", "false"})
+  public String statementCache;
+
+  private TestDatabase.Account account;
+  private StatementCacheStats start;
+
+  @Setup(Level.Trial)
+  public void setUp() throws Exception {
+    System.setProperty("bancomalvader.db.statementCache.enabled", statementCache);
+    TestDatabase.prepare();
+    account = TestDatabase.createAccount(100_00, "senha");
+  }
+
+  @Setup(Level.Iteration)
+  public void startCounting() {
+    start = StatementCacheStats.snapshot();
+  }
+
+  @TearDown(Level.Iteration)
+  public void report() {
+    var stats = StatementCacheStats.snapshot().minus(start);
+    if (stats.executions() == 0) {
+      // sem o cache o driver monta o SQL no cliente e o servidor não vê prepared statements
+      return;
+    }
+    System.out.printf(
+        "%n%d execuções, %d prepares, acerto %.1f%%%n",
+        stats.executions(), stats.prepares(), stats.hitRate() * 100);
+  }
+
+  @Benchmark
+  public CustomerLogin loginQuery() {
+    return CredentialDAO.findCustomerLogin(account.cpf(), account.branch());
+  }
+
+  @Benchmark
+  public long balanceQuery() throws Exception {
+    return CustomerDAO.getBalance(account.id());
+  }
+}
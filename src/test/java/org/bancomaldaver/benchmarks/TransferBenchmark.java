@@ -0,0 +1,105 @@
+package org.bancomaldaver.benchmarks;
+
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.IntStream;
+import org.bancomaldaver.TestDatabase;
+import org.bancomaldaver.controllers.TransferController;
+import org.bancomaldaver.controllers.UserController;
+import org.bancomaldaver.models.CustomerSession;
+import org.bancomaldaver.utils.PasswordHasher;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Threads;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Transferências entre pares aleatórios de contas, de várias threads ao mesmo tempo. O modo de
+ * amostragem dá a latência com percentis (p99) e o de vazão, as transferências por segundo. Com
+ * poucas contas os pares se repetem e as transações disputam as mesmas linhas; o fim da rodada
+ * imprime quantos deadlocks o banco registrou. As transferências passam pela sessão do cliente,
+ * como no app: o login de cada conta na preparação já deixa a senha no cache de verificações.
+ *
+ * <pre>{@code
+ * mvn -Pbenchmark test-compile exec:exec -Dbenchmark="TransferBenchmark -p accounts=10"
+ * }</pre>
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode({Mode.Throughput, Mode.SampleTime})
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Threads(8)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class TransferBenchmark {
+  private static final String PASSWORD = "senha-benchmark";
+
+  @Param({"10", "1000"})
+  public int accounts;
+
+  private final TransferController controller = new TransferController();
+  private CustomerSession[] sessions;
+  private String[] accountNumbers;
+  private long deadlocks;
+
+  @Setup(Level.Trial)
+  public void setUp() throws Exception {
+    TestDatabase.prepare();
+    var passwordHash = PasswordHasher.hash(PASSWORD);
+    var testAccounts = new TestDatabase.Account[accounts];
+    for (int i = 0; i < accounts; i++) {
+      // saldo folgado: o benchmark mede a transferência, não a recusa por saldo
+      testAccounts[i] = TestDatabase.createAccount(1_000_000_00L, passwordHash);
+    }
+
+    var userController = new UserController();
+    sessions = new CustomerSession[accounts];
+    accountNumbers = new String[accounts];
+    // um PBKDF2 por conta, em paralelo; as transferências depois só conferem o cache
+    IntStream.range(0, accounts)
+        .parallel()
+        .forEach(
+            i -> {
+              var account = testAccounts[i];
+              try {
+                sessions[i] = userController.login(account.cpf(), PASSWORD, account.branch());
+              } catch (Exception e) {
+                throw new IllegalStateException(
+                    "Login da conta " + account.number() + " falhou.", e);
+              }
+              accountNumbers[i] = String.valueOf(account.number());
+            });
+  }
+
+  @Setup(Level.Iteration)
+  public void startCounting() throws Exception {
+    deadlocks = TestDatabase.globalStatus("Innodb_deadlocks");
+  }
+
+  @TearDown(Level.Iteration)
+  public void report() throws Exception {
+    System.out.printf(
+        "%n%d deadlocks na rodada%n", TestDatabase.globalStatus("Innodb_deadlocks") - deadlocks);
+  }
+
+  @Benchmark
+  public void transfer() throws Exception {
+    var random = ThreadLocalRandom.current();
+    var source = random.nextInt(accounts);
+    var target = random.nextInt(accounts - 1);
+    if (target >= source) {
+      target++;
+    }
+    controller.transfer(sessions[source], accountNumbers[target], 1_00, PASSWORD);
+  }
+}
@@ -0,0 +1,83 @@
+package org.bancomaldaver.benchmarks;
+
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+import org.bancomaldaver.TestDatabase;
+import org.bancomaldaver.dao.CustomerDAO;
+import org.bancomaldaver.utils.PoolMetrics;
+import org.bancomaldaver.utils.UnitOfWork;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Depósito numa unidade de trabalho contra o caminho antigo, com cada comando na sua conexão e em
+ * autocommit. Além do tempo, o fim de cada rodada imprime conexões tiradas do pool e COMMITs por
+ * operação: a unidade deve dar uma conexão e um commit.
+ *
+ * <p>Os COMMITs vêm do contador global do servidor; rodar com o banco de teste sem outros clientes.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class UnitOfWorkBenchmark {
+  private static final long AMOUNT_CENTS = 1_00;
+
+  private final LongAdder operations = new LongAdder();
+  private int accountId;
+  private long acquisitions;
+  private long commits;
+
+  @Setup(Level.Trial)
+  public void setUp() throws Exception {
+    TestDatabase.prepare();
+    accountId = TestDatabase.createAccount(0, "senha").id();
+  }
+
+  @Setup(Level.Iteration)
+  public void startCounting() throws Exception {
+    operations.reset();
+    acquisitions = PoolMetrics.snapshot().acquisitions();
+    commits = TestDatabase.globalStatus("Com_commit");
+  }
+
+  @TearDown(Level.Iteration)
+  public void report() throws Exception {
+    var count = Math.max(1, operations.sum());
+    System.out.printf(
+        "%n%d operações: %.2f conexões/op, %.2f commits/op%n",
+        operations.sum(),
+        (double) (PoolMetrics.snapshot().acquisitions() - acquisitions) / count,
+        (double) (TestDatabase.globalStatus("Com_commit") - commits) / count);
+  }
+
+  @Benchmark
+  public void depositInUnit() throws Exception {
+    UnitOfWork.run(
+        () -> {
+          CustomerDAO.updateBalance(accountId, AMOUNT_CENTS);
+          CustomerDAO.insertTransaction(accountId, "DEPOSIT", AMOUNT_CENTS);
+        });
+    operations.increment();
+  }
+
+  @Benchmark
+  public void depositPerStatement() throws Exception {
+    // fora de uma unidade cada comando pega a própria conexão e confirma sozinho
+    CustomerDAO.updateBalance(accountId, AMOUNT_CENTS);
+    CustomerDAO.insertTransaction(accountId, "DEPOSIT", AMOUNT_CENTS);
+    operations.increment();
+  }
+}
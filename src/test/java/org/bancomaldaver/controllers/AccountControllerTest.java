@@ -0,0 +1,80 @@
+package org.bancomaldaver.controllers;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+import java.time.LocalDate;
+import org.bancomaldaver.TestDatabase;
+import org.bancomaldaver.models.Address;
+import org.bancomaldaver.models.CheckingAccount;
+import org.bancomaldaver.models.Customer;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+
+class AccountControllerTest {
+  private final AccountController controller = new AccountController();
+
+  @BeforeAll
+  static void prepareDatabase() {
+    TestDatabase.prepare();
+  }
+
+  @Test
+  void customerAndCheckingAccountAreCreatedTogether() throws Exception {
+    var cpf = "71000000001";
+
+    controller.createCustomerWithCheckingAccount(customer(cpf), checkingAccount(LocalDate.now()));
+
+    assertEquals(1, usersWithCpf(cpf));
+    assertEquals(
+        1,
+        TestDatabase.count(
+            "SELECT COUNT(*) FROM checking_account ca"
+                + " JOIN account a ON ca.id_account = a.id_account"
+                + " JOIN customer c ON a.id_customer = c.id_customer"
+                + " JOIN user u ON c.id_user = u.id_user WHERE u.cpf = ?",
+            cpf));
+  }
+
+  /** A conta corrente sem vencimento é recusada pelo banco; o usuário não pode ficar sem conta. */
+  @Test
+  void failedAccountInsertLeavesNoUserBehind() throws Exception {
+    var cpf = "71000000002";
+
+    assertThrows(
+        Exception.class,
+        () -> controller.createCustomerWithCheckingAccount(customer(cpf), checkingAccount(null)));
+
+    assertEquals(0, usersWithCpf(cpf));
+  }
+
+  private static long usersWithCpf(String cpf) throws Exception {
+    return TestDatabase.count("SELECT COUNT(*) FROM user WHERE cpf = ?", cpf);
+  }
+
+  private static CheckingAccount checkingAccount(LocalDate dueDate) {
+    var account = new CheckingAccount();
+    account.setBranch("TST");
+    account.setLimitCents(50_000);
+    account.setDueDate(dueDate);
+    return account;
+  }
+
+  private static Customer customer(String cpf) {
+    var address = new Address();
+    address.setZipCode("70000-000");
+    address.setStreet("Rua Teste");
+    address.setHouseNumber(1);
+    address.setNeighborhood("Centro");
+    address.setCity("Brasília");
+    address.setState("DF");
+
+    var customer = new Customer();
+    customer.setName("Cliente Novo");
+    customer.setCpf(cpf);
+    customer.setBirthDate(LocalDate.of(1990, 1, 1));
+    customer.setPassword("senha");
+    customer.setAddress(address);
+    return customer;
+  }
+}
@@ -0,0 +1,136 @@
+package org.bancomaldaver.controllers;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import org.bancomaldaver.TestDatabase;
+import org.bancomaldaver.dao.AccountMetadataCache;
+import org.bancomaldaver.models.AccountDetails;
+import org.bancomaldaver.models.CustomerSession;
+import org.bancomaldaver.models.StatementEntry;
+import org.bancomaldaver.models.TransactionCursor;
+import org.bancomaldaver.utils.PasswordHasher;
+import org.bancomaldaver.utils.PoolMetrics;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+
+/**
+ * Conta conexões e comandos de cada operação pelos contadores do pool e do servidor. Os contadores
+ * do servidor são globais, então o banco de teste não pode ter outros clientes durante o teste.
+ */
+class CustomerControllerTest {
+  private static final String PASSWORD = "senha-teste";
+  private static final String PASSWORD_HASH = PasswordHasher.hash(PASSWORD);
+
+  private final CustomerController controller = new CustomerController();
+
+  @BeforeAll
+  static void prepareDatabase() {
+    TestDatabase.prepare();
+  }
+
+  @Test
+  void depositUsesOneConnectionAndOneCommit() throws Exception {
+    var session = openSession(TestDatabase.createAccount(100_00, PASSWORD_HASH));
+    // a primeira operação abre o pool e prepara os comandos nas conexões
+    controller.deposit(session, 1);
+
+    var usage = Usage.start();
+    controller.deposit(session, 10_00);
+    usage.assertEquals(1, 1, 2);
+
+    assertEquals(110_01, TestDatabase.balanceOf(session.accountId()));
+  }
+
+  @Test
+  void withdrawDebitsInOneConnectionAndOneCommit() throws Exception {
+    var session = openSession(TestDatabase.createAccount(100_00, PASSWORD_HASH));
+    controller.withdraw(session, 1, PASSWORD);
+
+    // a senha é conferida antes da unidade, numa leitura à parte, para o hash não segurar a
+    // conexão da transação; o débito e o lançamento vão juntos num commit
+    var usage = Usage.start();
+    controller.withdraw(session, 10_00, PASSWORD);
+    usage.assertEquals(2, 1, 3);
+
+    assertEquals(89_99, TestDatabase.balanceOf(session.accountId()));
+  }
+
+  @Test
+  void statementPagesVisitEveryEntryOnceAcrossEqualTimestamps() throws Exception {
+    var account = TestDatabase.createAccount(0, PASSWORD_HASH);
+    var session = openSession(account);
+    // três lançamentos por minuto: várias páginas terminam no meio de um mesmo instante
+    var dates = new ArrayList<LocalDateTime>();
+    for (int i = 0; i < 130; i++) {
+      dates.add(LocalDateTime.of(2024, 3, 1, 12, 0).plusMinutes(i / 3));
+    }
+    var expected = TestDatabase.insertTransactions(account.id(), dates);
+
+    var seen = new ArrayList<Integer>();
+    TransactionCursor after = null;
+    do {
+      var page = controller.getStatementPage(session, null, null, after);
+      page.entries().forEach(entry -> seen.add(entry.transactionId()));
+      after = page.next();
+    } while (after != null);
+
+    assertEquals(expected, seen);
+  }
+
+  /** Voltando do fim ao começo, as páginas anteriores trazem as mesmas linhas na mesma ordem. */
+  @Test
+  void previousPagesWalkBackToTheFirstEntry() throws Exception {
+    var account = TestDatabase.createAccount(0, PASSWORD_HASH);
+    var session = openSession(account);
+    var dates = new ArrayList<LocalDateTime>();
+    for (int i = 0; i < 130; i++) {
+      dates.add(LocalDateTime.of(2024, 3, 1, 12, 0).plusMinutes(i / 3));
+    }
+    var expected = TestDatabase.insertTransactions(account.id(), dates);
+
+    var last = expected.get(expected.size() - 1);
+    var seen = new ArrayList<Integer>(List.of(last));
+    TransactionCursor before = new TransactionCursor(dates.get(dates.size() - 1), last);
+    do {
+      var page = controller.getStatementPageBefore(session, null, before);
+      seen.addAll(0, page.entries().stream().map(StatementEntry::transactionId).toList());
+      before = page.next();
+    } while (before != null);
+
+    assertEquals(expected, seen);
+  }
+
+  private static CustomerSession openSession(TestDatabase.Account account) throws Exception {
+    var metadata = AccountMetadataCache.getById(account.id());
+    return new CustomerSession(
+        SessionRegistry.CUSTOMERS.open(),
+        new AccountDetails(metadata, TestDatabase.balanceOf(account.id())));
+  }
+
+  /** Conexões tiradas do pool, COMMITs e comandos executados desde o início da medição. */
+  private record Usage(long acquisitions, long commits, long executions) {
+    static Usage start() throws Exception {
+      return new Usage(
+          PoolMetrics.snapshot().acquisitions(),
+          TestDatabase.globalStatus("Com_commit"),
+          TestDatabase.globalStatus("Com_stmt_execute"));
+    }
+
+    void assertEquals(long expectedAcquisitions, long expectedCommits, long expectedExecutions)
+        throws Exception {
+      org.junit.jupiter.api.Assertions.assertEquals(
+          expectedAcquisitions,
+          PoolMetrics.snapshot().acquisitions() - acquisitions,
+          "conexões tiradas do pool");
+      org.junit.jupiter.api.Assertions.assertEquals(
+          expectedCommits, TestDatabase.globalStatus("Com_commit") - commits, "commits");
+      org.junit.jupiter.api.Assertions.assertEquals(
+          expectedExecutions,
+          TestDatabase.globalStatus("Com_stmt_execute") - executions,
+          "comandos executados");
+    }
+  }
+}
@@ -0,0 +1,76 @@
+package org.bancomaldaver.controllers;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import org.bancomaldaver.TestDatabase;
+import org.bancomaldaver.models.LedgerEntry;
+import org.bancomaldaver.models.TransactionCursor;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+
+class EmployeeControllerTest {
+  private final EmployeeController controller = new EmployeeController();
+
+  @BeforeAll
+  static void prepareDatabase() {
+    TestDatabase.prepare();
+  }
+
+  /** O razão mistura as contas; os empates de data são desfeitos pelo id em todas as páginas. */
+  @Test
+  void ledgerPagesVisitEveryEntryOnceAcrossEqualTimestamps() throws Exception {
+    var first = TestDatabase.createAccount(0, "senha").id();
+    var second = TestDatabase.createAccount(0, "senha").id();
+    // cinco lançamentos por minuto em cada conta, gravados em lotes separados
+    var dates = new ArrayList<LocalDateTime>();
+    for (int i = 0; i < 250; i++) {
+      dates.add(LocalDateTime.of(2024, 3, 1, 12, 0).plusMinutes(i / 5));
+    }
+    var firstIds = TestDatabase.insertTransactions(first, dates);
+    var secondIds = TestDatabase.insertTransactions(second, dates);
+
+    var expected = new ArrayList<Integer>();
+    for (int i = 0; i < dates.size(); i += 5) {
+      expected.addAll(firstIds.subList(i, i + 5));
+      expected.addAll(secondIds.subList(i, i + 5));
+    }
+
+    // o razão também traz os lançamentos de exemplo do schema.sql
+    var inserted = new HashSet<>(expected);
+    var seen = walkLedger().stream().filter(inserted::contains).toList();
+    assertEquals(expected, seen);
+
+    // e de volta: do último lançamento inserido até o começo do razão, pelas páginas anteriores
+    var last = secondIds.get(secondIds.size() - 1);
+    var backwards =
+        walkLedgerBackwards(new TransactionCursor(dates.get(dates.size() - 1), last)).stream()
+            .filter(inserted::contains)
+            .toList();
+    assertEquals(expected.subList(0, expected.size() - 1), backwards);
+  }
+
+  private List<Integer> walkLedger() {
+    var seen = new ArrayList<Integer>();
+    TransactionCursor after = null;
+    do {
+      var page = controller.getLedgerPage(after);
+      page.entries().forEach(entry -> seen.add(entry.transactionId()));
+      after = page.next();
+    } while (after != null);
+    return seen;
+  }
+
+  private List<Integer> walkLedgerBackwards(TransactionCursor before) {
+    var seen = new ArrayList<Integer>();
+    do {
+      var page = controller.getLedgerPageBefore(before);
+      seen.addAll(0, page.entries().stream().map(LedgerEntry::transactionId).toList());
+      before = page.next();
+    } while (before != null);
+    return seen;
+  }
+}
@@ -0,0 +1,82 @@
+package org.bancomaldaver.controllers;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+import java.util.ArrayList;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import org.bancomaldaver.TestDatabase;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+
+class TransferControllerTest {
+  private static final int THREADS = 8;
+  private static final int TRANSFERS = 200;
+
+  private final TransferController controller = new TransferController();
+
+  @BeforeAll
+  static void prepareDatabase() {
+    TestDatabase.prepare();
+  }
+
+  /**
+   * Transferências nos dois sentidos entre as mesmas contas, ao mesmo tempo. Travando as contas
+   * sempre na mesma ordem, nenhuma transação entra em deadlock; o dinheiro só muda de lado.
+   */
+  @Test
+  void opposingTransfersNeitherDeadlockNorLoseMoney() throws Exception {
+    var initialBalance = 1_000_00L;
+    var first = TestDatabase.createAccount(initialBalance, "senha").id();
+    var second = TestDatabase.createAccount(initialBalance, "senha").id();
+    var deadlocksBefore = TestDatabase.globalStatus("Innodb_deadlocks");
+
+    var start = new CountDownLatch(1);
+    var executor = Executors.newFixedThreadPool(THREADS);
+    try {
+      var results = new ArrayList<Future<?>>();
+      for (int i = 0; i < TRANSFERS; i++) {
+        // pares vão da primeira para a segunda, ímpares voltam com o dobro
+        var forward = i % 2 == 0;
+        results.add(
+            executor.submit(
+                () -> {
+                  start.await();
+                  if (forward) {
+                    controller.transfer(first, second, 1_00);
+                  } else {
+                    controller.transfer(second, first, 2_00);
+                  }
+                  return null;
+                }));
+      }
+      start.countDown();
+      for (var result : results) {
+        result.get();
+      }
+    } finally {
+      executor.shutdown();
+    }
+
+    var net = (TRANSFERS / 2) * (2_00 - 1_00);
+    assertEquals(initialBalance + net, TestDatabase.balanceOf(first));
+    assertEquals(initialBalance - net, TestDatabase.balanceOf(second));
+    assertEquals(
+        2L * TRANSFERS,
+        TestDatabase.count(
+            "SELECT COUNT(*) FROM transaction WHERE id_account IN (?, ?) AND transaction_type = ?",
+            first,
+            second,
+            "TRANSFER"),
+        "lançamentos");
+    assertEquals(
+        0,
+        TestDatabase.count(
+            "SELECT COALESCE(SUM(amount), 0) FROM transaction WHERE id_account IN (?, ?)",
+            first,
+            second),
+        "soma dos lançamentos");
+    assertEquals(0, TestDatabase.globalStatus("Innodb_deadlocks") - deadlocksBefore, "deadlocks");
+  }
+}
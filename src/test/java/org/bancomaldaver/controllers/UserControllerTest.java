@@ -0,0 +1,60 @@
+package org.bancomaldaver.controllers;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.time.LocalDate;
+import org.bancomaldaver.TestDatabase;
+import org.bancomaldaver.dao.CpfRegistry;
+import org.bancomaldaver.models.Address;
+import org.bancomaldaver.models.Customer;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+
+class UserControllerTest {
+  private final UserController controller = new UserController();
+
+  @BeforeAll
+  static void prepareDatabase() {
+    TestDatabase.prepare();
+  }
+
+  /**
+   * Outro processo cadastra o CPF depois da carga do filtro: a verificação deixa passar, a chave
+   * única recusa a inserção e o cadastro termina com o mesmo erro da verificação.
+   */
+  @Test
+  void cpfRegisteredByAnotherProcessIsRejectedAsDuplicate() throws Exception {
+    CpfRegistry.load();
+    var cpf = TestDatabase.createAccount(0, "senha").cpf();
+    // o "não existe" do filtro está desatualizado
+    assertFalse(CpfRegistry.exists(cpf));
+
+    var error =
+        assertThrows(
+            IllegalArgumentException.class, () -> controller.createUserWithAddress(customer(cpf)));
+
+    assertEquals("CPF já cadastrado.", error.getMessage());
+    assertTrue(CpfRegistry.exists(cpf));
+  }
+
+  private static Customer customer(String cpf) {
+    var address = new Address();
+    address.setZipCode("70000-000");
+    address.setStreet("Rua Teste");
+    address.setHouseNumber(1);
+    address.setNeighborhood("Centro");
+    address.setCity("Brasília");
+    address.setState("DF");
+
+    var customer = new Customer();
+    customer.setName("Cliente Duplicado");
+    customer.setCpf(cpf);
+    customer.setBirthDate(LocalDate.of(1990, 1, 1));
+    customer.setPassword("senha");
+    customer.setAddress(address);
+    return customer;
+  }
+}
@@ -0,0 +1,52 @@
+package org.bancomaldaver.dao;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.concurrent.Callable;
+import java.util.concurrent.Executors;
+import org.bancomaldaver.TestDatabase;
+import org.bancomaldaver.utils.PoolMetrics;
+import org.bancomaldaver.utils.UnitOfWork;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+
+class AccountNumberAllocatorTest {
+  @BeforeAll
+  static void prepareDatabase() {
+    TestDatabase.prepare();
+  }
+
+  @Test
+  void refusesToReserveInsideAUnit() throws Exception {
+    var acquisitions = PoolMetrics.snapshot().acquisitions();
+
+    assertThrows(
+        IllegalStateException.class,
+        () -> UnitOfWork.call(AccountNumberAllocator::nextAccountNumber));
+
+    // só a conexão da própria unidade; nenhuma segunda conexão para a reserva
+    assertEquals(acquisitions + 1, PoolMetrics.snapshot().acquisitions());
+  }
+
+  @Test
+  void concurrentCallersNeverShareANumber() throws Exception {
+    var executor = Executors.newFixedThreadPool(8);
+    try {
+      var tasks = new ArrayList<Callable<Integer>>();
+      for (int i = 0; i < 500; i++) {
+        tasks.add(AccountNumberAllocator::nextAccountNumber);
+      }
+
+      var numbers = new HashSet<Integer>();
+      for (var result : executor.invokeAll(tasks)) {
+        numbers.add(result.get());
+      }
+      assertEquals(500, numbers.size());
+    } finally {
+      executor.shutdown();
+    }
+  }
+}
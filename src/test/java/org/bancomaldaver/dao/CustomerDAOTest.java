@@ -0,0 +1,78 @@
+package org.bancomaldaver.dao;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+import java.util.ArrayList;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicInteger;
+import org.bancomaldaver.TestDatabase;
+import org.bancomaldaver.utils.UnitOfWork;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+
+class CustomerDAOTest {
+  private static final int THREADS = 8;
+  private static final int WITHDRAWALS = 200;
+
+  @BeforeAll
+  static void prepareDatabase() {
+    TestDatabase.prepare();
+  }
+
+  /**
+   * Muitos saques ao mesmo tempo na mesma conta, cada um numa unidade como o do controller. Com o
+   * débito condicional, o saldo cobre exatamente os saques aceitos e nunca fica negativo.
+   */
+  @Test
+  void concurrentWithdrawalsNeverDebitTwice() throws Exception {
+    var initialBalance = 100_00L;
+    var amount = 3_00L;
+    var accountId = TestDatabase.createAccount(initialBalance, "senha").id();
+    var expectedAccepted = (int) (initialBalance / amount);
+
+    var accepted = new AtomicInteger();
+    var rejected = new AtomicInteger();
+    var start = new CountDownLatch(1);
+    var executor = Executors.newFixedThreadPool(THREADS);
+    try {
+      var results = new ArrayList<Future<?>>();
+      for (int i = 0; i < WITHDRAWALS; i++) {
+        results.add(
+            executor.submit(
+                () -> {
+                  start.await();
+                  UnitOfWork.run(
+                      () -> {
+                        if (!CustomerDAO.debitIfSufficient(accountId, amount)) {
+                          rejected.incrementAndGet();
+                          return;
+                        }
+                        CustomerDAO.insertTransaction(accountId, "WITHDRAWAL", -amount);
+                        accepted.incrementAndGet();
+                      });
+                  return null;
+                }));
+      }
+      start.countDown();
+      for (var result : results) {
+        // qualquer erro de banco dentro de um saque falha o teste aqui
+        result.get();
+      }
+    } finally {
+      executor.shutdown();
+    }
+
+    assertEquals(expectedAccepted, accepted.get(), "saques aceitos");
+    assertEquals(WITHDRAWALS - expectedAccepted, rejected.get(), "saques recusados");
+    assertEquals(initialBalance - expectedAccepted * amount, TestDatabase.balanceOf(accountId));
+    assertEquals(
+        expectedAccepted,
+        TestDatabase.count(
+            "SELECT COUNT(*) FROM transaction WHERE id_account = ? AND transaction_type = ?",
+            accountId,
+            "WITHDRAWAL"),
+        "lançamentos de saque");
+  }
+}
@@ -0,0 +1,31 @@
+package org.bancomaldaver.utils;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.util.concurrent.TimeUnit;
+import org.junit.jupiter.api.Test;
+
+class BoundedCacheTest {
+  private final BoundedCache<Integer, String> cache =
+      new BoundedCache<>("teste", 10, TimeUnit.MINUTES.toNanos(1));
+
+  @Test
+  void putKeepsAValueReadBeforeAnyInvalidation() throws Exception {
+    var generation = cache.generation();
+
+    assertTrue(cache.put(1, "lido", generation));
+    assertEquals("lido", cache.get(1, key -> "recarregado"));
+  }
+
+  /** A consulta leu o valor antigo, a escrita invalidou, e só depois o valor lido chegou ao put. */
+  @Test
+  void putDropsAValueReadBeforeAnInvalidation() throws Exception {
+    var generation = cache.generation();
+    cache.invalidate(1);
+
+    assertFalse(cache.put(1, "antigo", generation));
+    assertEquals("recarregado", cache.get(1, key -> "recarregado"));
+  }
+}
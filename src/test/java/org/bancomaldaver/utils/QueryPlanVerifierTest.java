@@ -0,0 +1,33 @@
+package org.bancomaldaver.utils;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+import java.util.List;
+import org.bancomaldaver.TestDatabase;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+
+/** Os planos de todas as queries contra a massa do {@code seed.sql}, com o critério estrito. */
+class QueryPlanVerifierTest {
+  @BeforeAll
+  static void prepareDatabase() {
+    TestDatabase.prepareSeeded();
+  }
+
+  @Test
+  void everyRegisteredQueryUsesAnIndex() {
+    QueryPlanVerifier.verify();
+  }
+
+  @Test
+  void reportsAFullScan() throws Exception {
+    // nenhum índice tem o saldo
+    var statement = QueryRegistry.adHoc("SELECT balance FROM account WHERE balance > ?");
+
+    try (var connection = DatabaseConnection.getConnection()) {
+      assertEquals(
+          List.of("AD_HOC (varredura ALL na tabela account)"),
+          QueryPlanVerifier.explain(connection, statement));
+    }
+  }
+}
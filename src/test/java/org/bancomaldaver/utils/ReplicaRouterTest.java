@@ -0,0 +1,151 @@
+package org.bancomaldaver.utils;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assumptions.assumeTrue;
+
+import java.util.concurrent.CompletableFuture;
+import org.bancomaldaver.TestDatabase;
+import org.bancomaldaver.dao.CustomerDAO;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+/**
+ * Roteamento entre primário e réplica com dois servidores locais. A "réplica" não replica nada: a
+ * conta existe nos dois com saldos diferentes, e o saldo lido mostra de onde veio a leitura.
+ *
+ * <p>Só roda com {@code -Dbancomalvader.test.replicaServerUrl=jdbc:mysql://localhost:3307/}
+ * apontando para um segundo servidor.
+ */
+class ReplicaRouterTest {
+  private static final String REPLICA_SERVER_URL =
+      System.getProperty("bancomalvader.test.replicaServerUrl");
+  private static final long STICKINESS_MILLIS = 300;
+  private static final long PRIMARY_BALANCE = 100_00;
+  private static final long REPLICA_BALANCE = 1_00;
+
+  static {
+    if (REPLICA_SERVER_URL != null) {
+      System.setProperty("bancomalvader.db.replica.urls", REPLICA_SERVER_URL + TestDatabase.NAME);
+      System.setProperty(
+          "bancomalvader.db.replica.stickinessMs", String.valueOf(STICKINESS_MILLIS));
+    }
+  }
+
+  private TestDatabase.Account account;
+
+  @BeforeAll
+  static void prepareDatabases() {
+    TestDatabase.prepare();
+    assumeTrue(REPLICA_SERVER_URL != null, "Sem -Dbancomalvader.test.replicaServerUrl");
+    TestDatabase.prepareReplica(REPLICA_SERVER_URL);
+  }
+
+  @BeforeEach
+  void createAccount() throws Exception {
+    account = TestDatabase.createAccount(PRIMARY_BALANCE, "senha");
+
+    // só a linha da conta, com o mesmo id e outro saldo
+    try (var replica = TestDatabase.connect(REPLICA_SERVER_URL);
+        var statement = replica.createStatement()) {
+      statement.execute("SET FOREIGN_KEY_CHECKS = 0");
+      try (var insert =
+          replica.prepareStatement(
+              "INSERT INTO account "
+                  + "(id_account, account_number, id_customer, branch, account_type, balance) "
+                  + "VALUES (?, ?, 0, ?, 'CHECKING', ?)")) {
+        insert.setInt(1, account.id());
+        insert.setInt(2, account.number());
+        insert.setString(3, account.branch());
+        insert.setBigDecimal(4, Money.toBigDecimal(REPLICA_BALANCE));
+        insert.executeUpdate();
+      }
+    }
+    waitForTheWindowToExpire();
+  }
+
+  @Test
+  void readsGoToTheReplicaWithoutARecentWrite() throws Exception {
+    assertEquals(REPLICA_BALANCE, CustomerDAO.getBalance(account.id()));
+  }
+
+  @Test
+  void readsStayOnThePrimaryRightAfterAWrite() throws Exception {
+    CustomerDAO.updateBalance(account.id(), 10_00);
+
+    assertEquals(PRIMARY_BALANCE + 10_00, CustomerDAO.getBalance(account.id()));
+
+    waitForTheWindowToExpire();
+    assertEquals(REPLICA_BALANCE, CustomerDAO.getBalance(account.id()));
+  }
+
+  @Test
+  void aUnitWithOnlyReadsKeepsReadsOnTheReplica() throws Exception {
+    UnitOfWork.call(() -> CustomerDAO.getBalance(account.id()));
+
+    assertEquals(REPLICA_BALANCE, CustomerDAO.getBalance(account.id()));
+  }
+
+  @Test
+  void aUnitThatWritesKeepsReadsOnThePrimary() throws Exception {
+    UnitOfWork.run(() -> CustomerDAO.updateBalance(account.id(), 10_00));
+
+    assertEquals(PRIMARY_BALANCE + 10_00, CustomerDAO.getBalance(account.id()));
+  }
+
+  @Test
+  void windowStartsWhenASlowWriteFinishes() throws Exception {
+    // outra transação segura a linha por mais tempo que a janela; a escrita avulsa fica esperando
+    try (var blocker = TestDatabase.connect()) {
+      blocker.setAutoCommit(false);
+      try (var lock =
+          blocker.prepareStatement("SELECT balance FROM account WHERE id_account = ? FOR UPDATE")) {
+        lock.setInt(1, account.id());
+        lock.executeQuery().close();
+      }
+
+      var write =
+          CompletableFuture.runAsync(
+              () -> {
+                try {
+                  CustomerDAO.updateBalance(account.id(), 10_00);
+                } catch (Exception e) {
+                  throw new RuntimeException(e);
+                }
+              },
+              runnable -> new Thread(runnable).start());
+      while (TestDatabase.count(
+              "SELECT COUNT(*) FROM information_schema.INNODB_TRX WHERE trx_state = ?", "LOCK WAIT")
+          == 0) {
+        Thread.sleep(10);
+      }
+      Thread.sleep(STICKINESS_MILLIS * 2);
+      blocker.commit();
+      write.join();
+    }
+
+    assertEquals(PRIMARY_BALANCE + 10_00, CustomerDAO.getBalance(account.id()));
+  }
+
+  @Test
+  void serverCountersAreReadOnThePrimary() {
+    var replicaBefore = replicaAcquisitions();
+    var primaryBefore = PoolMetrics.snapshot().acquisitions();
+
+    StatementCacheStats.snapshot();
+
+    assertEquals(primaryBefore + 1, PoolMetrics.snapshot().acquisitions());
+    assertEquals(replicaBefore, replicaAcquisitions());
+  }
+
+  private static long replicaAcquisitions() {
+    return PoolMetrics.snapshotAll().stream()
+        .filter(metrics -> metrics.poolName().startsWith("banco-malvader-replica-"))
+        .mapToLong(PoolMetrics::acquisitions)
+        .sum();
+  }
+
+  private static void waitForTheWindowToExpire() throws InterruptedException {
+    Thread.sleep(STICKINESS_MILLIS * 2);
+  }
+}
@@ -0,0 +1,39 @@
+package org.bancomaldaver.utils;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import org.bancomaldaver.TestDatabase;
+import org.bancomaldaver.dao.CustomerDAO;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+
+class StatementCacheStatsTest {
+  @BeforeAll
+  static void prepareDatabase() {
+    TestDatabase.prepare();
+  }
+
+  @Test
+  void countsOnlyWhatRanAfterTheStart() throws Exception {
+    var accountId = TestDatabase.createAccount(100_00, "senha").id();
+    // primeira execução: prepara o comando na conexão
+    CustomerDAO.getBalance(accountId);
+
+    StatementCacheStats.markStart();
+    for (int i = 0; i < 20; i++) {
+      CustomerDAO.getBalance(accountId);
+    }
+    var stats = StatementCacheStats.sinceStart();
+
+    // as 20 consultas mais a leitura dos contadores em sinceStart
+    assertEquals(21, stats.executions());
+    assertTrue(stats.hitRate() > 0.9, "acerto de " + stats.hitRate());
+  }
+
+  @Test
+  void statusQueryNeverGoesToAReplica() {
+    assertTrue(SQLQueries.SELECT_STATEMENT_STATUS.isReadOnly());
+    assertTrue(SQLQueries.SELECT_STATEMENT_STATUS.isPrimaryOnly());
+  }
+}
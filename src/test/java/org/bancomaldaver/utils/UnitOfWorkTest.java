@@ -0,0 +1,106 @@
+package org.bancomaldaver.utils;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.sql.SQLException;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CyclicBarrier;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import org.bancomaldaver.TestDatabase;
+import org.bancomaldaver.dao.CustomerDAO;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+
+class UnitOfWorkTest {
+  @BeforeAll
+  static void prepareDatabase() {
+    TestDatabase.prepare();
+  }
+
+  /**
+   * Duas unidades travam as mesmas contas em ordem oposta, sem a ordenação da transferência: o
+   * banco derruba uma delas por deadlock e o retry refaz a transação inteira.
+   */
+  @Test
+  void callWithRetryRedoesTheUnitAfterARealDeadlock() throws Exception {
+    var first = TestDatabase.createAccount(100_00, "senha").id();
+    var second = TestDatabase.createAccount(100_00, "senha").id();
+    var deadlocksBefore = TestDatabase.globalStatus("Innodb_deadlocks");
+    var attempts = new AtomicInteger();
+    // as duas unidades só se esperam na primeira tentativa; a refeita passa direto
+    var bothLocked = new CyclicBarrier(2);
+
+    var forward = updateBothInOrder(first, second, bothLocked, attempts);
+    var backward = updateBothInOrder(second, first, bothLocked, attempts);
+    forward.get(30, TimeUnit.SECONDS);
+    backward.get(30, TimeUnit.SECONDS);
+
+    assertTrue(TestDatabase.globalStatus("Innodb_deadlocks") > deadlocksBefore, "deadlocks");
+    assertTrue(attempts.get() >= 3, "tentativas: " + attempts.get());
+    // cada unidade somou 1,00 nas duas contas uma única vez, mesmo refeita
+    assertEquals(102_00, TestDatabase.balanceOf(first));
+    assertEquals(102_00, TestDatabase.balanceOf(second));
+  }
+
+  @Test
+  void callWithRetryDoesNotRedoOtherErrors() throws Exception {
+    var accountId = TestDatabase.createAccount(100_00, "senha").id();
+    var attempts = new AtomicInteger();
+
+    assertThrows(
+        IllegalArgumentException.class,
+        () ->
+            UnitOfWork.callWithRetry(
+                () -> {
+                  attempts.incrementAndGet();
+                  CustomerDAO.updateBalance(accountId, 1_00);
+                  throw new IllegalArgumentException("Saldo insuficiente.");
+                }));
+
+    assertEquals(1, attempts.get());
+    assertEquals(100_00, TestDatabase.balanceOf(accountId), "a escrita foi desfeita");
+  }
+
+  @Test
+  void callWithRetryGivesUpAfterTheLastAttempt() {
+    var attempts = new AtomicInteger();
+
+    var error =
+        assertThrows(
+            SQLException.class,
+            () ->
+                UnitOfWork.callWithRetry(
+                    () -> {
+                      attempts.incrementAndGet();
+                      throw new SQLException("Deadlock found", "40001", 1213);
+                    }));
+
+    assertEquals(1213, error.getErrorCode());
+    assertEquals(5, attempts.get());
+  }
+
+  private static CompletableFuture<Void> updateBothInOrder(
+      int firstAccountId, int secondAccountId, CyclicBarrier bothLocked, AtomicInteger attempts) {
+    return CompletableFuture.runAsync(
+        () -> {
+          try {
+            UnitOfWork.callWithRetry(
+                () -> {
+                  var attempt = attempts.incrementAndGet();
+                  CustomerDAO.updateBalance(firstAccountId, 1_00);
+                  if (attempt <= 2) {
+                    bothLocked.await(10, TimeUnit.SECONDS);
+                  }
+                  CustomerDAO.updateBalance(secondAccountId, 1_00);
+                  return null;
+                });
+          } catch (Exception e) {
+            throw new RuntimeException(e);
+          }
+        },
+        runnable -> new Thread(runnable).start());
+  }
+}